@@ -0,0 +1,155 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic analytics events shaped like the ones the clients put on the stream, one generator
+ * per data_type in data-type-mappings.json plus {@code unmapped} for the default mapping. Values
+ * vary per event so the benchmarks do not run on a single hot string.
+ */
+public final class AnalyticsPayloads {
+
+    public static final String[] DATA_TYPES = {
+        "mrf_scans",
+        "label_scan",
+        "label_scan_ping",
+        "label_scan_navigator",
+        "third_party_scan",
+        "third_party_redeem",
+        "unmapped"
+    };
+
+    private static final String[][] CITIES = {
+        {"Manchester", "United Kingdom", "GB", "53.4808", "-2.2426", "M1", "Europe/London"},
+        {"London", "United Kingdom", "GB", "51.5072", "-0.1276", "EC1A", "Europe/London"},
+        {"Dublin", "Ireland", "IE", "53.3498", "-6.2603", "D02", "Europe/Dublin"},
+        {"Lisbon", "Portugal", "PT", "38.7223", "-9.1393", "1100", "Europe/Lisbon"},
+        {"Sao Paulo", "Brazil", "BR", "-23.5558", "-46.6396", "01000", "America/Sao_Paulo"}
+    };
+
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 15_0 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/15.0 Mobile/15E148 Safari/604.1",
+        "Mozilla/5.0 (Linux; Android 11; SM-G991B) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/94.0.4606.85 Mobile Safari/537.36",
+        "Mozilla/5.0 (Linux; Android 10; Pixel 3) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/95.0.4638.50 Mobile Safari/537.36"
+    };
+
+    private AnalyticsPayloads() {}
+
+    /** {@code count} UTF-8 encoded events of the data type, reproducible for a given seed. */
+    public static List<byte[]> generate(String data_type, int count, long seed) {
+        Random random = new Random(seed);
+        List<byte[]> payloads = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            payloads.add(event(data_type, random).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return payloads;
+    }
+
+    private static String event(String data_type, Random random) {
+        long received_at = 1634550000000L + random.nextInt(3_600_000);
+        String[] city = CITIES[random.nextInt(CITIES.length)];
+        String gtin = String.format("0%013d", (long) (random.nextDouble() * 1e13));
+
+        StringBuilder json = new StringBuilder(512).append('{');
+
+        switch (data_type) {
+            case "mrf_scans":
+                field(json, "data_type", data_type);
+                field(json, "mrf_id", uuid(random));
+                field(json, "gtin", gtin);
+                number(json, "count", 1 + random.nextInt(50));
+                break;
+            case "label_scan":
+                field(json, "data_type", data_type);
+                number(json, "received_at", received_at);
+                field(json, "request_id", uuid(random));
+                location(json, city, random);
+                literal(json, "is_ios", Boolean.toString(random.nextBoolean()));
+                break;
+            case "label_scan_ping":
+                field(json, "data_type", data_type);
+                number(json, "received_at", received_at);
+                field(json, "request_id", uuid(random));
+                number(json, "time_spent_away", random.nextInt(120_000));
+                break;
+            case "label_scan_navigator":
+                field(json, "data_type", data_type);
+                number(json, "received_at", received_at);
+                field(json, "request_id", uuid(random));
+                field(json, "product_group_id", uuid(random));
+                field(json, "campaign_id", uuid(random));
+                field(json, "landing_page_id", uuid(random));
+                number(json, "hardware_concurrency", 1 << random.nextInt(4));
+                number(json, "max_touch_points", 5);
+                field(json, "user_agent", USER_AGENTS[random.nextInt(USER_AGENTS.length)]);
+                field(json, "phone_current_language", "en-GB");
+                field(json, "gtin", gtin);
+                number(json, "time_spent_away", random.nextInt(120_000));
+                field(json, "languages", "en-GB,en");
+                field(json, "screen_size", "390x844");
+                break;
+            case "third_party_scan":
+            case "third_party_redeem":
+                field(json, "data_type", data_type);
+                number(json, "received_at", received_at);
+                field(json, "gtin", gtin);
+                field(json, "serial", Long.toHexString(random.nextLong()));
+                field(json, "third_party_id", "tp-" + random.nextInt(20));
+
+                if (data_type.equals("third_party_redeem")) {
+                    field(json, "city", city[0]);
+                    field(json, "country", city[1]);
+                    field(json, "country_code", city[2]);
+                    field(json, "latitude", city[3]);
+                    field(json, "longitude", city[4]);
+                }
+                break;
+            default:
+                field(json, "data_type", data_type);
+                number(json, "time", received_at);
+                field(json, "timeunit", "MILLISECONDS");
+                field(json, "source", "web");
+                field(json, "session_measure", uuid(random));
+                field(json, "duration_measure", Integer.toString(random.nextInt(10_000)));
+        }
+
+        json.setLength(json.length() - 1);
+
+        return json.append('}').toString();
+    }
+
+    private static void location(StringBuilder json, String[] city, Random random) {
+        field(json, "city", city[0]);
+        field(json, "country", city[1]);
+        field(json, "ip", (random.nextInt(223) + 1) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+        field(json, "latitude", city[3]);
+        field(json, "longitude", city[4]);
+        field(json, "postal_code", city[5]);
+        field(json, "time_zone", city[6]);
+    }
+
+    private static String uuid(Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        json.append('"').append(name).append("\":\"").append(value).append("\",");
+    }
+
+    private static void number(StringBuilder json, String name, long value) {
+        literal(json, name, Long.toString(value));
+    }
+
+    private static void literal(StringBuilder json, String name, String value) {
+        json.append('"').append(name).append("\":").append(value).append(',');
+    }
+}
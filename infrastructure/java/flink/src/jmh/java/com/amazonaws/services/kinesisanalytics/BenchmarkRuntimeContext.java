@@ -0,0 +1,51 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.lang.reflect.Proxy;
+
+/**
+ * Just enough of a {@link RuntimeContext} to open rich functions outside a job: subtask 0 of 1
+ * with metrics that go nowhere. Anything else throws.
+ */
+public final class BenchmarkRuntimeContext {
+
+    private BenchmarkRuntimeContext() {}
+
+    public static RuntimeContext create() {
+        UnregisteredMetricsGroup metric_group = new UnregisteredMetricsGroup();
+        ExecutionConfig execution_config = new ExecutionConfig();
+
+        return (RuntimeContext) Proxy.newProxyInstance(
+            RuntimeContext.class.getClassLoader(),
+            new Class<?>[] {RuntimeContext.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getMetricGroup":
+                        return metric_group;
+                    case "getExecutionConfig":
+                        return execution_config;
+                    case "getIndexOfThisSubtask":
+                        return 0;
+                    case "getNumberOfParallelSubtasks":
+                    case "getMaxNumberOfParallelSubtasks":
+                        return 1;
+                    case "getTaskName":
+                    case "getTaskNameWithSubtasks":
+                        return "benchmark";
+                    case "toString":
+                        return "BenchmarkRuntimeContext";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
@@ -0,0 +1,116 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.timestream.StubTimestreamWriter;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.checkpoint.CheckpointStatsSnapshot;
+import org.apache.flink.runtime.checkpoint.MinMaxAvgStats;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.minicluster.MiniCluster;
+import org.apache.flink.runtime.minicluster.MiniClusterConfiguration;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link StreamingJob}'s topology on a local MiniCluster, fed by {@link SyntheticEventSource}
+ * and writing to {@link StubTimestreamWriter}, then reports the sustained event and record rates and the checkpoint durations.
+ *
+ * <p>Run with: {@code mvn -Pjmh test-compile exec:exec@load-test -Dload.args="<options>"}.
+ * Options: {@code parallelism} (4), {@code warmup_seconds} (10), {@code duration_seconds} (60),
+ * {@code events_per_second} per source subtask (0, unthrottled), {@code data_types} (all),
+ * {@code checkpoint_interval_millis} (10000), {@code timestream_writer} ("latency_millis=20", the stub
+ * writer's options); any other {@code --key value} goes to the job.
+ */
+public class StreamingJobLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> defaults = new HashMap<>();
+
+        defaults.put("timestream_writer", "latency_millis=20");
+        defaults.put("timestream_flush_max_linger_millis", "1000");
+
+        final ParameterTool parameter = ParameterTool.fromMap(defaults).mergeWith(ParameterTool.fromArgs(args));
+
+        final int parallelism = parameter.getInt("parallelism", 4);
+        final long warmup_seconds = parameter.getLong("warmup_seconds", 10L);
+        final long duration_seconds = parameter.getLong("duration_seconds", 60L);
+        final String[] data_types = parameter.get("data_types", String.join(",", AnalyticsPayloads.DATA_TYPES)).split(",");
+
+        final TopologyConfig topology = TopologyConfig.fromParameterTool(parameter);
+        final int slots = Math.max(parallelism, Math.max(topology.getParseParallelism(), topology.getSinkParallelism()));
+
+        MiniClusterConfiguration cluster_configuration = new MiniClusterConfiguration.Builder()
+            .setConfiguration(new Configuration())
+            .setNumTaskManagers(1)
+            .setNumSlotsPerTaskManager(slots)
+            .build();
+
+        try (MiniCluster mini_cluster = new MiniCluster(cluster_configuration)) {
+            mini_cluster.start();
+
+            StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+            env.setParallelism(parallelism);
+            env.enableCheckpointing(parameter.getLong("checkpoint_interval_millis", 10000L));
+            env.getConfig().setAutoWatermarkInterval(1000L);
+
+            StreamingJob.createTopologyFromRecords(
+                env
+                    .addSource(new SyntheticEventSource(data_types, parameter.getInt("events_per_second", 0)))
+                    .name("SyntheticEventSource"),
+                parameter,
+                StubTimestreamWriter.fromOptions(parameter.get("timestream_writer")));
+
+            JobGraph job_graph = env.getStreamGraph().getJobGraph();
+            JobID job_id = mini_cluster.submitJob(job_graph).get().getJobID();
+
+            System.out.printf("Running %s with parallelism %d, stub writer %s%n",
+                String.join(",", data_types), parallelism, parameter.get("timestream_writer"));
+
+            TimeUnit.SECONDS.sleep(warmup_seconds);
+
+            long events_at_start = SyntheticEventSource.eventsEmitted();
+            long records_at_start = StubTimestreamWriter.recordsWritten();
+            long started_at = System.nanoTime();
+
+            TimeUnit.SECONDS.sleep(duration_seconds);
+
+            double elapsed_seconds = (System.nanoTime() - started_at) / 1e9;
+            long events = SyntheticEventSource.eventsEmitted() - events_at_start;
+            long records = StubTimestreamWriter.recordsWritten() - records_at_start;
+
+            CheckpointStatsSnapshot checkpoints = mini_cluster.getExecutionGraph(job_id).get().getCheckpointStatsSnapshot();
+
+            mini_cluster.cancelJob(job_id).get();
+
+            System.out.printf("events/s            %.0f%n", events / elapsed_seconds);
+            System.out.printf("records/s           %.0f%n", records / elapsed_seconds);
+            System.out.printf("records rejected    %d%n", StubTimestreamWriter.recordsRejected());
+            System.out.printf("requests throttled  %d%n", StubTimestreamWriter.requestsThrottled());
+
+            MinMaxAvgStats durations = checkpoints.getSummaryStats().getEndToEndDurationStats();
+            MinMaxAvgStats state_sizes = checkpoints.getSummaryStats().getStateSizeStats();
+
+            System.out.printf("checkpoints         %d completed, %d failed%n",
+                checkpoints.getCounts().getNumberOfCompletedCheckpoints(),
+                checkpoints.getCounts().getNumberOfFailedCheckpoints());
+            System.out.printf("checkpoint ms       min %d, avg %d, max %d%n",
+                durations.getMinimum(), durations.getAverage(), durations.getMaximum());
+            System.out.printf("checkpoint bytes    avg %d, max %d%n", state_sizes.getAverage(), state_sizes.getMaximum());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emits {@link AnalyticsPayloads} events round-robin over the given data types until cancelled,
+ * at up to {@code events_per_second} per subtask (0 is as fast as the job accepts them).
+ */
+public class SyntheticEventSource extends RichParallelSourceFunction<byte[]> {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PAYLOADS_PER_DATA_TYPE = 1024;
+
+    private static final AtomicLong events_emitted = new AtomicLong();
+
+    private final String[] data_types;
+
+    private final int events_per_second;
+
+    private transient List<byte[]> payloads;
+
+    private volatile boolean running = true;
+
+    public SyntheticEventSource(String[] data_types, int events_per_second) {
+        this.data_types = data_types;
+        this.events_per_second = events_per_second;
+    }
+
+    /** Events emitted by every subtask in this JVM. */
+    public static long eventsEmitted() {
+        return events_emitted.get();
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        List<List<byte[]>> payloads_per_data_type = new ArrayList<>(data_types.length);
+        long seed = getRuntimeContext().getIndexOfThisSubtask();
+
+        for (String data_type : data_types) {
+            payloads_per_data_type.add(AnalyticsPayloads.generate(data_type, PAYLOADS_PER_DATA_TYPE, seed++));
+        }
+
+        // Interleave the data types so every batch the sink builds sees a realistic mix.
+        this.payloads = new ArrayList<>(PAYLOADS_PER_DATA_TYPE * data_types.length);
+
+        for (int i = 0; i < PAYLOADS_PER_DATA_TYPE; i++) {
+            for (List<byte[]> data_type_payloads : payloads_per_data_type) {
+                payloads.add(data_type_payloads.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void run(SourceContext<byte[]> context) throws Exception {
+        long started_at = System.currentTimeMillis();
+        long emitted = 0;
+        int next_payload = 0;
+
+        while (running) {
+            if (events_per_second > 0) {
+                long due = (System.currentTimeMillis() - started_at) * events_per_second / 1000L;
+
+                if (emitted >= due) {
+                    Thread.sleep(1);
+
+                    continue;
+                }
+            }
+
+            synchronized (context.getCheckpointLock()) {
+                context.collect(payloads.get(next_payload));
+            }
+
+            next_payload = (next_payload + 1) % payloads.size();
+            emitted++;
+
+            events_emitted.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        running = false;
+    }
+}
@@ -0,0 +1,89 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.AnalyticsPayloads;
+import com.amazonaws.services.kinesisanalytics.BenchmarkRuntimeContext;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.configuration.Configuration;
+
+/* ----------
+ * JMH imports
+ * ---------- */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonToTimestreamPayloadFn#map} per data_type, in single and multi-measure mode, cycling
+ * through generated events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonToTimestreamPayloadBenchmark {
+
+    private static final int PAYLOAD_COUNT = 1024;
+
+    @Param({
+        "mrf_scans",
+        "label_scan",
+        "label_scan_ping",
+        "label_scan_navigator",
+        "third_party_scan",
+        "third_party_redeem",
+        "unmapped"
+    })
+    public String data_type;
+
+    @Param({"false", "true"})
+    public boolean multi_measure_records;
+
+    private JsonToTimestreamPayloadFn fn;
+
+    private List<byte[]> payloads;
+
+    private int next_payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fn = new JsonToTimestreamPayloadFn(null, 0, multi_measure_records);
+        fn.setRuntimeContext(BenchmarkRuntimeContext.create());
+        fn.open(new Configuration());
+
+        payloads = AnalyticsPayloads.generate(data_type, PAYLOAD_COUNT, 17L);
+    }
+
+    @Benchmark
+    public Collection<TimestreamPoint> map() {
+        byte[] payload = payloads.get(next_payload);
+
+        next_payload = (next_payload + 1) & (PAYLOAD_COUNT - 1);
+
+        return fn.map(payload);
+    }
+}
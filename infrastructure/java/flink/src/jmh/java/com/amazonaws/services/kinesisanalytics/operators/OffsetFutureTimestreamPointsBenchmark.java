@@ -0,0 +1,154 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.AnalyticsPayloads;
+import com.amazonaws.services.kinesisanalytics.BenchmarkRuntimeContext;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.TimerService;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+/* ----------
+ * JMH imports
+ * ---------- */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OffsetFutureTimestreamPoints#processElement} on parsed events, a fraction of which are
+ * dated a day ahead and get rewritten. Rewritten times are restored before each call, which is
+ * included in the measurement but small next to the operator itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OffsetFutureTimestreamPointsBenchmark {
+
+    private static final int EVENT_COUNT = 1024;
+
+    @Param({"mrf_scans", "label_scan", "label_scan_navigator", "third_party_redeem", "unmapped"})
+    public String data_type;
+
+    @Param({"0.0", "0.1"})
+    public double future_fraction;
+
+    private OffsetFutureTimestreamPoints fn;
+
+    private OffsetFutureTimestreamPoints.Context context;
+
+    private final LastElementCollector collector = new LastElementCollector();
+
+    private List<Collection<TimestreamPoint>> events;
+
+    private long[][] event_times;
+
+    private int next_event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JsonToTimestreamPayloadFn parser = new JsonToTimestreamPayloadFn();
+        parser.setRuntimeContext(BenchmarkRuntimeContext.create());
+        parser.open(new Configuration());
+
+        Random random = new Random(17L);
+        long future_time = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+
+        events = new ArrayList<>(EVENT_COUNT);
+        event_times = new long[EVENT_COUNT][];
+
+        for (byte[] payload : AnalyticsPayloads.generate(data_type, EVENT_COUNT, 17L)) {
+            Collection<TimestreamPoint> points = parser.map(payload);
+            boolean future = random.nextDouble() < future_fraction;
+            long[] times = new long[points.size()];
+            int i = 0;
+
+            for (TimestreamPoint point : points) {
+                if (future) {
+                    point.setTime(future_time);
+                    point.setTimeUnit("MILLISECONDS");
+                }
+
+                times[i++] = point.getTime();
+            }
+
+            event_times[events.size()] = times;
+            events.add(points);
+        }
+
+        fn = new OffsetFutureTimestreamPoints();
+        context = fn.new Context() {
+            @Override
+            public Long timestamp() {
+                return 1634550000000L;
+            }
+
+            @Override
+            public TimerService timerService() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public <X> void output(OutputTag<X> output_tag, X value) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Benchmark
+    public Collection<TimestreamPoint> processElement() {
+        Collection<TimestreamPoint> points = events.get(next_event);
+        long[] times = event_times[next_event];
+        int i = 0;
+
+        for (TimestreamPoint point : points) {
+            point.setTime(times[i++]);
+        }
+
+        next_event = (next_event + 1) & (EVENT_COUNT - 1);
+
+        fn.processElement(points, context, collector);
+
+        return collector.last;
+    }
+
+    private static final class LastElementCollector implements Collector<Collection<TimestreamPoint>> {
+        Collection<TimestreamPoint> last;
+
+        @Override
+        public void collect(Collection<TimestreamPoint> points) {
+            last = points;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,243 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.http.HttpResponse;
+import com.amazonaws.http.SdkHttpMetadata;
+import com.amazonaws.services.timestreamwrite.model.RejectedRecord;
+import com.amazonaws.services.timestreamwrite.model.RejectedRecordsException;
+import com.amazonaws.services.timestreamwrite.model.ThrottlingException;
+import com.amazonaws.services.timestreamwrite.model.ValidationException;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsRequest;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsResult;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for Timestream, for load tests and trying sink changes without AWS; the load
+ * test hands it to {@link TimestreamSink} in place of {@link AwsTimestreamWriter}. Each
+ * request waits a random latency in [latency / 2, latency * 3 / 2], is throttled as a whole with
+ * {@code throttling_rate} or once the table is over {@code max_records_per_second}, and otherwise
+ * rejects each record with {@code rejection_rate}, the way records outside the memory store
+ * retention are rejected.
+ *
+ * <p>Options, comma separated: {@code latency_millis} (default 20),
+ * {@code throttling_rate}, {@code rejection_rate} and {@code max_records_per_second} (default 0,
+ * no limit). The capacity and the totals are shared by all subtasks in the JVM, like a table's
+ * ingestion limit, and a local driver can read the totals while the job runs.
+ */
+public class StubTimestreamWriter implements TimestreamWriter {
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_RECORDS_PER_REQUEST = 100;
+
+    private static final AtomicLong records_written = new AtomicLong();
+    private static final AtomicLong records_rejected = new AtomicLong();
+    private static final AtomicLong requests_throttled = new AtomicLong();
+
+    private static long capacity_second;
+    private static long capacity_second_records;
+
+    private final long latency_millis;
+    private final double throttling_rate;
+    private final double rejection_rate;
+    private final long max_records_per_second;
+
+    private transient ExecutorService request_executor;
+
+    public StubTimestreamWriter(long latency_millis, double throttling_rate, double rejection_rate, long max_records_per_second) {
+        if (latency_millis < 0 || max_records_per_second < 0) {
+            throw new IllegalArgumentException("latency_millis and max_records_per_second must not be negative, got "
+                + latency_millis + " and " + max_records_per_second);
+        }
+
+        if (throttling_rate < 0 || throttling_rate > 1 || rejection_rate < 0 || rejection_rate > 1) {
+            throw new IllegalArgumentException("throttling_rate and rejection_rate must be between 0 and 1, got "
+                + throttling_rate + " and " + rejection_rate);
+        }
+
+        this.latency_millis = latency_millis;
+        this.throttling_rate = throttling_rate;
+        this.rejection_rate = rejection_rate;
+        this.max_records_per_second = max_records_per_second;
+    }
+
+    public static StubTimestreamWriter fromOptions(String options) {
+        long latency_millis = 20L;
+        double throttling_rate = 0;
+        double rejection_rate = 0;
+        long max_records_per_second = 0;
+
+        for (String option : options.split(",")) {
+            if (option.isEmpty()) {
+                continue;
+            }
+
+            String[] key_value = option.split("=", 2);
+            String value = key_value.length == 2 ? key_value[1].trim() : "";
+
+            switch (key_value[0].trim()) {
+                case "latency_millis":
+                    latency_millis = Long.parseLong(value);
+                    break;
+                case "throttling_rate":
+                    throttling_rate = Double.parseDouble(value);
+                    break;
+                case "rejection_rate":
+                    rejection_rate = Double.parseDouble(value);
+                    break;
+                case "max_records_per_second":
+                    max_records_per_second = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown stub writer option " + option);
+            }
+        }
+
+        return new StubTimestreamWriter(latency_millis, throttling_rate, rejection_rate, max_records_per_second);
+    }
+
+    public static long recordsWritten() {
+        return records_written.get();
+    }
+
+    public static long recordsRejected() {
+        return records_rejected.get();
+    }
+
+    public static long requestsThrottled() {
+        return requests_throttled.get();
+    }
+
+    @Override
+    public void open(TimestreamSinkConfig config) {
+        if (config.isAsyncWrites()) {
+            this.request_executor = Executors.newFixedThreadPool(config.getMaxInFlightRequests(), runnable -> {
+                Thread thread = new Thread(runnable, "stub-timestream-writer");
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public WriteRecordsResult writeRecords(WriteRecordsRequest request) {
+        int record_count = request.getRecords().size();
+
+        if (record_count > MAX_RECORDS_PER_REQUEST) {
+            throw new ValidationException("WriteRecords accepts at most " + MAX_RECORDS_PER_REQUEST + " records, got " + record_count);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (latency_millis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latency_millis / 2 + random.nextLong(latency_millis + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("Interrupted during a stub Timestream write", e);
+            }
+        }
+
+        if (random.nextDouble() < throttling_rate || !admit(record_count)) {
+            requests_throttled.incrementAndGet();
+
+            ThrottlingException throttled = new ThrottlingException("Rate exceeded");
+            throttled.setStatusCode(429);
+
+            throw throttled;
+        }
+
+        List<RejectedRecord> rejected_records = new ArrayList<>();
+
+        for (int i = 0; rejection_rate > 0 && i < record_count; i++) {
+            if (random.nextDouble() < rejection_rate) {
+                rejected_records.add(new RejectedRecord()
+                    .withRecordIndex(i)
+                    .withReason("The record timestamp is outside the time range of the data ingestion window."));
+            }
+        }
+
+        records_written.addAndGet(record_count - rejected_records.size());
+
+        if (!rejected_records.isEmpty()) {
+            records_rejected.addAndGet(rejected_records.size());
+
+            RejectedRecordsException rejected = new RejectedRecordsException("One or more records have been rejected.");
+            rejected.setRejectedRecords(rejected_records);
+            rejected.setStatusCode(419);
+
+            throw rejected;
+        }
+
+        HttpResponse http_response = new HttpResponse(null, null);
+        http_response.setStatusCode(200);
+
+        WriteRecordsResult result = new WriteRecordsResult();
+        result.setSdkHttpMetadata(SdkHttpMetadata.from(http_response));
+
+        return result;
+    }
+
+    /** Counts the records against the current second's capacity, unless that would exceed it. */
+    private boolean admit(int record_count) {
+        if (max_records_per_second == 0) {
+            return true;
+        }
+
+        long second = System.currentTimeMillis() / 1000L;
+
+        synchronized (StubTimestreamWriter.class) {
+            if (second != capacity_second) {
+                capacity_second = second;
+                capacity_second_records = 0;
+            }
+
+            if (capacity_second_records + record_count > max_records_per_second) {
+                return false;
+            }
+
+            capacity_second_records += record_count;
+
+            return true;
+        }
+    }
+
+    @Override
+    public void writeRecordsAsync(WriteRecordsRequest request, AsyncHandler<WriteRecordsRequest, WriteRecordsResult> handler) {
+        request_executor.execute(() -> {
+            WriteRecordsResult result;
+
+            try {
+                result = writeRecords(request);
+            } catch (Exception e) {
+                handler.onError(e);
+
+                return;
+            }
+
+            handler.onSuccess(request, result);
+        });
+    }
+
+    @Override
+    public void close() {
+        if (request_executor != null) {
+            request_executor.shutdown();
+        }
+    }
+}
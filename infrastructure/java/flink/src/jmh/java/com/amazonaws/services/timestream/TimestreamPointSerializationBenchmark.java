@@ -0,0 +1,152 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+/* ----------
+ * JMH imports
+ * ---------- */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TimestreamPointCollectionSerializer} with the Kryo fallback Flink used for
+ * {@code Collection<TimestreamPoint>} on the network and chaining (copy) paths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestreamPointSerializationBenchmark {
+
+    @Param({"native", "kryo"})
+    public String serializer_name;
+
+    @Param({"mrf_scans", "label_scan"})
+    public String data_type;
+
+    private TypeSerializer<Collection<TimestreamPoint>> serializer;
+
+    private Collection<TimestreamPoint> points;
+
+    private DataOutputSerializer output;
+
+    private DataInputDeserializer input;
+
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        serializer = serializer_name.equals("kryo")
+            ? new KryoSerializer<>((Class<Collection<TimestreamPoint>>) (Class<?>) Collection.class, new ExecutionConfig())
+            : TimestreamPointCollectionSerializer.INSTANCE;
+
+        points = data_type.equals("label_scan") ? labelScan() : mrfScans();
+        output = new DataOutputSerializer(1024);
+        input = new DataInputDeserializer();
+
+        serializer.serialize(points, output);
+        serialized = output.getCopyOfBuffer();
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        output.clear();
+        serializer.serialize(points, output);
+
+        return output.length();
+    }
+
+    @Benchmark
+    public Collection<TimestreamPoint> deserialize() throws IOException {
+        input.setBuffer(serialized);
+
+        return serializer.deserialize(input);
+    }
+
+    @Benchmark
+    public Collection<TimestreamPoint> copy() {
+        return serializer.copy(points);
+    }
+
+    private static Collection<TimestreamPoint> mrfScans() {
+        TimestreamPoint point = basePoint();
+
+        point.addDimension("mrf_id", "7b0e3c2a-51f4-4d8e-9a43-0c6f3e1d2b7a");
+        point.addDimension("gtin", "05012345678900");
+        point.addDimension("data_type", "mrf_scans");
+        point.setMeasureName("count_measure");
+        point.setMeasureValue("12");
+        point.setMeasureValueType(MeasureValueType.VARCHAR);
+
+        List<TimestreamPoint> points = new ArrayList<>(1);
+        points.add(point);
+
+        return points;
+    }
+
+    private static Collection<TimestreamPoint> labelScan() {
+        TimestreamPoint point = basePoint();
+
+        point.addDimension("city", "Manchester");
+        point.addDimension("country", "United Kingdom");
+        point.addDimension("ip", "81.2.69.160");
+        point.addDimension("latitude", "53.4808");
+        point.addDimension("longitude", "-2.2426");
+        point.addDimension("postal_code", "M1");
+        point.addDimension("time_spent_away", "0");
+        point.addDimension("time_zone", "Europe/London");
+        point.addDimension("data_type", "label_scan");
+        point.addDimension("phone_os", "android");
+        point.setMeasureName("label_measure");
+        point.setMeasureValue("3f1c9a52-8d0e-4b6f-a7e2-94c5d1b0e6f3");
+        point.setMeasureValueType(MeasureValueType.VARCHAR);
+
+        List<TimestreamPoint> points = new ArrayList<>(1);
+        points.add(point);
+
+        return points;
+    }
+
+    private static TimestreamPoint basePoint() {
+        TimestreamPoint point = new TimestreamPoint();
+
+        point.setTime(1634550000000L);
+        point.setTimeUnit("MILLISECONDS");
+
+        return point;
+    }
+}
@@ -0,0 +1,88 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.kinesisanalytics.AnalyticsPayloads;
+import com.amazonaws.services.kinesisanalytics.BenchmarkRuntimeContext;
+import com.amazonaws.services.kinesisanalytics.operators.JsonToTimestreamPayloadFn;
+import com.amazonaws.services.timestreamwrite.model.Record;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.configuration.Configuration;
+
+/* ----------
+ * JMH imports
+ * ---------- */
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the records of one WriteRecords batch from buffered points, with and without
+ * factoring out the common attributes, as {@code TimestreamSink.writeBatch} does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimestreamSinkRecordsBenchmark {
+
+    @Param({"mrf_scans", "label_scan", "label_scan_navigator", "third_party_redeem"})
+    public String data_type;
+
+    @Param({"false", "true"})
+    public boolean multi_measure_records;
+
+    @Param({"10", "100"})
+    public int batch_size;
+
+    private List<TimestreamPoint> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JsonToTimestreamPayloadFn parser = new JsonToTimestreamPayloadFn(null, 0, multi_measure_records);
+        parser.setRuntimeContext(BenchmarkRuntimeContext.create());
+        parser.open(new Configuration());
+
+        batch = new ArrayList<>(batch_size);
+
+        for (byte[] payload : AnalyticsPayloads.generate(data_type, batch_size, 17L)) {
+            for (TimestreamPoint point : parser.map(payload)) {
+                if (batch.size() < batch_size) {
+                    batch.add(point);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Record> createRecords() {
+        return TimestreamSink.createRecords(batch);
+    }
+
+    @Benchmark
+    public Record createRecordsWithCommonAttributes() {
+        return CommonAttributes.extract(TimestreamSink.createRecords(batch));
+    }
+}
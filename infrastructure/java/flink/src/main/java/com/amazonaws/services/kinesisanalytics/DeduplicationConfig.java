@@ -0,0 +1,110 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyed deduplication of replayed events by (data_type, id measure). Disabled while no data type
+ * is listed in {@code dedup_data_types}.
+ */
+public class DeduplicationConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<String> data_types = Collections.emptyList();
+    private String id_measure_name = "label_measure";
+    private long ttl_millis = TimeUnit.HOURS.toMillis(24);
+    private long bloom_filter_expected_keys = 0;
+    private double bloom_filter_false_positive_rate = 0.01;
+
+    public static DeduplicationConfig fromParameterTool(ParameterTool parameter) {
+        return new DeduplicationConfig()
+            .withDataTypes(parameter.get("dedup_data_types", ""))
+            .withIdMeasureName(parameter.get("dedup_id_measure", "label_measure"))
+            .withTtlMillis(Long.parseLong(parameter.get("dedup_ttl_millis", "86400000")))
+            .withBloomFilter(
+                Long.parseLong(parameter.get("dedup_bloom_filter_expected_keys", "0")),
+                Double.parseDouble(parameter.get("dedup_bloom_filter_false_positive_rate", "0.01")));
+    }
+
+    /**
+     * Comma-separated data types, e.g. "label_scan,label_scan_ping,label_scan_navigator". Pings
+     * share their visit's request_id, so they are told apart by their time and time_spent_away.
+     */
+    public DeduplicationConfig withDataTypes(String data_types) {
+        List<String> parsed = new ArrayList<>();
+
+        for (String data_type : data_types.split(",")) {
+            if (!data_type.trim().isEmpty()) {
+                parsed.add(data_type.trim());
+            }
+        }
+
+        this.data_types = parsed;
+
+        return this;
+    }
+
+    public DeduplicationConfig withIdMeasureName(String id_measure_name) {
+        this.id_measure_name = id_measure_name;
+
+        return this;
+    }
+
+    public DeduplicationConfig withTtlMillis(long ttl_millis) {
+        if (ttl_millis < 1) {
+            throw new IllegalArgumentException("ttl_millis must be positive, got " + ttl_millis);
+        }
+
+        this.ttl_millis = ttl_millis;
+
+        return this;
+    }
+
+    /** @param expected_keys keys per subtask and TTL; 0 disables the bloom filter */
+    public DeduplicationConfig withBloomFilter(long expected_keys, double false_positive_rate) {
+        if (expected_keys < 0 || false_positive_rate <= 0 || false_positive_rate >= 1) {
+            throw new IllegalArgumentException("bloom filter needs expected_keys >= 0 and 0 < false_positive_rate < 1, got "
+                + expected_keys + " and " + false_positive_rate);
+        }
+
+        this.bloom_filter_expected_keys = expected_keys;
+        this.bloom_filter_false_positive_rate = false_positive_rate;
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return !data_types.isEmpty();
+    }
+
+    public List<String> getDataTypes() {
+        return data_types;
+    }
+
+    public String getIdMeasureName() {
+        return id_measure_name;
+    }
+
+    public long getTtlMillis() {
+        return ttl_millis;
+    }
+
+    public long getBloomFilterExpectedKeys() {
+        return bloom_filter_expected_keys;
+    }
+
+    public double getBloomFilterFalsePositiveRate() {
+        return bloom_filter_false_positive_rate;
+    }
+}
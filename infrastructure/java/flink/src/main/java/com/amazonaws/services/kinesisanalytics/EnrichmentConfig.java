@@ -0,0 +1,75 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+
+/**
+ * Enrichment of points carrying a gtin with their product, product group and campaign, read from
+ * the JSON-lines snapshot at {@code enrichment_metadata_path}. Disabled while no path is set.
+ */
+public class EnrichmentConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String metadata_path = "";
+    private long reload_interval_millis = 5L * 60L * 1000L;
+    private int cache_size = 10000;
+
+    public static EnrichmentConfig fromParameterTool(ParameterTool parameter) {
+        return new EnrichmentConfig()
+            .withMetadataPath(parameter.get("enrichment_metadata_path", ""))
+            .withReloadIntervalMillis(Long.parseLong(parameter.get("enrichment_reload_interval_millis", "300000")))
+            .withCacheSize(Integer.parseInt(parameter.get("enrichment_cache_size", "10000")));
+    }
+
+    /** Local path or file system URI, e.g. "s3://bucket/enrichment/gtin-metadata.jsonl". */
+    public EnrichmentConfig withMetadataPath(String metadata_path) {
+        this.metadata_path = metadata_path == null ? "" : metadata_path.trim();
+
+        return this;
+    }
+
+    /** How often the snapshot's modification time is checked. */
+    public EnrichmentConfig withReloadIntervalMillis(long reload_interval_millis) {
+        if (reload_interval_millis < 1) {
+            throw new IllegalArgumentException("reload_interval_millis must be positive, got " + reload_interval_millis);
+        }
+
+        this.reload_interval_millis = reload_interval_millis;
+
+        return this;
+    }
+
+    /** Resolved gtins kept per subtask. */
+    public EnrichmentConfig withCacheSize(int cache_size) {
+        if (cache_size < 1) {
+            throw new IllegalArgumentException("cache_size must be positive, got " + cache_size);
+        }
+
+        this.cache_size = cache_size;
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return !metadata_path.isEmpty();
+    }
+
+    public String getMetadataPath() {
+        return metadata_path;
+    }
+
+    public long getReloadIntervalMillis() {
+        return reload_interval_millis;
+    }
+
+    public int getCacheSize() {
+        return cache_size;
+    }
+}
@@ -0,0 +1,114 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-time watermarking of parsed events. While disabled, the job keeps rewriting future-dated
+ * points to their arrival time with {@code OffsetFutureTimestreamPoints}.
+ */
+public class EventTimeConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private boolean enabled = false;
+    private long max_out_of_orderness_millis = 5L * 1000L;
+    private long idleness_millis = 60L * 1000L;
+    private long allowed_lateness_millis = TimeUnit.HOURS.toMillis(1);
+    private long future_threshold_millis = TimeUnit.MINUTES.toMillis(15);
+    private String out_of_bounds_target = "log";
+
+    public static EventTimeConfig fromParameterTool(ParameterTool parameter) {
+        return new EventTimeConfig()
+            .withEnabled(parameter.get("event_time_watermarks", "false").equals("true"))
+            .withMaxOutOfOrdernessMillis(Long.parseLong(parameter.get("event_time_max_out_of_orderness_millis", "5000")))
+            .withIdlenessMillis(Long.parseLong(parameter.get("event_time_idleness_millis", "60000")))
+            .withAllowedLatenessMillis(Long.parseLong(parameter.get("event_time_allowed_lateness_millis", "3600000")))
+            .withFutureThresholdMillis(Long.parseLong(parameter.get("event_time_future_threshold_millis", "900000")))
+            .withOutOfBoundsTarget(parameter.get("event_time_out_of_bounds_target", "log"));
+    }
+
+    public EventTimeConfig withEnabled(boolean enabled) {
+        this.enabled = enabled;
+
+        return this;
+    }
+
+    public EventTimeConfig withMaxOutOfOrdernessMillis(long max_out_of_orderness_millis) {
+        if (max_out_of_orderness_millis < 0) {
+            throw new IllegalArgumentException("max_out_of_orderness_millis must not be negative, got " + max_out_of_orderness_millis);
+        }
+
+        this.max_out_of_orderness_millis = max_out_of_orderness_millis;
+
+        return this;
+    }
+
+    public EventTimeConfig withIdlenessMillis(long idleness_millis) {
+        if (idleness_millis < 1) {
+            throw new IllegalArgumentException("idleness_millis must be positive, got " + idleness_millis);
+        }
+
+        this.idleness_millis = idleness_millis;
+
+        return this;
+    }
+
+    public EventTimeConfig withAllowedLatenessMillis(long allowed_lateness_millis) {
+        if (allowed_lateness_millis < 0) {
+            throw new IllegalArgumentException("allowed_lateness_millis must not be negative, got " + allowed_lateness_millis);
+        }
+
+        this.allowed_lateness_millis = allowed_lateness_millis;
+
+        return this;
+    }
+
+    public EventTimeConfig withFutureThresholdMillis(long future_threshold_millis) {
+        if (future_threshold_millis < 0) {
+            throw new IllegalArgumentException("future_threshold_millis must not be negative, got " + future_threshold_millis);
+        }
+
+        this.future_threshold_millis = future_threshold_millis;
+
+        return this;
+    }
+
+    /** Dead letter target for late and future points, same syntax as {@code timestream_dead_letter_target}. */
+    public EventTimeConfig withOutOfBoundsTarget(String out_of_bounds_target) {
+        this.out_of_bounds_target = out_of_bounds_target;
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaxOutOfOrdernessMillis() {
+        return max_out_of_orderness_millis;
+    }
+
+    public long getIdlenessMillis() {
+        return idleness_millis;
+    }
+
+    public long getAllowedLatenessMillis() {
+        return allowed_lateness_millis;
+    }
+
+    public long getFutureThresholdMillis() {
+        return future_threshold_millis;
+    }
+
+    public String getOutOfBoundsTarget() {
+        return out_of_bounds_target;
+    }
+}
@@ -0,0 +1,121 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.Locale;
+
+/**
+ * How {@link StreamingJob} reads the analytics stream: the record publisher (polling, adaptive
+ * polling or enhanced fan-out) and whether records are parsed into points inside the source.
+ */
+public class KinesisSourceConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum ConsumerMode {
+        /** GetRecords on a fixed interval (the original consumer). */
+        POLLING,
+        /** GetRecords sized and timed from the shard's recent record sizes. */
+        ADAPTIVE,
+        /** Enhanced fan-out: records are pushed over a dedicated per-shard subscription. */
+        EFO
+    }
+
+    private ConsumerMode consumer_mode = ConsumerMode.POLLING;
+
+    private long getrecords_interval_millis = 1000L;
+    private int getrecords_max = 10000;
+
+    private String efo_consumer_name = "polytag-analytics-flink";
+    private ConsumerConfigConstants.EFORegistrationType efo_registration = ConsumerConfigConstants.EFORegistrationType.LAZY;
+
+    private boolean decode_in_source = false;
+
+    public static KinesisSourceConfig fromParameterTool(ParameterTool parameter) {
+        // SHARD_USE_ADAPTIVE_READS predates kinesis_consumer_mode and still selects adaptive reads.
+        String default_mode = parameter.get("SHARD_USE_ADAPTIVE_READS", "false").equals("true") ? "adaptive" : "polling";
+
+        return new KinesisSourceConfig()
+            .withConsumerMode(ConsumerMode.valueOf(parameter.get("kinesis_consumer_mode", default_mode).toUpperCase(Locale.ROOT)))
+            .withGetRecords(
+                Long.parseLong(parameter.get("SHARD_GETRECORDS_INTERVAL_MILLIS", "1000")),
+                Integer.parseInt(parameter.get("SHARD_GETRECORDS_MAX", "10000")))
+            .withEfoConsumer(
+                parameter.get("kinesis_efo_consumer_name", "polytag-analytics-flink"),
+                ConsumerConfigConstants.EFORegistrationType.valueOf(
+                    parameter.get("kinesis_efo_registration", "lazy").toUpperCase(Locale.ROOT)))
+            .withDecodeInSource(parameter.get("kinesis_decode_in_source", "false").equals("true"));
+    }
+
+    public KinesisSourceConfig withConsumerMode(ConsumerMode consumer_mode) {
+        this.consumer_mode = consumer_mode;
+
+        return this;
+    }
+
+    public KinesisSourceConfig withGetRecords(long getrecords_interval_millis, int getrecords_max) {
+        if (getrecords_interval_millis < 1 || getrecords_max < 1) {
+            throw new IllegalArgumentException("GetRecords interval and max must be positive, got "
+                + getrecords_interval_millis + " and " + getrecords_max);
+        }
+
+        this.getrecords_interval_millis = getrecords_interval_millis;
+        this.getrecords_max = getrecords_max;
+
+        return this;
+    }
+
+    /**
+     * @param efo_consumer_name name of the stream consumer; every job reading the same stream
+     *                          through EFO needs its own
+     * @param efo_registration  LAZY registers on startup from each subtask, EAGER from the client
+     *                          at job submission, NONE expects a consumer ARN to be configured
+     */
+    public KinesisSourceConfig withEfoConsumer(String efo_consumer_name, ConsumerConfigConstants.EFORegistrationType efo_registration) {
+        if (efo_consumer_name == null || efo_consumer_name.isEmpty()) {
+            throw new IllegalArgumentException("efo_consumer_name must not be empty");
+        }
+
+        this.efo_consumer_name = efo_consumer_name;
+        this.efo_registration = efo_registration;
+
+        return this;
+    }
+
+    public KinesisSourceConfig withDecodeInSource(boolean decode_in_source) {
+        this.decode_in_source = decode_in_source;
+
+        return this;
+    }
+
+    public ConsumerMode getConsumerMode() {
+        return consumer_mode;
+    }
+
+    public long getGetRecordsIntervalMillis() {
+        return getrecords_interval_millis;
+    }
+
+    public int getGetRecordsMax() {
+        return getrecords_max;
+    }
+
+    public String getEfoConsumerName() {
+        return efo_consumer_name;
+    }
+
+    public ConsumerConfigConstants.EFORegistrationType getEfoRegistration() {
+        return efo_registration;
+    }
+
+    public boolean isDecodeInSource() {
+        return decode_in_source;
+    }
+}
@@ -0,0 +1,67 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+
+/**
+ * Dimension normalization right after parsing, see
+ * {@link com.amazonaws.services.kinesisanalytics.normalization.DimensionNormalizer}. Off unless
+ * {@code dimension_normalization} is "true", as it changes the dimensions existing series and
+ * queries use; {@code dimension_normalizations} overrides the bundled rules per data_type.
+ */
+public class NormalizationConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private boolean enabled = false;
+    private String overrides_json = null;
+    private int user_agent_cache_size = 10000;
+
+    public static NormalizationConfig fromParameterTool(ParameterTool parameter) {
+        return new NormalizationConfig()
+            .withEnabled(parameter.get("dimension_normalization", "false").equals("true"))
+            .withOverridesJson(parameter.get("dimension_normalizations"))
+            .withUserAgentCacheSize(Integer.parseInt(parameter.get("user_agent_cache_size", "10000")));
+    }
+
+    public NormalizationConfig withEnabled(boolean enabled) {
+        this.enabled = enabled;
+
+        return this;
+    }
+
+    public NormalizationConfig withOverridesJson(String overrides_json) {
+        this.overrides_json = overrides_json;
+
+        return this;
+    }
+
+    /** Parsed user agents kept per subtask. */
+    public NormalizationConfig withUserAgentCacheSize(int user_agent_cache_size) {
+        if (user_agent_cache_size < 1) {
+            throw new IllegalArgumentException("user_agent_cache_size must be positive, got " + user_agent_cache_size);
+        }
+
+        this.user_agent_cache_size = user_agent_cache_size;
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getOverridesJson() {
+        return overrides_json;
+    }
+
+    public int getUserAgentCacheSize() {
+        return user_agent_cache_size;
+    }
+}
@@ -0,0 +1,69 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Windowed summing of count-type data types before the sink. Disabled while no data type is
+ * listed in {@code pre_aggregate_data_types}. The windows close on the job's event-time
+ * watermarks, so {@code event_time_watermarks} must be on.
+ */
+public class PreAggregationConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<String> data_types = Collections.emptyList();
+    private long window_millis = 60L * 1000L;
+
+    public static PreAggregationConfig fromParameterTool(ParameterTool parameter) {
+        return new PreAggregationConfig()
+            .withDataTypes(parameter.get("pre_aggregate_data_types", ""))
+            .withWindowMillis(Long.parseLong(parameter.get("pre_aggregate_window_millis", "60000")));
+    }
+
+    /** Comma-separated data types, e.g. "mrf_scans". */
+    public PreAggregationConfig withDataTypes(String data_types) {
+        List<String> parsed = new ArrayList<>();
+
+        for (String data_type : data_types.split(",")) {
+            if (!data_type.trim().isEmpty()) {
+                parsed.add(data_type.trim());
+            }
+        }
+
+        this.data_types = parsed;
+
+        return this;
+    }
+
+    public PreAggregationConfig withWindowMillis(long window_millis) {
+        if (window_millis < 1) {
+            throw new IllegalArgumentException("window_millis must be positive, got " + window_millis);
+        }
+
+        this.window_millis = window_millis;
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return !data_types.isEmpty();
+    }
+
+    public List<String> getDataTypes() {
+        return data_types;
+    }
+
+    public long getWindowMillis() {
+        return window_millis;
+    }
+}
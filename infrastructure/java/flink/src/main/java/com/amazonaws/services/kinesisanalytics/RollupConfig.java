@@ -0,0 +1,186 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.timestream.TimestreamSinkConfig;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event-time rollups of scan counts and approximate distinct users per group and window, written
+ * to their own table. Disabled while no data type is listed in {@code rollup_data_types}.
+ * The rollup sink takes the job's sink and topology properties, with {@code rollup_table_name}
+ * as its table and any {@code rollup.<property>} entry laid over them. The windows close on the
+ * job's event-time watermarks, so {@code event_time_watermarks} must be on.
+ */
+public class RollupConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final String ROLLUP_PREFIX = "rollup.";
+
+    /** Sketches above this precision no longer fit a Timestream VARCHAR measure. */
+    public static final int MAX_HLL_PRECISION = 11;
+
+    private List<String> data_types = Collections.emptyList();
+    private List<String> group_dimensions = Collections.emptyList();
+    private List<String> distinct_fields = Collections.emptyList();
+    private List<Long> window_millis = Collections.emptyList();
+    private int hll_precision = MAX_HLL_PRECISION;
+
+    private TimestreamSinkConfig sink_config;
+    private TopologyConfig topology;
+
+    public static RollupConfig fromParameterTool(ParameterTool parameter) {
+        ParameterTool rollup_parameter = rollupParameters(parameter);
+
+        return new RollupConfig()
+            .withDataTypes(parameter.get("rollup_data_types", ""))
+            .withGroupDimensions(parameter.get("rollup_dimensions", "campaign_id,product_group_id,country"))
+            .withDistinctFields(parameter.get("rollup_distinct_fields", "ip"))
+            .withWindowMillis(parameter.get("rollup_window_millis", "60000,3600000"))
+            .withHllPrecision(Integer.parseInt(parameter.get("rollup_hll_precision", String.valueOf(MAX_HLL_PRECISION))))
+            .withSink(TimestreamSinkConfig.fromParameterTool(rollup_parameter), TopologyConfig.fromParameterTool(rollup_parameter));
+    }
+
+    /** The job's parameters with the rollup table and the {@code rollup.} entries laid over them. */
+    private static ParameterTool rollupParameters(ParameterTool parameter) {
+        Map<String, String> overrides = new HashMap<>();
+
+        overrides.put("timestream_table_name", parameter.get("rollup_table_name", parameter.get("timestream_table_name", "Polytag-DEV") + "-rollups"));
+        overrides.put("timestream_dead_letter_name", "dead-letters-rollups");
+
+        for (Map.Entry<String, String> entry : parameter.toMap().entrySet()) {
+            if (entry.getKey().startsWith(ROLLUP_PREFIX)) {
+                overrides.put(entry.getKey().substring(ROLLUP_PREFIX.length()), entry.getValue());
+            }
+        }
+
+        return parameter.mergeWith(ParameterTool.fromMap(overrides));
+    }
+
+    private static List<String> split(String values) {
+        List<String> parsed = new ArrayList<>();
+
+        for (String value : values.split(",")) {
+            if (!value.trim().isEmpty()) {
+                parsed.add(value.trim());
+            }
+        }
+
+        return parsed;
+    }
+
+    /** Comma-separated data types, e.g. "label_scan,label_scan_navigator". */
+    public RollupConfig withDataTypes(String data_types) {
+        this.data_types = split(data_types);
+
+        return this;
+    }
+
+    /** Dimensions a rollup is grouped by, besides data_type; points lacking one group without it. */
+    public RollupConfig withGroupDimensions(String group_dimensions) {
+        this.group_dimensions = split(group_dimensions);
+
+        return this;
+    }
+
+    /**
+     * Dimensions or measures identifying a user, in order of preference: the first one an event
+     * has is counted. Events without any only count as scans, so label_scan_navigator events,
+     * which carry no ip, give campaign and product group rollups without distinct users. Never
+     * list label_measure: it holds the visit's request_id, which would count visits as users.
+     */
+    public RollupConfig withDistinctFields(String distinct_fields) {
+        this.distinct_fields = split(distinct_fields);
+
+        return this;
+    }
+
+    /** Comma-separated window sizes; each gets its own rollup rows. */
+    public RollupConfig withWindowMillis(String window_millis) {
+        List<Long> parsed = new ArrayList<>();
+
+        for (String value : split(window_millis)) {
+            long millis = Long.parseLong(value);
+
+            if (millis < 1000) {
+                throw new IllegalArgumentException("rollup windows must be at least a second, got " + millis);
+            }
+
+            parsed.add(millis);
+        }
+
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("rollup_window_millis needs at least one window");
+        }
+
+        this.window_millis = parsed;
+
+        return this;
+    }
+
+    public RollupConfig withHllPrecision(int hll_precision) {
+        if (hll_precision < 4 || hll_precision > MAX_HLL_PRECISION) {
+            throw new IllegalArgumentException("hll_precision must be between 4 and " + MAX_HLL_PRECISION + ", got " + hll_precision);
+        }
+
+        this.hll_precision = hll_precision;
+
+        return this;
+    }
+
+    public RollupConfig withSink(TimestreamSinkConfig sink_config, TopologyConfig topology) {
+        this.sink_config = sink_config;
+        this.topology = topology;
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return !data_types.isEmpty();
+    }
+
+    public List<String> getDataTypes() {
+        return data_types;
+    }
+
+    public List<String> getGroupDimensions() {
+        return group_dimensions;
+    }
+
+    public List<String> getDistinctFields() {
+        return distinct_fields;
+    }
+
+    public List<Long> getWindowMillis() {
+        return window_millis;
+    }
+
+    public int getHllPrecision() {
+        return hll_precision;
+    }
+
+    /** Rollup table, batching and write concurrency. */
+    public TimestreamSinkConfig getSinkConfig() {
+        return sink_config;
+    }
+
+    /** Sink parallelism and partitioning of the rollups. */
+    public TopologyConfig getTopology() {
+        return topology;
+    }
+}
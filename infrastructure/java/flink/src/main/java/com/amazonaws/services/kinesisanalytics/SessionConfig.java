@@ -0,0 +1,101 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stitching of a landing-page visit's label_scan, label_scan_ping and label_scan_navigator events
+ * into one session record, keyed by the request_id in {@code session_id_measure}. Off unless
+ * {@code session_stitching} is "true". Sessions close on the job's event-time watermarks, so
+ * {@code event_time_watermarks} must be on.
+ */
+public class SessionConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private boolean enabled = false;
+    private String id_measure_name = "label_measure";
+    private long gap_millis = 5L * 60L * 1000L;
+    private boolean drop_pings = false;
+    private TimeUnit time_spent_away_unit = TimeUnit.MILLISECONDS;
+
+    public static SessionConfig fromParameterTool(ParameterTool parameter) {
+        return new SessionConfig()
+            .withEnabled(parameter.get("session_stitching", "false").equals("true"))
+            .withIdMeasureName(parameter.get("session_id_measure", "label_measure"))
+            .withGapMillis(Long.parseLong(parameter.get("session_gap_millis", "300000")))
+            .withDropPings(parameter.get("session_drop_pings", "false").equals("true"))
+            .withTimeSpentAwayUnit(parameter.get("session_time_spent_away_unit", "MILLISECONDS"));
+    }
+
+    public SessionConfig withEnabled(boolean enabled) {
+        this.enabled = enabled;
+
+        return this;
+    }
+
+    public SessionConfig withIdMeasureName(String id_measure_name) {
+        this.id_measure_name = id_measure_name;
+
+        return this;
+    }
+
+    /** Event-time silence after which a visit's session is closed and emitted. */
+    public SessionConfig withGapMillis(long gap_millis) {
+        if (gap_millis < 1) {
+            throw new IllegalArgumentException("gap_millis must be positive, got " + gap_millis);
+        }
+
+        this.gap_millis = gap_millis;
+
+        return this;
+    }
+
+    /** Whether label_scan_ping events are only folded into sessions instead of also being written. */
+    public SessionConfig withDropPings(boolean drop_pings) {
+        this.drop_pings = drop_pings;
+
+        return this;
+    }
+
+    /**
+     * Unit the landing page reports time_spent_away in, e.g. "MILLISECONDS" (default) or
+     * "SECONDS"; session measures are always in milliseconds.
+     */
+    public SessionConfig withTimeSpentAwayUnit(String time_spent_away_unit) {
+        try {
+            this.time_spent_away_unit = TimeUnit.valueOf(time_spent_away_unit.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown time_spent_away_unit " + time_spent_away_unit, e);
+        }
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getIdMeasureName() {
+        return id_measure_name;
+    }
+
+    public long getGapMillis() {
+        return gap_millis;
+    }
+
+    public boolean isDropPings() {
+        return drop_pings;
+    }
+
+    public TimeUnit getTimeSpentAwayUnit() {
+        return time_spent_away_unit;
+    }
+}
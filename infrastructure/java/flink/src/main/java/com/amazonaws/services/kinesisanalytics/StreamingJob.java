@@ -3,38 +3,82 @@
  * ---------- */
 package com.amazonaws.services.kinesisanalytics;
 
+import com.amazonaws.services.kinesisanalytics.enrichment.GtinMetadata;
+import com.amazonaws.services.kinesisanalytics.enrichment.GtinMetadataFileSource;
+import com.amazonaws.services.kinesisanalytics.operators.CountScansAndUsers;
+import com.amazonaws.services.kinesisanalytics.operators.DeduplicateEvents;
+import com.amazonaws.services.kinesisanalytics.operators.DimensionKeySelector;
+import com.amazonaws.services.kinesisanalytics.operators.EmitRollupPoint;
+import com.amazonaws.services.kinesisanalytics.operators.EmitWindowedPoint;
+import com.amazonaws.services.kinesisanalytics.operators.EnrichPointsWithGtinMetadata;
+import com.amazonaws.services.kinesisanalytics.operators.EventIdKeySelector;
+import com.amazonaws.services.kinesisanalytics.operators.FilterDataTypes;
 import com.amazonaws.services.kinesisanalytics.operators.JsonToTimestreamPayloadFn;
+import com.amazonaws.services.kinesisanalytics.operators.NormalizeDimensions;
 import com.amazonaws.services.kinesisanalytics.operators.OffsetFutureTimestreamPoints;
+import com.amazonaws.services.kinesisanalytics.operators.PointSeriesKeySelector;
+import com.amazonaws.services.kinesisanalytics.operators.PointsPeriodicWatermarkAssigner;
+import com.amazonaws.services.kinesisanalytics.operators.PointsTimestampAssigner;
+import com.amazonaws.services.kinesisanalytics.operators.PointsWatermarkGenerator;
+import com.amazonaws.services.kinesisanalytics.operators.RollupAccumulator;
+import com.amazonaws.services.kinesisanalytics.operators.RollupKeySelector;
+import com.amazonaws.services.kinesisanalytics.operators.RouteOutOfBoundsPoints;
+import com.amazonaws.services.kinesisanalytics.operators.RoutePointsToTables;
+import com.amazonaws.services.kinesisanalytics.operators.SessionIdKeySelector;
+import com.amazonaws.services.kinesisanalytics.operators.SplitDeduplicationCandidates;
+import com.amazonaws.services.kinesisanalytics.operators.SplitSessionEvents;
+import com.amazonaws.services.kinesisanalytics.operators.SplitSummablePoints;
+import com.amazonaws.services.kinesisanalytics.operators.StitchSessions;
+import com.amazonaws.services.kinesisanalytics.operators.SumPointMeasures;
+import com.amazonaws.services.kinesisanalytics.serialization.RawBytesSchema;
+import com.amazonaws.services.kinesisanalytics.serialization.TimestreamPointsDeserializationSchema;
 import com.amazonaws.services.kinesisanalytics.utils.ParameterToolUtils;
+import com.amazonaws.services.timestream.AwsTimestreamWriter;
+import com.amazonaws.services.timestream.DeadLetterSink;
+import com.amazonaws.services.timestream.DeadLetterWriter;
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestream.TimestreamPointCollectionTypeInfo;
+import com.amazonaws.services.timestream.TimestreamPointTypeInfo;
 import com.amazonaws.services.timestream.TimestreamSink;
+import com.amazonaws.services.timestream.TimestreamSinkConfig;
+import com.amazonaws.services.timestream.TimestreamWriter;
 
 /* ----------
  * Flink imports
  * ---------- */
-import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.common.eventtime.WatermarkStrategy;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.datastream.BroadcastStream;
 import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.DataStreamSink;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.time.Time;
 import org.apache.flink.streaming.connectors.kinesis.config.AWSConfigConstants;
 import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
 import org.apache.flink.streaming.connectors.kinesis.FlinkKinesisConsumer;
+import org.apache.flink.util.OutputTag;
 
 /* ----------
  * Java imports
  * ---------- */
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Properties;
 
+/**
+ * Builds the analytics topology. Stateful operators and the sinks carry fixed uids, so savepoints
+ * restore their state whichever features are toggled; never change an existing uid.
+ */
 public class StreamingJob {
     private static final String DEFAULT_STREAM_NAME = "Analytics-DataStream-DEV";
     private static final String DEFAULT_REGION_NAME = "eu-west-1";
-    private static final String DEFAULT_DB_NAME = "Polytag-DEV";
-    private static final String DEFAULT_TABLE_NAME = "Polytag-DEV";
 
-    public static DataStream<String> createKinesisSource(StreamExecutionEnvironment env, ParameterTool parameter) {
+    public static Properties createKinesisConsumerConfiguration(ParameterTool parameter, KinesisSourceConfig config) {
         Properties kinesis_consumer_configuration = new Properties();
-        String adaptative_read_settings_string =
-            parameter.get("SHARD_USE_ADAPTIVE_READS", "false");
-
 
         kinesis_consumer_configuration
             .setProperty(
@@ -44,32 +88,450 @@ public class StreamingJob {
         kinesis_consumer_configuration
             .setProperty(AWSConfigConstants.AWS_CREDENTIALS_PROVIDER, "AUTO");
 
+        switch (config.getConsumerMode()) {
+            case EFO:
+                kinesis_consumer_configuration
+                    .setProperty(
+                        ConsumerConfigConstants.RECORD_PUBLISHER_TYPE,
+                        ConsumerConfigConstants.RecordPublisherType.EFO.name());
 
-        if (adaptative_read_settings_string.equals("true")) {
-            kinesis_consumer_configuration
-                .setProperty(ConsumerConfigConstants.SHARD_USE_ADAPTIVE_READS, "true");
-        } else {
-            kinesis_consumer_configuration
-                .setProperty(
-                    ConsumerConfigConstants.SHARD_GETRECORDS_INTERVAL_MILLIS,
-                    parameter.get("SHARD_GETRECORDS_INTERVAL_MILLIS", "1000"));
+                kinesis_consumer_configuration
+                    .setProperty(ConsumerConfigConstants.EFO_CONSUMER_NAME, config.getEfoConsumerName());
 
-            kinesis_consumer_configuration
-                .setProperty(
-                    ConsumerConfigConstants.SHARD_GETRECORDS_MAX,
-                    parameter.get("SHARD_GETRECORDS_MAX", "10000"));
+                kinesis_consumer_configuration
+                    .setProperty(ConsumerConfigConstants.EFO_REGISTRATION_TYPE, config.getEfoRegistration().name());
+                break;
+            case ADAPTIVE:
+                kinesis_consumer_configuration
+                    .setProperty(ConsumerConfigConstants.SHARD_USE_ADAPTIVE_READS, "true");
+                break;
+            default:
+                kinesis_consumer_configuration
+                    .setProperty(
+                        ConsumerConfigConstants.SHARD_GETRECORDS_INTERVAL_MILLIS,
+                        Long.toString(config.getGetRecordsIntervalMillis()));
+
+                kinesis_consumer_configuration
+                    .setProperty(
+                        ConsumerConfigConstants.SHARD_GETRECORDS_MAX,
+                        Integer.toString(config.getGetRecordsMax()));
         }
 
+        return kinesis_consumer_configuration;
+    }
+
+    public static DataStream<byte[]> createKinesisSource(StreamExecutionEnvironment env, ParameterTool parameter) {
+        KinesisSourceConfig config = KinesisSourceConfig.fromParameterTool(parameter);
+
         return env
             .addSource(
                 new FlinkKinesisConsumer<>(
                     parameter.get("stream_name", DEFAULT_STREAM_NAME),
-                    new SimpleStringSchema(),
-                    kinesis_consumer_configuration
+                    new RawBytesSchema(),
+                    createKinesisConsumerConfiguration(parameter, config)
                 )
             )
             .name("KinesisSource")
-            .rebalance();
+            .uid("kinesis-source");
+    }
+
+    /**
+     * Parses records into points inside the source. With event time enabled, the consumer also
+     * assigns timestamps and tracks watermarks per shard, treating shards without records for the
+     * idleness interval as idle.
+     */
+    public static DataStream<Collection<TimestreamPoint>> createKinesisPointSource(
+        StreamExecutionEnvironment env,
+        ParameterTool parameter,
+        EventTimeConfig event_time
+    ) {
+        KinesisSourceConfig config = KinesisSourceConfig.fromParameterTool(parameter);
+        Properties kinesis_consumer_configuration = createKinesisConsumerConfiguration(parameter, config);
+
+        if (event_time.isEnabled()) {
+            kinesis_consumer_configuration
+                .setProperty(ConsumerConfigConstants.SHARD_IDLE_INTERVAL_MILLIS, Long.toString(event_time.getIdlenessMillis()));
+        }
+
+        FlinkKinesisConsumer<Collection<TimestreamPoint>> consumer = new FlinkKinesisConsumer<>(
+            parameter.get("stream_name", DEFAULT_STREAM_NAME),
+            new TimestreamPointsDeserializationSchema(
+                parameter.get("data_type_mappings"),
+                Integer.parseInt(parameter.get("log_records_per_second", "0")),
+                parameter.get("timestream_multi_measure_records", "false").equals("true")),
+            kinesis_consumer_configuration);
+
+        if (event_time.isEnabled()) {
+            consumer.setPeriodicWatermarkAssigner(new PointsPeriodicWatermarkAssigner(
+                event_time.getMaxOutOfOrdernessMillis(),
+                event_time.getFutureThresholdMillis()));
+        }
+
+        return env
+            .addSource(consumer)
+            .name("KinesisSource")
+            .uid("kinesis-source");
+    }
+
+    /** Late and future-dated points are dead-lettered instead of being written or rewritten. */
+    public static void addOutOfBoundsSinks(SingleOutputStreamOperator<Collection<TimestreamPoint>> points, EventTimeConfig config, String region) {
+        points
+            .getSideOutput(RouteOutOfBoundsPoints.LATE_POINTS)
+            .addSink(new DeadLetterSink(DeadLetterWriter.fromTarget(config.getOutOfBoundsTarget(), region), "late-points", "late"))
+            .name("LatePoints")
+            .uid("late-points-sink");
+
+        points
+            .getSideOutput(RouteOutOfBoundsPoints.FUTURE_POINTS)
+            .addSink(new DeadLetterSink(DeadLetterWriter.fromTarget(config.getOutOfBoundsTarget(), region), "future-points", "future"))
+            .name("FuturePoints")
+            .uid("future-points-sink");
+    }
+
+    /** Drops replayed events of the configured data types, keyed by (data_type, id measure). */
+    public static DataStream<Collection<TimestreamPoint>> deduplicate(DataStream<Collection<TimestreamPoint>> points, DeduplicationConfig config) {
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> split_points = points
+            .process(new SplitDeduplicationCandidates(config.getDataTypes(), config.getIdMeasureName()))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("SplitDeduplicationCandidates");
+
+        DataStream<Collection<TimestreamPoint>> unique_points = split_points
+            .getSideOutput(SplitDeduplicationCandidates.CANDIDATES)
+            .keyBy(new EventIdKeySelector(config.getIdMeasureName()))
+            .process(new DeduplicateEvents(
+                config.getTtlMillis(),
+                config.getBloomFilterExpectedKeys(),
+                config.getBloomFilterFalsePositiveRate()))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("DeduplicateEvents")
+            .uid("deduplicate-events");
+
+        return split_points.union(unique_points);
+    }
+
+    /**
+     * Sums the configured count data types per series and event-time window. Points that arrive
+     * after their window closed are passed on unaggregated rather than dropped.
+     */
+    public static DataStream<Collection<TimestreamPoint>> preAggregate(
+        DataStream<Collection<TimestreamPoint>> points,
+        PreAggregationConfig config
+    ) {
+        OutputTag<TimestreamPoint> late_points_tag = new OutputTag<TimestreamPoint>("late_summable_points") {};
+
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> split_points = points
+            .process(new SplitSummablePoints(config.getDataTypes()))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("SplitSummablePoints");
+
+        DataStream<TimestreamPoint> summable_points = split_points.getSideOutput(SplitSummablePoints.SUMMABLE);
+
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> windowed_sums = summable_points
+            .keyBy(new PointSeriesKeySelector())
+            .window(TumblingEventTimeWindows.of(Time.milliseconds(config.getWindowMillis())))
+            .sideOutputLateData(late_points_tag)
+            .aggregate(
+                new SumPointMeasures(),
+                new EmitWindowedPoint(),
+                TimestreamPointTypeInfo.INSTANCE,
+                TimestreamPointTypeInfo.INSTANCE,
+                TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("SumCountsPerWindow")
+            .uid("sum-counts-per-window");
+
+        DataStream<Collection<TimestreamPoint>> late_points = windowed_sums
+            .getSideOutput(late_points_tag)
+            .map(point -> (Collection<TimestreamPoint>) Collections.singletonList(point))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("LateSummablePoints");
+
+        return split_points.union(windowed_sums, late_points);
+    }
+
+    /**
+     * Adds a session record per landing-page visit, stitched from its label_scan, label_scan_ping
+     * and label_scan_navigator events by request_id. The events still pass on, except the pings
+     * when they are dropped.
+     */
+    public static DataStream<Collection<TimestreamPoint>> stitchSessions(
+        DataStream<Collection<TimestreamPoint>> points,
+        SessionConfig config
+    ) {
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> split_points = points
+            .process(new SplitSessionEvents(config.getIdMeasureName(), config.isDropPings()))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("SplitSessionEvents");
+
+        DataStream<Collection<TimestreamPoint>> session_events = split_points.getSideOutput(SplitSessionEvents.SESSION_EVENTS);
+
+        DataStream<Collection<TimestreamPoint>> sessions = session_events
+            .keyBy(new SessionIdKeySelector(config.getIdMeasureName()))
+            .process(new StitchSessions(config.getIdMeasureName(), config.getGapMillis(), config.getTimeSpentAwayUnit()))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("StitchSessions")
+            .uid("stitch-sessions");
+
+        return split_points.union(sessions);
+    }
+
+    /**
+     * Counts scans and distinct users per rollup group, for each configured event-time window,
+     * into the rollup table. Taps the stream; the events still go to the main table. Events that
+     * arrive after their window closed are left out of the rollups.
+     */
+    public static void rollup(DataStream<Collection<TimestreamPoint>> points, RollupConfig config, TimestreamWriter timestream_writer) {
+        DataStream<Collection<TimestreamPoint>> rollup_events = points
+            .filter(new FilterDataTypes(config.getDataTypes()))
+            .name("FilterRollupEvents");
+
+        DataStream<Collection<TimestreamPoint>> rollups = null;
+
+        for (long window_millis : config.getWindowMillis()) {
+            DataStream<Collection<TimestreamPoint>> window_rollups = rollup_events
+                .keyBy(new RollupKeySelector(config.getGroupDimensions()))
+                .window(TumblingEventTimeWindows.of(Time.milliseconds(window_millis)))
+                .aggregate(
+                    new CountScansAndUsers(config.getDistinctFields(), config.getHllPrecision()),
+                    new EmitRollupPoint(config.getGroupDimensions()),
+                    TypeInformation.of(RollupAccumulator.class),
+                    TypeInformation.of(RollupAccumulator.class),
+                    TimestreamPointCollectionTypeInfo.INSTANCE)
+                .name("Rollup<" + window_millis + "ms>")
+                .uid("rollup-" + window_millis + "ms");
+
+            rollups = rollups == null ? window_rollups : rollups.union(window_rollups);
+        }
+
+        // One sink for the rollup table; the granularity dimension tells the windows apart.
+        addTimestreamSink(rollups, config.getSinkConfig(), config.getTopology(), timestream_writer);
+    }
+
+    /** Windows and session timers fire on the job's watermarks, so they need event time on. */
+    private static void requireEventTime(EventTimeConfig event_time, String parameter_name) {
+        if (!event_time.isEnabled()) {
+            throw new IllegalArgumentException(parameter_name + " needs event_time_watermarks set to true");
+        }
+    }
+
+    /**
+     * Builds everything after a source of raw events: parsing, event time, deduplication,
+     * session stitching, pre-aggregation and the Timestream sink, as configured by {@code parameter}.
+     */
+    public static void createTopologyFromRecords(DataStream<byte[]> raw_records, ParameterTool parameter) {
+        createTopologyFromRecords(raw_records, parameter, new AwsTimestreamWriter());
+    }
+
+    /** Same as {@link #createTopologyFromRecords}, with every sink writing through {@code timestream_writer}. */
+    public static void createTopologyFromRecords(DataStream<byte[]> raw_records, ParameterTool parameter, TimestreamWriter timestream_writer) {
+        final TopologyConfig topology = TopologyConfig.fromParameterTool(parameter);
+
+        if (topology.getPartitioning() == TopologyConfig.Partitioning.REBALANCE) {
+            raw_records = raw_records.rebalance();
+        }
+
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> parsed_points = raw_records
+            .map(new JsonToTimestreamPayloadFn(
+                parameter.get("data_type_mappings"),
+                Integer.parseInt(parameter.get("log_records_per_second", "0")),
+                parameter.get("timestream_multi_measure_records", "false").equals("true")))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("MapToTimestreamPayload");
+
+        if (topology.getParseParallelism() > 0) {
+            parsed_points.setParallelism(topology.getParseParallelism());
+        }
+
+        createTopologyFromParsedPoints(parsed_points, false, parameter, timestream_writer);
+    }
+
+    /**
+     * Same as {@link #createTopologyFromRecords} for a source that already parsed the events and,
+     * with event time enabled, assigned their timestamps and watermarks.
+     */
+    public static void createTopologyFromPoints(DataStream<Collection<TimestreamPoint>> decoded_points, ParameterTool parameter) {
+        if (TopologyConfig.fromParameterTool(parameter).getPartitioning() == TopologyConfig.Partitioning.REBALANCE) {
+            decoded_points = decoded_points.rebalance();
+        }
+
+        createTopologyFromParsedPoints(decoded_points, true, parameter, new AwsTimestreamWriter());
+    }
+
+    private static void createTopologyFromParsedPoints(
+        DataStream<Collection<TimestreamPoint>> parsed_points,
+        boolean has_source_watermarks,
+        ParameterTool parameter,
+        TimestreamWriter timestream_writer
+    ) {
+        final TopologyConfig topology = TopologyConfig.fromParameterTool(parameter);
+
+        final TimestreamSinkConfig sink_config = TimestreamSinkConfig.fromParameterTool(parameter);
+
+        final EventTimeConfig event_time = EventTimeConfig.fromParameterTool(parameter);
+
+        final NormalizationConfig normalization = NormalizationConfig.fromParameterTool(parameter);
+
+        if (normalization.isEnabled()) {
+            SingleOutputStreamOperator<Collection<TimestreamPoint>> normalized_points = parsed_points
+                .map(new NormalizeDimensions(normalization.getOverridesJson(), normalization.getUserAgentCacheSize()))
+                .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+                .name("NormalizeDimensions");
+
+            if (topology.getParseParallelism() > 0) {
+                normalized_points.setParallelism(topology.getParseParallelism());
+            }
+
+            parsed_points = normalized_points;
+        }
+
+        final EnrichmentConfig enrichment = EnrichmentConfig.fromParameterTool(parameter);
+
+        if (enrichment.isEnabled()) {
+            parsed_points = enrich(parsed_points, enrichment, topology);
+        }
+
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> points;
+
+        if (event_time.isEnabled()) {
+            DataStream<Collection<TimestreamPoint>> timestamped_points = parsed_points;
+
+            if (!has_source_watermarks) {
+                SingleOutputStreamOperator<Collection<TimestreamPoint>> watermarked_points = parsed_points
+                    .assignTimestampsAndWatermarks(WatermarkStrategy
+                        .<Collection<TimestreamPoint>>forGenerator(context -> new PointsWatermarkGenerator(
+                            event_time.getMaxOutOfOrdernessMillis(),
+                            event_time.getFutureThresholdMillis()))
+                        .withTimestampAssigner(new PointsTimestampAssigner())
+                        .withIdleness(Duration.ofMillis(event_time.getIdlenessMillis())))
+                    .name("EventTimeWatermarks");
+
+                if (topology.getParseParallelism() > 0) {
+                    watermarked_points.setParallelism(topology.getParseParallelism());
+                }
+
+                timestamped_points = watermarked_points;
+            }
+
+            points = timestamped_points
+                .process(new RouteOutOfBoundsPoints(event_time.getAllowedLatenessMillis(), event_time.getFutureThresholdMillis()))
+                .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+                .name("RouteOutOfBoundsPoints");
+
+            addOutOfBoundsSinks(points, event_time, sink_config.getRegion());
+        } else {
+            points = parsed_points
+                .process(new OffsetFutureTimestreamPoints())
+                .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+                .name("UpdateFutureOffsetTimestreamPoints");
+        }
+
+        if (topology.getParseParallelism() > 0) {
+            points.setParallelism(topology.getParseParallelism());
+        }
+
+        final DeduplicationConfig deduplication = DeduplicationConfig.fromParameterTool(parameter);
+
+        DataStream<Collection<TimestreamPoint>> sink_input = deduplication.isEnabled()
+            ? deduplicate(points, deduplication)
+            : points;
+
+        final SessionConfig sessions = SessionConfig.fromParameterTool(parameter);
+
+        if (sessions.isEnabled()) {
+            requireEventTime(event_time, "session_stitching");
+
+            sink_input = stitchSessions(sink_input, sessions);
+        }
+
+        final RollupConfig rollups = RollupConfig.fromParameterTool(parameter);
+
+        if (rollups.isEnabled()) {
+            requireEventTime(event_time, "rollup_data_types");
+
+            rollup(sink_input, rollups, timestream_writer);
+        }
+
+        final PreAggregationConfig pre_aggregation = PreAggregationConfig.fromParameterTool(parameter);
+
+        if (pre_aggregation.isEnabled()) {
+            requireEventTime(event_time, "pre_aggregate_data_types");
+
+            sink_input = preAggregate(sink_input, pre_aggregation);
+        }
+
+        final TimestreamRoutingConfig routing = TimestreamRoutingConfig.fromParameterTool(parameter);
+
+        if (routing.isEnabled()) {
+            SingleOutputStreamOperator<Collection<TimestreamPoint>> routed_points = sink_input
+                .process(new RoutePointsToTables(routing.getRouteDimension(), routing.getRouteByValue()))
+                .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+                .name("RoutePointsToTables");
+
+            for (TimestreamRoutingConfig.Route route : routing.getRoutes()) {
+                addTimestreamSink(
+                    routed_points.getSideOutput(RoutePointsToTables.routeTag(route.getName())),
+                    route.getSinkConfig(),
+                    route.getTopology(),
+                    timestream_writer);
+            }
+
+            sink_input = routed_points;
+        }
+
+        addTimestreamSink(sink_input, sink_config, topology, timestream_writer);
+    }
+
+    /**
+     * Broadcasts the gtin metadata snapshot to every enrichment subtask. The two-input operator
+     * cannot be chained to the parser, so enabling it adds a network hop for the points.
+     */
+    private static DataStream<Collection<TimestreamPoint>> enrich(
+        DataStream<Collection<TimestreamPoint>> points,
+        EnrichmentConfig enrichment,
+        TopologyConfig topology
+    ) {
+        BroadcastStream<GtinMetadata> metadata = points.getExecutionEnvironment()
+            .addSource(new GtinMetadataFileSource(enrichment.getMetadataPath(), enrichment.getReloadIntervalMillis()))
+            .setParallelism(1)
+            .name("GtinMetadataSource")
+            .uid("gtin-metadata-source")
+            .broadcast(EnrichPointsWithGtinMetadata.PRODUCTS, EnrichPointsWithGtinMetadata.PRODUCT_GROUPS);
+
+        SingleOutputStreamOperator<Collection<TimestreamPoint>> enriched_points = points
+            .connect(metadata)
+            .process(new EnrichPointsWithGtinMetadata(enrichment.getCacheSize()))
+            .returns(TimestreamPointCollectionTypeInfo.INSTANCE)
+            .name("EnrichPointsWithGtinMetadata")
+            .uid("enrich-points-with-gtin-metadata");
+
+        if (topology.getParseParallelism() > 0) {
+            enriched_points.setParallelism(topology.getParseParallelism());
+        }
+
+        return enriched_points;
+    }
+
+    /**
+     * One sink, with its own buffer, batching and write concurrency, per destination table. Its uid
+     * follows the table, so the buffered points and pending retries restore with it.
+     */
+    private static void addTimestreamSink(
+        DataStream<Collection<TimestreamPoint>> points,
+        TimestreamSinkConfig sink_config,
+        TopologyConfig topology,
+        TimestreamWriter timestream_writer
+    ) {
+        if (topology.getPartitioning() == TopologyConfig.Partitioning.KEYED) {
+            points = points.keyBy(new DimensionKeySelector(topology.getPartitionKey()));
+        }
+
+        DataStreamSink<Collection<TimestreamPoint>> sink = points
+            .addSink(new TimestreamSink(sink_config, timestream_writer))
+            .name("TimeSeries<" + sink_config.getDatabaseName() + ", " + sink_config.getTableName() + ">")
+            .uid("timestream-sink-" + sink_config.getDatabaseName() + "-" + sink_config.getTableName());
+
+        if (topology.getSinkParallelism() > 0) {
+            sink.setParallelism(topology.getSinkParallelism());
+        }
     }
 
     public static void main(String[] args) throws Exception {
@@ -77,20 +539,13 @@ public class StreamingJob {
 
         final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
 
-        final String region = parameter.get("region", DEFAULT_REGION_NAME);
-        final String database_name = parameter.get("timestream_database_name", DEFAULT_DB_NAME);
-        final String table_name = parameter.get("timestream_table_name", DEFAULT_TABLE_NAME);
-        final int batch_size = Integer.parseInt(parameter.get("timestream_ingest_batch_size", "75"));
-
         env.getConfig().setAutoWatermarkInterval(1000L);
 
-        createKinesisSource(env, parameter)
-            .map(new JsonToTimestreamPayloadFn())
-            .name("MapToTimestreamPayload")
-            .process(new OffsetFutureTimestreamPoints())
-            .name("UpdateFutureOffsetTimestreamPoints")
-            .addSink(new TimestreamSink(region, database_name, table_name, batch_size))
-            .name("TimeSeries<" + database_name + ", " + table_name + ">");
+        if (KinesisSourceConfig.fromParameterTool(parameter).isDecodeInSource()) {
+            createTopologyFromPoints(createKinesisPointSource(env, parameter, EventTimeConfig.fromParameterTool(parameter)), parameter);
+        } else {
+            createTopologyFromRecords(createKinesisSource(env, parameter), parameter);
+        }
 
         env.execute("Polytag Analytics Streaming API");
     }
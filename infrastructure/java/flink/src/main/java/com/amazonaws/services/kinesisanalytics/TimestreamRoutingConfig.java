@@ -0,0 +1,202 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.timestream.TimestreamSinkConfig;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes points to other Timestream tables by the value of one dimension ({@code data_type} by
+ * default). {@code timestream_routes} lists the route names; each route is configured with
+ * {@code timestream_route.<name>.<property>} entries: {@code values}, the comma separated
+ * dimension values it takes, and any sink or topology property, e.g.
+ * {@code timestream_route.labels.timestream_table_name}. Properties a route does not set are
+ * inherited from the job's. Points matching no route go to the job's own table.
+ *
+ * <p>Routing a value means giving it its own table: a route must set a table that neither the job
+ * nor another route writes to, as each table has exactly one sink.
+ */
+public class TimestreamRoutingConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final String ROUTE_PREFIX = "timestream_route.";
+
+    private String route_dimension = "data_type";
+
+    // The job's own table, as "database.table"; routes may not write to it.
+    private String main_table = "";
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private final Map<String, String> route_by_value = new HashMap<>();
+
+    public static TimestreamRoutingConfig fromParameterTool(ParameterTool parameter) {
+        TimestreamRoutingConfig config = new TimestreamRoutingConfig()
+            .withRouteDimension(parameter.get("timestream_route_dimension", "data_type"))
+            .withMainTable(TimestreamSinkConfig.fromParameterTool(parameter));
+
+        for (String name : parameter.get("timestream_routes", "").split(",")) {
+            if (!name.trim().isEmpty()) {
+                config.withRoute(name.trim(), routeParameters(parameter, name.trim()));
+            }
+        }
+
+        return config;
+    }
+
+    /** The job's parameters with the route's own entries laid over them, prefix removed. */
+    private static ParameterTool routeParameters(ParameterTool parameter, String name) {
+        String prefix = ROUTE_PREFIX + name + ".";
+        Map<String, String> overrides = new HashMap<>();
+
+        // Each route writes its own dead letters, so file targets do not collide.
+        overrides.put("timestream_dead_letter_name", "dead-letters-" + name);
+
+        for (Map.Entry<String, String> entry : parameter.toMap().entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                overrides.put(entry.getKey().substring(prefix.length()), entry.getValue());
+            }
+        }
+
+        return parameter.mergeWith(ParameterTool.fromMap(overrides));
+    }
+
+    public TimestreamRoutingConfig withRouteDimension(String route_dimension) {
+        if (route_dimension == null || route_dimension.isEmpty()) {
+            throw new IllegalArgumentException("route_dimension must not be empty");
+        }
+
+        this.route_dimension = route_dimension;
+
+        return this;
+    }
+
+    /** The job's own sink, whose table no route may write to. */
+    public TimestreamRoutingConfig withMainTable(TimestreamSinkConfig main_sink_config) {
+        this.main_table = tableOf(main_sink_config);
+
+        return this;
+    }
+
+    private static String tableOf(TimestreamSinkConfig sink_config) {
+        return sink_config.getDatabaseName() + "." + sink_config.getTableName();
+    }
+
+    public TimestreamRoutingConfig withRoute(String name, ParameterTool route_parameter) {
+        Set<String> values = new LinkedHashSet<>();
+
+        for (String value : route_parameter.get("values", "").split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Timestream route " + name + " needs " + ROUTE_PREFIX + name + ".values");
+        }
+
+        for (Route route : routes) {
+            if (route.getName().equals(name)) {
+                throw new IllegalArgumentException("Timestream route " + name + " is defined twice");
+            }
+        }
+
+        for (String value : values) {
+            String previous_route = route_by_value.put(value, name);
+
+            if (previous_route != null) {
+                throw new IllegalArgumentException("Value " + value + " is routed to both " + previous_route + " and " + name);
+            }
+        }
+
+        TimestreamSinkConfig sink_config = TimestreamSinkConfig.fromParameterTool(route_parameter);
+        String table = tableOf(sink_config);
+
+        if (table.equals(main_table)) {
+            throw new IllegalArgumentException("Timestream route " + name + " writes to the job's own table " + table
+                + "; set " + ROUTE_PREFIX + name + ".timestream_table_name");
+        }
+
+        for (Route route : routes) {
+            if (table.equals(tableOf(route.getSinkConfig()))) {
+                throw new IllegalArgumentException("Timestream routes " + route.getName() + " and " + name + " both write to " + table);
+            }
+        }
+
+        routes.add(new Route(
+            name,
+            values,
+            sink_config,
+            TopologyConfig.fromParameterTool(route_parameter)));
+
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return !routes.isEmpty();
+    }
+
+    public String getRouteDimension() {
+        return route_dimension;
+    }
+
+    public List<Route> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    /** Route name for each routed dimension value. */
+    public Map<String, String> getRouteByValue() {
+        return Collections.unmodifiableMap(route_by_value);
+    }
+
+    public static final class Route implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final Set<String> values;
+        private final TimestreamSinkConfig sink_config;
+        private final TopologyConfig topology;
+
+        Route(String name, Set<String> values, TimestreamSinkConfig sink_config, TopologyConfig topology) {
+            this.name = name;
+            this.values = values;
+            this.sink_config = sink_config;
+            this.topology = topology;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Set<String> getValues() {
+            return Collections.unmodifiableSet(values);
+        }
+
+        /** Destination table, batching, flush and write concurrency of the route. */
+        public TimestreamSinkConfig getSinkConfig() {
+            return sink_config;
+        }
+
+        /** Sink parallelism and partitioning of the route. */
+        public TopologyConfig getTopology() {
+            return topology;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.Locale;
+
+/**
+ * How {@link StreamingJob} wires source, parse and sink: the exchange after the source, the
+ * partitioning in front of the sink and per-operator parallelism (0 inherits the job's).
+ */
+public class TopologyConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Partitioning {
+        /** Raw records are rebalanced before parsing (the original topology). */
+        REBALANCE,
+        /** Source, parse and sink stay in one chain as long as their parallelism matches. */
+        CHAINED,
+        /** Parsing is chained to the source; points are keyed by a dimension before the sink. */
+        KEYED
+    }
+
+    private Partitioning partitioning = Partitioning.REBALANCE;
+    private String partition_key = "data_type";
+    private int parse_parallelism = 0;
+    private int sink_parallelism = 0;
+
+    public static TopologyConfig fromParameterTool(ParameterTool parameter) {
+        return new TopologyConfig()
+            .withPartitioning(Partitioning.valueOf(parameter.get("topology_partitioning", "rebalance").toUpperCase(Locale.ROOT)))
+            .withPartitionKey(parameter.get("topology_partition_key", "data_type"))
+            .withParseParallelism(Integer.parseInt(parameter.get("parse_parallelism", "0")))
+            .withSinkParallelism(Integer.parseInt(parameter.get("sink_parallelism", "0")));
+    }
+
+    public TopologyConfig withPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+
+        return this;
+    }
+
+    public TopologyConfig withPartitionKey(String partition_key) {
+        if (partition_key == null || partition_key.isEmpty()) {
+            throw new IllegalArgumentException("partition_key must not be empty");
+        }
+
+        this.partition_key = partition_key;
+
+        return this;
+    }
+
+    public TopologyConfig withParseParallelism(int parse_parallelism) {
+        if (parse_parallelism < 0) {
+            throw new IllegalArgumentException("parse_parallelism must not be negative, got " + parse_parallelism);
+        }
+
+        this.parse_parallelism = parse_parallelism;
+
+        return this;
+    }
+
+    public TopologyConfig withSinkParallelism(int sink_parallelism) {
+        if (sink_parallelism < 0) {
+            throw new IllegalArgumentException("sink_parallelism must not be negative, got " + sink_parallelism);
+        }
+
+        this.sink_parallelism = sink_parallelism;
+
+        return this;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public String getPartitionKey() {
+        return partition_key;
+    }
+
+    public int getParseParallelism() {
+        return parse_parallelism;
+    }
+
+    public int getSinkParallelism() {
+        return sink_parallelism;
+    }
+}
@@ -0,0 +1,120 @@
+/* ----------
+ * Gson imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * One entry of the gtin enrichment data, as broadcast to {@code EnrichPointsWithGtinMetadata}.
+ * Mirrors the DynamoDB model: a product (keyed by gtin) belongs to a product group, which may be
+ * assigned to a campaign. Snapshot lines look like
+ * <pre>
+ * {"type": "product", "gtin": "05012345678900", "product_id": "...", "product_group_id": "..."}
+ * {"type": "product_group", "product_group_id": "...", "campaign_id": "..."}
+ * </pre>
+ * A {@link Kind#SNAPSHOT_END} entry closes each snapshot: entries of an older snapshot_version
+ * that the snapshot did not repeat are removed.
+ *
+ * <p>A Flink POJO, so the broadcast state does not fall back to Kryo.
+ */
+public class GtinMetadata {
+    public enum Kind {
+        @SerializedName("product") PRODUCT,
+        @SerializedName("product_group") PRODUCT_GROUP,
+        @SerializedName("snapshot_end") SNAPSHOT_END
+    }
+
+    @SerializedName("type")
+    private Kind kind;
+
+    private String gtin;
+
+    private String product_id;
+
+    private String product_group_id;
+
+    private String campaign_id;
+
+    private long snapshot_version;
+
+    public GtinMetadata() {}
+
+    public static GtinMetadata snapshotEnd(long snapshot_version) {
+        GtinMetadata end = new GtinMetadata();
+
+        end.setKind(Kind.SNAPSHOT_END);
+        end.setSnapshotVersion(snapshot_version);
+
+        return end;
+    }
+
+    /** The broadcast state key: the gtin of a product, the id of a product group. */
+    public String key() {
+        return kind == Kind.PRODUCT ? gtin : product_group_id;
+    }
+
+    /** Whether the fields its kind is looked up by are present. */
+    public boolean isValid() {
+        if (kind == null) {
+            return false;
+        }
+
+        switch (kind) {
+            case PRODUCT:
+                return gtin != null && !gtin.isEmpty();
+            case PRODUCT_GROUP:
+                return product_group_id != null && !product_group_id.isEmpty();
+            default:
+                return true;
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public String getGtin() {
+        return gtin;
+    }
+
+    public void setGtin(String gtin) {
+        this.gtin = gtin;
+    }
+
+    public String getProductId() {
+        return product_id;
+    }
+
+    public void setProductId(String product_id) {
+        this.product_id = product_id;
+    }
+
+    public String getProductGroupId() {
+        return product_group_id;
+    }
+
+    public void setProductGroupId(String product_group_id) {
+        this.product_group_id = product_group_id;
+    }
+
+    public String getCampaignId() {
+        return campaign_id;
+    }
+
+    public void setCampaignId(String campaign_id) {
+        this.campaign_id = campaign_id;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshot_version;
+    }
+
+    public void setSnapshotVersion(long snapshot_version) {
+        this.snapshot_version = snapshot_version;
+    }
+}
@@ -0,0 +1,136 @@
+/* ----------
+ * Gson imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.streaming.api.functions.source.RichSourceFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+
+/* ----------
+ * Logs imports
+ * ---------- */
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Emits every {@link GtinMetadata} line of a JSON-lines snapshot file, then a snapshot end, and
+ * emits it again each time the file's modification time changes. The path may be on any file
+ * system Flink has a plugin for, e.g. {@code s3://bucket/enrichment/gtin-metadata.jsonl}. The
+ * file's modification time is the snapshot version. Read failures and malformed lines are logged
+ * and skipped, so the job keeps the metadata it has.
+ *
+ * <p>Run it with parallelism 1; the entries are broadcast.
+ */
+public class GtinMetadataFileSource extends RichSourceFunction<GtinMetadata> {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(GtinMetadataFileSource.class);
+
+    private final String path;
+
+    private final long reload_interval_millis;
+
+    private volatile boolean running = true;
+
+    public GtinMetadataFileSource(String path, long reload_interval_millis) {
+        this.path = path;
+        this.reload_interval_millis = reload_interval_millis;
+    }
+
+    @Override
+    public void run(SourceContext<GtinMetadata> context) throws Exception {
+        // The metadata carries no event time; it must not hold back the points' watermark.
+        context.emitWatermark(new Watermark(Long.MAX_VALUE));
+
+        Path file = new Path(path);
+        Gson gson = new Gson();
+        long loaded_version = Long.MIN_VALUE;
+
+        while (running) {
+            try {
+                FileStatus status = file.getFileSystem().getFileStatus(file);
+
+                if (status.getModificationTime() != loaded_version) {
+                    emitSnapshot(context, file, gson, status.getModificationTime());
+
+                    loaded_version = status.getModificationTime();
+                }
+            } catch (IOException e) {
+                logger.error("xERRORx xGtinMetadataFileSourcex <run> Could not read {}", path, e);
+            }
+
+            Thread.sleep(reload_interval_millis);
+        }
+    }
+
+    private void emitSnapshot(SourceContext<GtinMetadata> context, Path file, Gson gson, long version) throws IOException {
+        FileSystem file_system = file.getFileSystem();
+        int entries = 0;
+        int malformed = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file_system.open(file), StandardCharsets.UTF_8))) {
+            String line;
+
+            while (running && (line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                GtinMetadata metadata;
+
+                try {
+                    metadata = gson.fromJson(line, GtinMetadata.class);
+                } catch (JsonParseException e) {
+                    metadata = null;
+                }
+
+                if (metadata == null || !metadata.isValid() || metadata.getKind() == GtinMetadata.Kind.SNAPSHOT_END) {
+                    malformed++;
+
+                    continue;
+                }
+
+                metadata.setSnapshotVersion(version);
+
+                synchronized (context.getCheckpointLock()) {
+                    context.collect(metadata);
+                }
+
+                entries++;
+            }
+        }
+
+        // An interrupted snapshot must not evict the entries it did not get to.
+        if (!running) {
+            return;
+        }
+
+        synchronized (context.getCheckpointLock()) {
+            context.collect(GtinMetadata.snapshotEnd(version));
+        }
+
+        logger.info("xINFOx xGtinMetadataFileSourcex <emit_snapshot> {} entries, {} malformed lines from {}", entries, malformed, path);
+    }
+
+    @Override
+    public void cancel() {
+        running = false;
+    }
+}
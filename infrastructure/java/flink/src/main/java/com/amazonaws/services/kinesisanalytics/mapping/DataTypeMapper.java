@@ -0,0 +1,232 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.mapping;
+
+import com.amazonaws.services.kinesisanalytics.utils.FlatJsonReader;
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DataTypeMappingSpec} compiled once into flat rule arrays, so mapping an event is a
+ * straight walk over the fields it needs.
+ */
+public final class DataTypeMapper {
+    private static final String MILLISECONDS = "MILLISECONDS";
+
+    private final String data_type;
+    private final String time_field;
+    private final FieldRule[] dimensions;
+    private final FieldRule[] measures;
+
+    /** Measure name of the single MULTI record per event, or null to write one record per measure. */
+    private final String multi_measure_name;
+
+    private DataTypeMapper(String data_type, String time_field, FieldRule[] dimensions, FieldRule[] measures, String multi_measure_name) {
+        this.data_type = data_type;
+        this.time_field = time_field;
+        this.dimensions = dimensions;
+        this.measures = measures;
+        this.multi_measure_name = multi_measure_name;
+    }
+
+    public static DataTypeMapper compile(String data_type, DataTypeMappingSpec spec) {
+        return compile(data_type, spec, false);
+    }
+
+    public static DataTypeMapper compile(String data_type, DataTypeMappingSpec spec, boolean multi_measure) {
+        if (spec.measures == null || spec.measures.isEmpty()) {
+            throw new IllegalArgumentException("Mapping for data_type " + data_type + " declares no measures");
+        }
+
+        String multi_measure_name = null;
+
+        if (multi_measure) {
+            multi_measure_name = spec.multi_measure_name == null ? data_type : spec.multi_measure_name;
+        }
+
+        return new DataTypeMapper(
+            data_type,
+            spec.time_field,
+            compileRules(data_type, spec.dimensions),
+            compileRules(data_type, spec.measures),
+            multi_measure_name);
+    }
+
+    public String getDataType() {
+        return data_type;
+    }
+
+    /**
+     * Builds one point per measure, or a single MULTI point carrying every measure when compiled in
+     * multi-measure mode. Throws {@link IllegalArgumentException} when a required field
+     * is missing so the caller can fall back to the default mapping.
+     */
+    public Collection<TimestreamPoint> map(FlatJsonReader json, long processing_time_milliseconds) {
+        TimestreamPoint base_point = new TimestreamPoint();
+
+        base_point.setTime(eventTime(json, processing_time_milliseconds));
+        base_point.setTimeUnit(MILLISECONDS);
+
+        for (FieldRule dimension : dimensions) {
+            String value = dimension.resolve(json);
+
+            if (value != FieldRule.SKIP) {
+                base_point.addDimension(dimension.name, value);
+            }
+        }
+
+        if (multi_measure_name != null) {
+            return mapMultiMeasure(json, base_point);
+        }
+
+        if (measures.length == 1) {
+            FieldRule measure = measures[0];
+            String value = measure.resolve(json);
+
+            if (value == FieldRule.SKIP) {
+                return Collections.emptyList();
+            }
+
+            base_point.setMeasureName(measure.name);
+            base_point.setMeasureValue(value);
+            base_point.setMeasureValueType(measure.measure_value_type);
+
+            return Collections.singletonList(base_point);
+        }
+
+        List<TimestreamPoint> points = new ArrayList<>(measures.length);
+
+        for (FieldRule measure : measures) {
+            String value = measure.resolve(json);
+
+            if (value != FieldRule.SKIP) {
+                points.add(new TimestreamPoint(base_point, measure.name, value, measure.measure_value_type));
+            }
+        }
+
+        return points;
+    }
+
+    private Collection<TimestreamPoint> mapMultiMeasure(FlatJsonReader json, TimestreamPoint base_point) {
+        for (FieldRule measure : measures) {
+            String value = measure.resolve(json);
+
+            if (value != FieldRule.SKIP && value != null) {
+                base_point.addMeasure(measure.name, value, measure.multi_measure_value_type);
+            }
+        }
+
+        if (base_point.getMeasures().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        base_point.setMeasureName(multi_measure_name);
+        base_point.setMeasureValueType(MeasureValueType.MULTI);
+
+        return Collections.singletonList(base_point);
+    }
+
+    private long eventTime(FlatJsonReader json, long processing_time_milliseconds) {
+        if (time_field == null) {
+            return processing_time_milliseconds;
+        }
+
+        int field = json.find(time_field);
+
+        if (field < 0 || json.string(field) == null) {
+            return processing_time_milliseconds;
+        }
+
+        return json.parseLong(field);
+    }
+
+    private static FieldRule[] compileRules(String data_type, List<DataTypeMappingSpec.FieldSpec> specs) {
+        if (specs == null) {
+            return new FieldRule[0];
+        }
+
+        FieldRule[] rules = new FieldRule[specs.size()];
+
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = new FieldRule(data_type, specs.get(i));
+        }
+
+        return rules;
+    }
+
+    private static final class FieldRule {
+        /** Sentinel (compared by identity) for a field that must not be written. */
+        static final String SKIP = new String("skip");
+
+        final String name;
+        final String source;
+        final String constant;
+        final Map<String, String> values;
+        final String default_value;
+        final boolean required;
+        final boolean optional;
+        final boolean skip_empty;
+        final MeasureValueType measure_value_type;
+        final MeasureValueType multi_measure_value_type;
+
+        FieldRule(String data_type, DataTypeMappingSpec.FieldSpec spec) {
+            if (spec.name == null || spec.name.isEmpty()) {
+                throw new IllegalArgumentException("Mapping for data_type " + data_type + " has a field without a name");
+            }
+
+            this.name = spec.name;
+            this.source = spec.source == null ? spec.name : spec.source;
+            this.constant = spec.constant;
+            this.values = spec.values == null ? null : new HashMap<>(spec.values);
+            this.default_value = spec.default_value;
+            this.required = spec.required;
+            this.optional = spec.optional;
+            this.skip_empty = spec.skip_empty;
+            this.measure_value_type = spec.type == null ? MeasureValueType.VARCHAR : MeasureValueType.fromValue(spec.type);
+            this.multi_measure_value_type = spec.multi_type == null ? measure_value_type : MeasureValueType.fromValue(spec.multi_type);
+        }
+
+        String resolve(FlatJsonReader json) {
+            if (constant != null) {
+                return constant;
+            }
+
+            String value = json.string(source);
+
+            if (value == null) {
+                if (required) {
+                    throw new IllegalArgumentException("Missing required field " + source);
+                }
+
+                if (default_value != null) {
+                    return default_value;
+                }
+
+                return optional ? SKIP : null;
+            }
+
+            if (skip_empty && value.isEmpty()) {
+                return default_value != null ? default_value : SKIP;
+            }
+
+            if (values != null) {
+                String mapped = values.get(value);
+
+                return mapped != null ? mapped : (default_value != null ? default_value : value);
+            }
+
+            return value;
+        }
+    }
+}
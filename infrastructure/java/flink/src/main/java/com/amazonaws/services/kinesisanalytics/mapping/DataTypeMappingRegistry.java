@@ -0,0 +1,91 @@
+/* ----------
+ * Google imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.mapping;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-{@code data_type} mappers, built once when the operator opens. The bundled
+ * {@code data-type-mappings.json} is loaded first; entries from the {@code data_type_mappings}
+ * application property (same JSON shape) replace or extend it. In multi-measure mode every mapper
+ * emits one MULTI point per event.
+ */
+public final class DataTypeMappingRegistry {
+    public static final String BUNDLED_RESOURCE = "/data-type-mappings.json";
+
+    private static final Type SPEC_MAP_TYPE = new TypeToken<Map<String, DataTypeMappingSpec>>() {}.getType();
+
+    private final Map<String, DataTypeMapper> mappers;
+
+    private DataTypeMappingRegistry(Map<String, DataTypeMapper> mappers) {
+        this.mappers = mappers;
+    }
+
+    public static DataTypeMappingRegistry load(String overrides_json) throws IOException {
+        return load(overrides_json, false);
+    }
+
+    public static DataTypeMappingRegistry load(String overrides_json, boolean multi_measure) throws IOException {
+        Gson gson = new Gson();
+        Map<String, DataTypeMappingSpec> specs = new HashMap<>();
+
+        try (InputStream stream = DataTypeMappingRegistry.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+            if (stream == null) {
+                throw new IOException("Missing bundled resource " + BUNDLED_RESOURCE);
+            }
+
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                Map<String, DataTypeMappingSpec> bundled = gson.fromJson(reader, SPEC_MAP_TYPE);
+
+                if (bundled != null) {
+                    specs.putAll(bundled);
+                }
+            }
+        }
+
+        if (overrides_json != null && !overrides_json.trim().isEmpty()) {
+            Map<String, DataTypeMappingSpec> overrides = gson.fromJson(overrides_json, SPEC_MAP_TYPE);
+
+            if (overrides != null) {
+                specs.putAll(overrides);
+            }
+        }
+
+        Map<String, DataTypeMapper> mappers = new HashMap<>(specs.size() * 2);
+
+        for (Map.Entry<String, DataTypeMappingSpec> entry : specs.entrySet()) {
+            mappers.put(entry.getKey(), DataTypeMapper.compile(entry.getKey(), entry.getValue(), multi_measure));
+        }
+
+        return new DataTypeMappingRegistry(mappers);
+    }
+
+    /** Mapper for the data_type, or null when it has to go through the default mapping. */
+    public DataTypeMapper get(String data_type) {
+        return data_type == null ? null : mappers.get(data_type);
+    }
+
+    public int size() {
+        return mappers.size();
+    }
+
+    public Set<String> getDataTypes() {
+        return Collections.unmodifiableSet(mappers.keySet());
+    }
+}
@@ -0,0 +1,62 @@
+/* ----------
+ * Google imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.mapping;
+
+import com.google.gson.annotations.SerializedName;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative description of how one {@code data_type} is turned into Timestream points, as read
+ * from {@code data-type-mappings.json} or the {@code data_type_mappings} application property.
+ */
+public class DataTypeMappingSpec {
+
+    /** Payload field holding the event time in milliseconds; processing time is used when absent. */
+    String time_field;
+
+    List<FieldSpec> dimensions;
+
+    List<FieldSpec> measures;
+
+    /** Measure name of the MULTI record written in multi-measure mode; defaults to the data_type. */
+    String multi_measure_name;
+
+    public static class FieldSpec {
+        /** Dimension or measure name written to Timestream. */
+        String name;
+
+        /** Payload field to read; defaults to {@link #name}. */
+        String source;
+
+        /** Fixed value; the payload is not read at all. */
+        String constant;
+
+        /** Translates payload values, e.g. {@code is_ios} "true" to "ios". */
+        Map<String, String> values;
+
+        /** Used when the value is missing, empty (with skip_empty) or not found in {@link #values}. */
+        @SerializedName("default")
+        String default_value;
+
+        /** A missing or null field makes the event malformed. */
+        boolean required;
+
+        /** A missing or null field is skipped instead of written as null. */
+        boolean optional;
+
+        /** An empty string is skipped (or replaced by the default). */
+        boolean skip_empty;
+
+        /** Measure value type, VARCHAR when not set. */
+        String type;
+
+        /** Measure value type inside a MULTI record; defaults to {@link #type}. */
+        String multi_type;
+    }
+}
@@ -0,0 +1,195 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.mapping;
+
+import com.amazonaws.services.kinesisanalytics.utils.FlatJsonReader;
+import com.amazonaws.services.kinesisanalytics.utils.LogSampler;
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+
+/* ----------
+ * Logs imports
+ * ---------- */
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Turns a raw analytics event into Timestream points through the data_type mappings, falling
+ * back to the default mapping. Shared by {@code JsonToTimestreamPayloadFn} and the Kinesis
+ * deserialization schema, so parsing can happen either after the source or inside it.
+ *
+ * <p>Instances are not thread-safe; keep one per operator instance.
+ */
+public class TimestreamPayloadParser implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(TimestreamPayloadParser.class);
+
+    private static final String DEFAULT_MAPPING_METRIC_GROUP = "default";
+
+    private static final int HISTOGRAM_WINDOW_SIZE = 1000;
+
+    private final String mapping_overrides_json;
+
+    private final int log_records_per_second;
+
+    private final boolean multi_measure_records;
+
+    private transient DataTypeMappingRegistry registry;
+
+    private transient FlatJsonReader reader;
+
+    private transient int[] default_measure_fields;
+
+    private transient LogSampler log_sampler;
+
+    private transient Map<String, Counter> records_parsed;
+    private transient Map<String, Counter> records_failed;
+    private transient Histogram parse_latency_nanos;
+
+    /**
+     * @param mapping_overrides_json optional JSON object of data_type mappings that replace or
+     *                               extend the bundled data-type-mappings.json
+     * @param log_records_per_second how many incoming records per second to log; 0 disables it
+     * @param multi_measure_records  emit one MULTI point per mapped event instead of one point per
+     *                               measure; the default mapping is unaffected
+     */
+    public TimestreamPayloadParser(String mapping_overrides_json, int log_records_per_second, boolean multi_measure_records) {
+        this.mapping_overrides_json = mapping_overrides_json;
+        this.log_records_per_second = log_records_per_second;
+        this.multi_measure_records = multi_measure_records;
+    }
+
+    /** Loads the mappings and registers the metrics under {@code payload} in the given group. */
+    public void open(MetricGroup parent_metric_group) throws IOException {
+        this.registry = DataTypeMappingRegistry.load(mapping_overrides_json, multi_measure_records);
+        this.reader = new FlatJsonReader();
+        this.default_measure_fields = new int[8];
+        this.log_sampler = new LogSampler(log_records_per_second);
+
+        MetricGroup metric_group = parent_metric_group.addGroup("payload");
+
+        this.records_parsed = new HashMap<>();
+        this.records_failed = new HashMap<>();
+        this.parse_latency_nanos = metric_group.histogram("parse_latency_nanos", new DescriptiveStatisticsHistogram(HISTOGRAM_WINDOW_SIZE));
+
+        List<String> metric_data_types = new ArrayList<>(registry.getDataTypes());
+        metric_data_types.add(DEFAULT_MAPPING_METRIC_GROUP);
+
+        // Only known data types get their own counters so a bad client cannot blow up metric cardinality.
+        for (String data_type : metric_data_types) {
+            MetricGroup data_type_group = metric_group.addGroup("data_type", data_type);
+
+            records_parsed.put(data_type, data_type_group.counter("records_parsed"));
+            records_failed.put(data_type, data_type_group.counter("records_failed"));
+        }
+
+        logger.info("xINFOx xTimestreamPayloadParserx <open> Loaded {} data_type mappings", registry.size());
+    }
+
+    /**
+     * @param fallback_time_milliseconds event time for mappings whose time field is missing
+     */
+    public Collection<TimestreamPoint> parse(byte[] incoming_data_json, long fallback_time_milliseconds) {
+        long started_at = System.nanoTime();
+
+        boolean log_record = log_sampler.shouldLog();
+
+        if (log_record) {
+            logger.info("xINFOx xTimestreamPayloadParserx Data received: {}", new String(incoming_data_json, StandardCharsets.UTF_8));
+        }
+
+        FlatJsonReader json = reader.reset(incoming_data_json);
+
+        DataTypeMapper mapper = registry.get(json.string("data_type"));
+
+        Collection<TimestreamPoint> points = null;
+
+        if (mapper != null) {
+            try {
+                points = mapper.map(json, fallback_time_milliseconds);
+
+                records_parsed.get(mapper.getDataType()).inc();
+            } catch (Exception err) {
+                records_failed.get(mapper.getDataType()).inc();
+
+                if (log_record) {
+                    logger.error("xERRORx xTimestreamPayloadParserx: {}", err.getMessage());
+                }
+            }
+        }
+
+        if (points == null) {
+            points = defaultMapping(json);
+
+            records_parsed.get(DEFAULT_MAPPING_METRIC_GROUP).inc();
+        }
+
+        parse_latency_nanos.update(System.nanoTime() - started_at);
+
+        if (log_record) {
+            logger.info("xINFOx xTimestreamPayloadParserx points {}", points);
+        }
+
+        return points;
+    }
+
+    private Collection<TimestreamPoint> defaultMapping(FlatJsonReader json) {
+        TimestreamPoint base_point = new TimestreamPoint();
+
+        int measure_count = 0;
+
+        for (int field = 0; field < json.size(); field++) {
+            String key = json.key(field);
+            String lower_key = key.toLowerCase();
+
+            if (lower_key.endsWith("_measure")) {
+                if (measure_count == default_measure_fields.length) {
+                    default_measure_fields = Arrays.copyOf(default_measure_fields, measure_count * 2);
+                }
+
+                default_measure_fields[measure_count++] = field;
+
+                continue;
+            }
+
+            switch (lower_key) {
+                case "time":
+                    base_point.setTime(json.parseLong(field));
+                    break;
+                case "timeunit":
+                    base_point.setTimeUnit(json.string(field));
+                    break;
+                default:
+                    base_point.addDimension(key, json.string(field));
+            }
+        }
+
+        List<TimestreamPoint> points = new ArrayList<>(measure_count);
+
+        for (int i = 0; i < measure_count; i++) {
+            int field = default_measure_fields[i];
+
+            points.add(new TimestreamPoint(base_point, json.key(field), json.string(field), MeasureValueType.VARCHAR));
+        }
+
+        return points;
+    }
+}
@@ -0,0 +1,254 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.normalization;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Google imports
+ * ---------- */
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings down the cardinality of the dimensions of points, following per-{@code data_type}
+ * {@link DimensionRuleSpec}s. The bundled {@code dimension-normalizations.json} is loaded first;
+ * data types in the {@code dimension_normalizations} application property (same JSON shape)
+ * replace their bundled rules, and an empty object turns a data type's rules off.
+ *
+ * <p>A demoted dimension becomes a measure of the MULTI point in multi-measure mode, where
+ * queries still read it by name. In single-measure mode each event gets one more point per
+ * demoted dimension instead, with the measure named after the dimension.
+ *
+ * <p>Instances are not thread-safe; keep one per operator instance.
+ */
+public final class DimensionNormalizer {
+    public static final String BUNDLED_RESOURCE = "/dimension-normalizations.json";
+
+    static final String BROWSER_DIMENSION = "browser";
+    static final String OS_DIMENSION = "os";
+    static final String DEVICE_DIMENSION = "device";
+
+    private static final Type SPEC_MAP_TYPE = new TypeToken<Map<String, LinkedHashMap<String, DimensionRuleSpec>>>() {}.getType();
+
+    private final Map<String, Map<String, DimensionRuleSpec>> rules_by_data_type;
+
+    private final UserAgentParser user_agent_parser;
+
+    private final MessageDigest digest;
+
+    private DimensionNormalizer(Map<String, Map<String, DimensionRuleSpec>> rules_by_data_type, int user_agent_cache_size) {
+        this.rules_by_data_type = rules_by_data_type;
+        this.user_agent_parser = new UserAgentParser(user_agent_cache_size);
+
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static DimensionNormalizer load(String overrides_json, int user_agent_cache_size) throws IOException {
+        Gson gson = new Gson();
+        Map<String, Map<String, DimensionRuleSpec>> specs = new HashMap<>();
+
+        try (InputStream stream = DimensionNormalizer.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+            if (stream == null) {
+                throw new IOException("Missing bundled resource " + BUNDLED_RESOURCE);
+            }
+
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                Map<String, Map<String, DimensionRuleSpec>> bundled = gson.fromJson(reader, SPEC_MAP_TYPE);
+
+                if (bundled != null) {
+                    specs.putAll(bundled);
+                }
+            }
+        }
+
+        if (overrides_json != null && !overrides_json.trim().isEmpty()) {
+            Map<String, Map<String, DimensionRuleSpec>> overrides = gson.fromJson(overrides_json, SPEC_MAP_TYPE);
+
+            if (overrides != null) {
+                specs.putAll(overrides);
+            }
+        }
+
+        for (Map.Entry<String, Map<String, DimensionRuleSpec>> entry : specs.entrySet()) {
+            for (Map.Entry<String, DimensionRuleSpec> rule : entry.getValue().entrySet()) {
+                validate(entry.getKey(), rule.getKey(), rule.getValue());
+            }
+        }
+
+        specs.values().removeIf(Map::isEmpty);
+
+        return new DimensionNormalizer(specs, user_agent_cache_size);
+    }
+
+    private static void validate(String data_type, String dimension, DimensionRuleSpec rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Empty normalization rule for " + data_type + "." + dimension);
+        }
+
+        if (rule.round != null && (rule.round < 0 || rule.round > 10)) {
+            throw new IllegalArgumentException("round must be between 0 and 10 for " + data_type + "." + dimension + ", got " + rule.round);
+        }
+
+        if (rule.hash_buckets < 0) {
+            throw new IllegalArgumentException("hash_buckets must not be negative for " + data_type + "." + dimension);
+        }
+    }
+
+    public boolean isEmpty() {
+        return rules_by_data_type.isEmpty();
+    }
+
+    public UserAgentParser getUserAgentParser() {
+        return user_agent_parser;
+    }
+
+    /**
+     * Normalizes the points of one event in place; returns them, or a new collection with the
+     * extra points of demoted dimensions in single-measure mode.
+     */
+    public Collection<TimestreamPoint> normalize(Collection<TimestreamPoint> points) {
+        List<TimestreamPoint> demoted_points = null;
+        boolean event_demoted = false;
+
+        for (TimestreamPoint point : points) {
+            Map<String, DimensionRuleSpec> rules = rules_by_data_type.get(point.getDimension("data_type"));
+
+            if (rules == null) {
+                continue;
+            }
+
+            List<String> demoted = null;
+
+            for (Map.Entry<String, DimensionRuleSpec> entry : rules.entrySet()) {
+                String value = normalize(point, entry.getKey(), entry.getValue());
+
+                if (value != null && entry.getValue().demote) {
+                    if (demoted == null) {
+                        demoted = new ArrayList<>(4);
+                    }
+
+                    demoted.add(entry.getKey());
+                    demoted.add(value);
+                }
+            }
+
+            if (demoted == null) {
+                continue;
+            }
+
+            // Only once every rule ran, so the measure points share the final dimensions.
+            for (int i = 0; i < demoted.size(); i += 2) {
+                if (point.getMeasureValueType() == MeasureValueType.MULTI) {
+                    point.addMeasure(demoted.get(i), demoted.get(i + 1), MeasureValueType.VARCHAR);
+                } else if (!event_demoted) {
+                    if (demoted_points == null) {
+                        demoted_points = new ArrayList<>(demoted.size() / 2);
+                    }
+
+                    demoted_points.add(new TimestreamPoint(point, demoted.get(i), demoted.get(i + 1), MeasureValueType.VARCHAR));
+                }
+            }
+
+            // The event's other points carry the same dimensions; one measure point each is enough.
+            event_demoted = true;
+        }
+
+        if (demoted_points == null) {
+            return points;
+        }
+
+        List<TimestreamPoint> all_points = new ArrayList<>(points.size() + demoted_points.size());
+
+        all_points.addAll(points);
+        all_points.addAll(demoted_points);
+
+        return all_points;
+    }
+
+    /** Applies the rule to the dimension; returns its new value, or null when the point lacks it. */
+    private String normalize(TimestreamPoint point, String dimension, DimensionRuleSpec rule) {
+        String value = point.getDimension(dimension);
+
+        if (value == null) {
+            return null;
+        }
+
+        if (rule.parse_user_agent) {
+            UserAgentParser.UserAgent user_agent = user_agent_parser.parse(value);
+
+            point.addDimension(BROWSER_DIMENSION, user_agent.getBrowser());
+            point.addDimension(OS_DIMENSION, user_agent.getOs());
+            point.addDimension(DEVICE_DIMENSION, user_agent.getDevice());
+        }
+
+        if (rule.round != null) {
+            value = round(value, rule.round);
+        }
+
+        if (rule.hash) {
+            value = hash(value, rule.hash_buckets);
+        }
+
+        if (rule.demote) {
+            point.removeDimension(dimension);
+        } else if (!value.equals(point.getDimension(dimension))) {
+            point.addDimension(dimension, value);
+        }
+
+        return value;
+    }
+
+    /** Values that are not numbers are left as they are. */
+    static String round(String value, int decimal_places) {
+        try {
+            return new BigDecimal(value.trim()).setScale(decimal_places, RoundingMode.HALF_UP).toPlainString();
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    private String hash(String value, int buckets) {
+        byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+
+        if (buckets > 0) {
+            return Long.toString(Math.floorMod(ByteBuffer.wrap(hash).getLong(), (long) buckets));
+        }
+
+        StringBuilder hex = new StringBuilder(32);
+
+        // 128 bits are plenty to keep distinct values apart.
+        for (int i = 0; i < 16; i++) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+}
@@ -0,0 +1,27 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.normalization;
+
+/**
+ * How one dimension of a {@code data_type} is normalized, as read from
+ * {@code dimension-normalizations.json} or the {@code dimension_normalizations} application
+ * property. The steps run in field order.
+ */
+public class DimensionRuleSpec {
+
+    /** Adds browser, os and device dimensions parsed from the value. */
+    boolean parse_user_agent;
+
+    /** Decimal places numeric values are rounded to, e.g. 2 for coordinates to about 1 km. */
+    Integer round;
+
+    /** Replaces the value by a hash of it. */
+    boolean hash;
+
+    /** With {@link #hash}, maps values onto this many buckets; 0 keeps the full hash. */
+    int hash_buckets;
+
+    /** Moves the value from the dimensions to a VARCHAR measure of the same name. */
+    boolean demote;
+}
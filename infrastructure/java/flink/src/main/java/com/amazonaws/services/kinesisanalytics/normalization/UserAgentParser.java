@@ -0,0 +1,166 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.normalization;
+
+import com.amazonaws.services.kinesisanalytics.utils.LruCache;
+
+/**
+ * Reduces user agent strings to a browser family, an OS family and a device class, the handful of
+ * values dashboards group by, by looking for well-known tokens. It does not try to be as complete
+ * as a regex database; anything unrecognized is "Other". Results are kept in an LRU cache, as a
+ * few devices account for most scans.
+ *
+ * <p>Instances are not thread-safe; keep one per operator instance.
+ */
+public final class UserAgentParser {
+    public static final String OTHER = "Other";
+
+    private final LruCache<String, UserAgent> cache;
+
+    private long cache_hits;
+    private long cache_misses;
+
+    public UserAgentParser(int cache_size) {
+        this.cache = new LruCache<>(cache_size);
+    }
+
+    public UserAgent parse(String user_agent) {
+        UserAgent parsed = cache.get(user_agent);
+
+        if (parsed != null) {
+            cache_hits++;
+
+            return parsed;
+        }
+
+        cache_misses++;
+
+        parsed = classify(user_agent);
+
+        cache.put(user_agent, parsed);
+
+        return parsed;
+    }
+
+    public long getCacheHits() {
+        return cache_hits;
+    }
+
+    public long getCacheMisses() {
+        return cache_misses;
+    }
+
+    static UserAgent classify(String user_agent) {
+        String lower = user_agent.toLowerCase();
+
+        if (lower.contains("bot") || lower.contains("crawler") || lower.contains("spider")) {
+            return new UserAgent("Bot", OTHER, "bot");
+        }
+
+        return new UserAgent(browser(user_agent), os(user_agent), device(user_agent));
+    }
+
+    // Order matters: most browsers also claim to be Safari, and Chromium-based ones Chrome.
+    private static String browser(String user_agent) {
+        if (user_agent.contains("FBAN") || user_agent.contains("FBAV")) {
+            return "Facebook";
+        }
+
+        if (user_agent.contains("Instagram")) {
+            return "Instagram";
+        }
+
+        if (user_agent.contains("SamsungBrowser/")) {
+            return "Samsung Internet";
+        }
+
+        if (user_agent.contains("Edg/") || user_agent.contains("EdgA/") || user_agent.contains("EdgiOS/")) {
+            return "Edge";
+        }
+
+        if (user_agent.contains("OPR/") || user_agent.contains("Opera")) {
+            return "Opera";
+        }
+
+        if (user_agent.contains("Firefox/") || user_agent.contains("FxiOS/")) {
+            return "Firefox";
+        }
+
+        if (user_agent.contains("Chrome/") || user_agent.contains("CriOS/") || user_agent.contains("Chromium/")) {
+            return "Chrome";
+        }
+
+        if (user_agent.contains("Safari/") && user_agent.contains("Version/")) {
+            return "Safari";
+        }
+
+        return OTHER;
+    }
+
+    private static String os(String user_agent) {
+        // Before macOS: iOS user agents say "like Mac OS X".
+        if (user_agent.contains("iPhone") || user_agent.contains("iPad") || user_agent.contains("iPod")) {
+            return "iOS";
+        }
+
+        if (user_agent.contains("Android")) {
+            return "Android";
+        }
+
+        if (user_agent.contains("Windows")) {
+            return "Windows";
+        }
+
+        if (user_agent.contains("Mac OS X") || user_agent.contains("Macintosh")) {
+            return "macOS";
+        }
+
+        if (user_agent.contains("CrOS")) {
+            return "Chrome OS";
+        }
+
+        if (user_agent.contains("Linux")) {
+            return "Linux";
+        }
+
+        return OTHER;
+    }
+
+    private static String device(String user_agent) {
+        if (user_agent.contains("iPad") || user_agent.contains("Tablet")
+                || (user_agent.contains("Android") && !user_agent.contains("Mobile"))) {
+            return "tablet";
+        }
+
+        if (user_agent.contains("Mobi") || user_agent.contains("iPhone") || user_agent.contains("iPod")) {
+            return "mobile";
+        }
+
+        return "desktop";
+    }
+
+    public static final class UserAgent {
+        private final String browser;
+        private final String os;
+        private final String device;
+
+        UserAgent(String browser, String os, String device) {
+            this.browser = browser;
+            this.os = os;
+            this.device = device;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public String getOs() {
+            return os;
+        }
+
+        public String getDevice() {
+            return device;
+        }
+    }
+}
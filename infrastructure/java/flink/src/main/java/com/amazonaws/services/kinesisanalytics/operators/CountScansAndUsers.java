@@ -0,0 +1,93 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.utils.HyperLogLog;
+import com.amazonaws.services.timestream.TimestreamMeasure;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.functions.AggregateFunction;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Counts the events of a rollup window and adds each event's user to a HyperLogLog sketch. The
+ * user is the value of the first distinct field the event has, looked up in the dimensions, then
+ * the measures of its points. Events without any are only counted as scans.
+ */
+public class CountScansAndUsers implements AggregateFunction<Collection<TimestreamPoint>, RollupAccumulator, RollupAccumulator> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> distinct_fields;
+
+    private final int hll_precision;
+
+    public CountScansAndUsers(List<String> distinct_fields, int hll_precision) {
+        this.distinct_fields = distinct_fields;
+        this.hll_precision = hll_precision;
+    }
+
+    @Override
+    public RollupAccumulator createAccumulator() {
+        return new RollupAccumulator(hll_precision);
+    }
+
+    @Override
+    public RollupAccumulator add(Collection<TimestreamPoint> points, RollupAccumulator accumulator) {
+        accumulator.setScanCount(accumulator.getScanCount() + 1);
+
+        String user = user(points);
+
+        if (user != null) {
+            HyperLogLog.wrap(accumulator.getUserRegisters()).add(user);
+        }
+
+        return accumulator;
+    }
+
+    private String user(Collection<TimestreamPoint> points) {
+        for (String field : distinct_fields) {
+            for (TimestreamPoint point : points) {
+                String value = point.getDimension(field);
+
+                if (value != null) {
+                    return value;
+                }
+
+                if (field.equals(point.getMeasureName()) && point.getMeasureValue() != null) {
+                    return point.getMeasureValue();
+                }
+
+                for (TimestreamMeasure measure : point.getMeasures()) {
+                    if (field.equals(measure.getName()) && measure.getValue() != null) {
+                        return measure.getValue();
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public RollupAccumulator getResult(RollupAccumulator accumulator) {
+        return accumulator;
+    }
+
+    @Override
+    public RollupAccumulator merge(RollupAccumulator a, RollupAccumulator b) {
+        a.setScanCount(a.getScanCount() + b.getScanCount());
+
+        HyperLogLog.wrap(a.getUserRegisters()).merge(HyperLogLog.wrap(b.getUserRegisters()));
+
+        return a;
+    }
+}
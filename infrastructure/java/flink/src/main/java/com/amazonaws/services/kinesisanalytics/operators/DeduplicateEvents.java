@@ -0,0 +1,142 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.utils.BloomFilter;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.state.StateTtlConfig;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * Drops events whose key was already seen within the TTL. The seen flag lives in keyed state
+ * with a TTL, so it works the same on the heap and RocksDB backends.
+ *
+ * <p>With a bloom filter, keys the filter has never seen skip the state read. The filter is not
+ * checkpointed and two generations are rotated every TTL, so it always covers at least one TTL;
+ * until it has after a (re)start, misses are still checked against state.
+ */
+public class DeduplicateEvents extends KeyedProcessFunction<String, Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    private final long ttl_millis;
+
+    private final long bloom_filter_expected_keys;
+
+    private final double bloom_filter_false_positive_rate;
+
+    private transient ValueState<Boolean> seen;
+
+    private transient Counter duplicates_dropped;
+    private transient Counter state_reads_skipped;
+
+    private transient BloomFilter current_keys;
+    private transient BloomFilter previous_keys;
+    private transient long rotate_at_millis;
+    private transient long bloom_filter_complete_at_millis;
+
+    /**
+     * @param bloom_filter_expected_keys keys per subtask and TTL to size the filter for; 0 disables it
+     */
+    public DeduplicateEvents(long ttl_millis, long bloom_filter_expected_keys, double bloom_filter_false_positive_rate) {
+        this.ttl_millis = ttl_millis;
+        this.bloom_filter_expected_keys = bloom_filter_expected_keys;
+        this.bloom_filter_false_positive_rate = bloom_filter_false_positive_rate;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        StateTtlConfig ttl_config = StateTtlConfig
+            .newBuilder(Time.milliseconds(ttl_millis))
+            .setUpdateType(StateTtlConfig.UpdateType.OnCreateAndWrite)
+            .setStateVisibility(StateTtlConfig.StateVisibility.NeverReturnExpired)
+            .cleanupFullSnapshot()
+            .cleanupIncrementally(10, false)
+            .cleanupInRocksdbCompactFilter(1000)
+            .build();
+
+        ValueStateDescriptor<Boolean> descriptor = new ValueStateDescriptor<>("seen", Types.BOOLEAN);
+        descriptor.enableTimeToLive(ttl_config);
+
+        this.seen = getRuntimeContext().getState(descriptor);
+
+        MetricGroup metric_group = getRuntimeContext().getMetricGroup().addGroup("deduplication");
+
+        this.duplicates_dropped = metric_group.counter("duplicates_dropped");
+        this.state_reads_skipped = metric_group.counter("state_reads_skipped");
+
+        if (bloom_filter_expected_keys > 0) {
+            long now = System.currentTimeMillis();
+
+            this.current_keys = newBloomFilter();
+            this.previous_keys = newBloomFilter();
+            this.rotate_at_millis = now + ttl_millis;
+            this.bloom_filter_complete_at_millis = now + ttl_millis;
+        }
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) throws Exception {
+        if (current_keys != null && isNewToBloomFilter(context.getCurrentKey())) {
+            seen.update(Boolean.TRUE);
+            collector.collect(points);
+
+            return;
+        }
+
+        if (seen.value() != null) {
+            duplicates_dropped.inc();
+
+            return;
+        }
+
+        seen.update(Boolean.TRUE);
+        collector.collect(points);
+    }
+
+    /** Records the key and tells whether the filter proves it has not been seen within the TTL. */
+    private boolean isNewToBloomFilter(String key) {
+        long now = System.currentTimeMillis();
+
+        if (now >= rotate_at_millis) {
+            previous_keys = current_keys;
+            current_keys = newBloomFilter();
+            rotate_at_millis = now + ttl_millis;
+        }
+
+        boolean might_be_known = current_keys.mightContain(key) || previous_keys.mightContain(key);
+
+        current_keys.add(key);
+
+        if (might_be_known || now < bloom_filter_complete_at_millis) {
+            return false;
+        }
+
+        state_reads_skipped.inc();
+
+        return true;
+    }
+
+    private BloomFilter newBloomFilter() {
+        return new BloomFilter(bloom_filter_expected_keys, bloom_filter_false_positive_rate);
+    }
+}
@@ -0,0 +1,44 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.functions.KeySelector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Keys an event's points by one of their dimensions. All points of an event share their
+ * dimensions, so the first one decides; events without it share the empty key.
+ */
+public class DimensionKeySelector implements KeySelector<Collection<TimestreamPoint>, String> {
+    private static final long serialVersionUID = 1L;
+
+    private final String dimension_name;
+
+    public DimensionKeySelector(String dimension_name) {
+        this.dimension_name = dimension_name;
+    }
+
+    @Override
+    public String getKey(Collection<TimestreamPoint> points) {
+        Iterator<TimestreamPoint> iterator = points.iterator();
+
+        if (!iterator.hasNext()) {
+            return "";
+        }
+
+        String value = iterator.next().getDimension(dimension_name);
+
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,99 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.utils.HyperLogLog;
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a window's {@link RollupAccumulator} into one MULTI point at the window start, with the
+ * data_type, group and granularity (e.g. "1m", "1h") dimensions and the scan_count,
+ * distinct_users and users_sketch measures. users_sketch is the base64 of
+ * {@link HyperLogLog#toBytes()}, so queries can merge buckets into coarser distinct counts.
+ * Windows in which no event had a user identifier only get scan_count: a distinct_users of 0
+ * would read as "no users" rather than "unknown".
+ */
+public class EmitRollupPoint extends ProcessWindowFunction<RollupAccumulator, Collection<TimestreamPoint>, String, TimeWindow> {
+    private static final long serialVersionUID = 1L;
+
+    public static final String MEASURE_NAME = "rollup";
+
+    private final List<String> group_dimensions;
+
+    public EmitRollupPoint(List<String> group_dimensions) {
+        this.group_dimensions = group_dimensions;
+    }
+
+    @Override
+    public void process(String key, Context context, Iterable<RollupAccumulator> accumulators, Collector<Collection<TimestreamPoint>> collector) {
+        String[] key_values = key.split(String.valueOf(RollupKeySelector.SEPARATOR), -1);
+
+        for (RollupAccumulator accumulator : accumulators) {
+            TimestreamPoint point = new TimestreamPoint();
+
+            point.addDimension("data_type", key_values[0]);
+            point.addDimension("granularity", granularity(context.window().getEnd() - context.window().getStart()));
+
+            for (int i = 0; i < group_dimensions.size(); i++) {
+                // Timestream does not take empty dimension values.
+                if (!key_values[i + 1].isEmpty()) {
+                    point.addDimension(group_dimensions.get(i), key_values[i + 1]);
+                }
+            }
+
+            HyperLogLog users = HyperLogLog.wrap(accumulator.getUserRegisters());
+
+            point.setMeasureName(MEASURE_NAME);
+            point.setMeasureValueType(MeasureValueType.MULTI);
+            point.addMeasure("scan_count", String.valueOf(accumulator.getScanCount()), MeasureValueType.BIGINT);
+
+            if (!users.isEmpty()) {
+                point.addMeasure("distinct_users", String.valueOf(users.estimate()), MeasureValueType.BIGINT);
+                point.addMeasure("users_sketch", Base64.getEncoder().encodeToString(users.toBytes()), MeasureValueType.VARCHAR);
+            }
+
+            point.setTime(context.window().getStart());
+            point.setTimeUnit(TimeUnit.MILLISECONDS.name());
+
+            collector.collect(Collections.singletonList(point));
+        }
+    }
+
+    static String granularity(long window_millis) {
+        if (window_millis % TimeUnit.DAYS.toMillis(1) == 0) {
+            return window_millis / TimeUnit.DAYS.toMillis(1) + "d";
+        }
+
+        if (window_millis % TimeUnit.HOURS.toMillis(1) == 0) {
+            return window_millis / TimeUnit.HOURS.toMillis(1) + "h";
+        }
+
+        if (window_millis % TimeUnit.MINUTES.toMillis(1) == 0) {
+            return window_millis / TimeUnit.MINUTES.toMillis(1) + "m";
+        }
+
+        if (window_millis % TimeUnit.SECONDS.toMillis(1) == 0) {
+            return window_millis / TimeUnit.SECONDS.toMillis(1) + "s";
+        }
+
+        return window_millis + "ms";
+    }
+}
@@ -0,0 +1,35 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/** Stamps a window's summed point with the window start and emits it like a parsed event. */
+public class EmitWindowedPoint extends ProcessWindowFunction<TimestreamPoint, Collection<TimestreamPoint>, String, TimeWindow> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void process(String key, Context context, Iterable<TimestreamPoint> sums, Collector<Collection<TimestreamPoint>> collector) {
+        for (TimestreamPoint point : sums) {
+            point.setTime(context.window().getStart());
+            point.setTimeUnit(TimeUnit.MILLISECONDS.name());
+
+            collector.collect(Collections.singletonList(point));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.enrichment.GtinMetadata;
+import com.amazonaws.services.kinesisanalytics.utils.LruCache;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.state.BroadcastState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ReadOnlyBroadcastState;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.co.BroadcastProcessFunction;
+import org.apache.flink.util.Collector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Adds product_id, product_group_id and campaign_id to every point with a gtin, unless the point
+ * already carries them. The products and product groups are held in broadcast state, fed by
+ * {@link GtinMetadata} entries; what a gtin resolves to, including nothing, is kept in a per-subtask
+ * LRU cache that every metadata update clears.
+ */
+public class EnrichPointsWithGtinMetadata extends BroadcastProcessFunction<Collection<TimestreamPoint>, GtinMetadata, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final MapStateDescriptor<String, GtinMetadata> PRODUCTS =
+        new MapStateDescriptor<>("gtin_products", Types.STRING, TypeInformation.of(GtinMetadata.class));
+
+    public static final MapStateDescriptor<String, GtinMetadata> PRODUCT_GROUPS =
+        new MapStateDescriptor<>("gtin_product_groups", Types.STRING, TypeInformation.of(GtinMetadata.class));
+
+    private static final String[] ENRICHED_DIMENSIONS = { "product_id", "product_group_id", "campaign_id" };
+
+    // Cached for gtins without a product, so they are not looked up again.
+    private static final String[] UNKNOWN = new String[0];
+
+    private final int cache_size;
+
+    private transient LruCache<String, String[]> cache;
+
+    private transient Counter cache_hits;
+    private transient Counter cache_misses;
+    private transient Counter unknown_gtins;
+
+    public EnrichPointsWithGtinMetadata(int cache_size) {
+        this.cache_size = cache_size;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        this.cache = new LruCache<>(cache_size);
+
+        MetricGroup metric_group = getRuntimeContext().getMetricGroup().addGroup("enrichment");
+
+        this.cache_hits = metric_group.counter("cache_hits");
+        this.cache_misses = metric_group.counter("cache_misses");
+        this.unknown_gtins = metric_group.counter("unknown_gtins");
+
+        metric_group.gauge("cache_size", () -> cache.size());
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, ReadOnlyContext context, Collector<Collection<TimestreamPoint>> collector) throws Exception {
+        for (TimestreamPoint point : points) {
+            String gtin = point.getDimension("gtin");
+
+            if (gtin == null || gtin.isEmpty()) {
+                continue;
+            }
+
+            String[] values = cache.get(gtin);
+
+            if (values == null) {
+                cache_misses.inc();
+
+                values = resolve(gtin, context.getBroadcastState(PRODUCTS), context.getBroadcastState(PRODUCT_GROUPS));
+
+                cache.put(gtin, values);
+            } else {
+                cache_hits.inc();
+            }
+
+            if (values == UNKNOWN) {
+                unknown_gtins.inc();
+
+                continue;
+            }
+
+            for (int i = 0; i < ENRICHED_DIMENSIONS.length; i++) {
+                if (values[i] != null && point.getDimension(ENRICHED_DIMENSIONS[i]) == null) {
+                    point.addDimension(ENRICHED_DIMENSIONS[i], values[i]);
+                }
+            }
+        }
+
+        collector.collect(points);
+    }
+
+    private static String[] resolve(
+        String gtin,
+        ReadOnlyBroadcastState<String, GtinMetadata> products,
+        ReadOnlyBroadcastState<String, GtinMetadata> product_groups
+    ) throws Exception {
+        GtinMetadata product = products.get(gtin);
+
+        if (product == null) {
+            return UNKNOWN;
+        }
+
+        GtinMetadata product_group = product.getProductGroupId() == null ? null : product_groups.get(product.getProductGroupId());
+
+        return new String[] {
+            product.getProductId(),
+            product.getProductGroupId(),
+            product_group == null ? null : product_group.getCampaignId()
+        };
+    }
+
+    @Override
+    public void processBroadcastElement(GtinMetadata metadata, Context context, Collector<Collection<TimestreamPoint>> collector) throws Exception {
+        switch (metadata.getKind()) {
+            case PRODUCT:
+                context.getBroadcastState(PRODUCTS).put(metadata.key(), metadata);
+                break;
+            case PRODUCT_GROUP:
+                context.getBroadcastState(PRODUCT_GROUPS).put(metadata.key(), metadata);
+                break;
+            case SNAPSHOT_END:
+                removeOlderThan(context.getBroadcastState(PRODUCTS), metadata.getSnapshotVersion());
+                removeOlderThan(context.getBroadcastState(PRODUCT_GROUPS), metadata.getSnapshotVersion());
+                break;
+        }
+
+        cache.clear();
+    }
+
+    private static void removeOlderThan(BroadcastState<String, GtinMetadata> state, long snapshot_version) throws Exception {
+        for (Iterator<Map.Entry<String, GtinMetadata>> iterator = state.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getValue().getSnapshotVersion() < snapshot_version) {
+                iterator.remove();
+            }
+        }
+    }
+}
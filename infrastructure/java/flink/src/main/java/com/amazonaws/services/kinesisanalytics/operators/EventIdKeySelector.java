@@ -0,0 +1,86 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamMeasure;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.functions.KeySelector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * Keys an event by (data_type, id), where the id is the value of a measure such as the
+ * {@code label_measure} that carries the label scan's request_id. Pings are keyed by their time
+ * and time_spent_away as well, see {@link #eventKey}.
+ */
+public class EventIdKeySelector implements KeySelector<Collection<TimestreamPoint>, String> {
+    private static final long serialVersionUID = 1L;
+
+    private static final String PING_DATA_TYPE = "label_scan_ping";
+
+    private final String id_measure_name;
+
+    public EventIdKeySelector(String id_measure_name) {
+        this.id_measure_name = id_measure_name;
+    }
+
+    @Override
+    public String getKey(Collection<TimestreamPoint> points) {
+        String key = eventKey(points, id_measure_name);
+
+        return key == null ? "" : key;
+    }
+
+    /**
+     * The event's key, or null when none of its points carries the id measure. A visit sends
+     * many label_scan_ping events under one request_id, so a ping's key also holds its time and
+     * time_spent_away: distinct pings are kept while a replayed one still matches.
+     */
+    public static String eventKey(Collection<TimestreamPoint> points, String id_measure_name) {
+        String id = eventId(points, id_measure_name);
+
+        if (id == null) {
+            return null;
+        }
+
+        TimestreamPoint point = points.iterator().next();
+        String data_type = point.getDimension("data_type");
+
+        if (!PING_DATA_TYPE.equals(data_type)) {
+            return data_type + '\u0000' + id;
+        }
+
+        return data_type + '\u0000' + id + '\u0000' + point.getTimeMillis() + '\u0000' + point.getDimension("time_spent_away");
+    }
+
+    /** Value of the event's id measure, or null when none of its points carries it. */
+    public static String eventId(Collection<TimestreamPoint> points, String id_measure_name) {
+        for (TimestreamPoint point : points) {
+            String id = null;
+
+            if (id_measure_name.equals(point.getMeasureName())) {
+                id = point.getMeasureValue();
+            }
+
+            for (TimestreamMeasure measure : point.getMeasures()) {
+                if (id_measure_name.equals(measure.getName())) {
+                    id = measure.getValue();
+                }
+            }
+
+            if (id != null) {
+                return id;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.functions.FilterFunction;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Keeps the events of the given data types, read from the first point's data_type dimension. */
+public class FilterDataTypes implements FilterFunction<Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> data_types;
+
+    public FilterDataTypes(List<String> data_types) {
+        this.data_types = new HashSet<>(data_types);
+    }
+
+    @Override
+    public boolean filter(Collection<TimestreamPoint> points) {
+        return !points.isEmpty() && data_types.contains(points.iterator().next().getDimension("data_type"));
+    }
+}
@@ -0,0 +1,57 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.normalization.DimensionNormalizer;
+import com.amazonaws.services.kinesisanalytics.normalization.UserAgentParser;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.MetricGroup;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * Applies the {@link DimensionNormalizer} rules to each event's points. Chained to the parser,
+ * so it costs no extra hop.
+ */
+public class NormalizeDimensions extends RichMapFunction<Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    private final String overrides_json;
+
+    private final int user_agent_cache_size;
+
+    private transient DimensionNormalizer normalizer;
+
+    public NormalizeDimensions(String overrides_json, int user_agent_cache_size) {
+        this.overrides_json = overrides_json;
+        this.user_agent_cache_size = user_agent_cache_size;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        this.normalizer = DimensionNormalizer.load(overrides_json, user_agent_cache_size);
+
+        UserAgentParser user_agent_parser = normalizer.getUserAgentParser();
+        MetricGroup metric_group = getRuntimeContext().getMetricGroup().addGroup("normalization");
+
+        metric_group.gauge("user_agent_cache_hits", user_agent_parser::getCacheHits);
+        metric_group.gauge("user_agent_cache_misses", user_agent_parser::getCacheMisses);
+    }
+
+    @Override
+    public Collection<TimestreamPoint> map(Collection<TimestreamPoint> points) {
+        return normalizer.normalize(points);
+    }
+}
@@ -0,0 +1,30 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.functions.KeySelector;
+
+/**
+ * Keys a point by its series: measure name plus every dimension, in the order the mapping wrote
+ * them. For mrf_scans that is (mrf_id, gtin).
+ */
+public class PointSeriesKeySelector implements KeySelector<TimestreamPoint, String> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String getKey(TimestreamPoint point) {
+        StringBuilder key = new StringBuilder(64).append(point.getMeasureName());
+
+        for (int i = 0; i < point.getDimensionCount(); i++) {
+            key.append('\u0000').append(point.getDimensionName(i)).append('=').append(point.getDimensionValue(i));
+        }
+
+        return key.toString();
+    }
+}
@@ -0,0 +1,48 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
+import org.apache.flink.streaming.api.watermark.Watermark;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * {@link PointsWatermarkGenerator} for the Kinesis consumer, which tracks watermarks per shard and
+ * emits the minimum. The consumer only accepts the legacy periodic assigner interface.
+ */
+@SuppressWarnings("deprecation")
+public class PointsPeriodicWatermarkAssigner implements AssignerWithPeriodicWatermarks<Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    private final PointsTimestampAssigner timestamp_assigner = new PointsTimestampAssigner();
+
+    private final PointsWatermarkGenerator watermarks;
+
+    public PointsPeriodicWatermarkAssigner(long max_out_of_orderness_millis, long future_threshold_millis) {
+        this.watermarks = new PointsWatermarkGenerator(max_out_of_orderness_millis, future_threshold_millis);
+    }
+
+    @Override
+    public long extractTimestamp(Collection<TimestreamPoint> points, long record_timestamp) {
+        long timestamp = timestamp_assigner.extractTimestamp(points, Long.MIN_VALUE);
+
+        watermarks.observe(timestamp);
+
+        return timestamp;
+    }
+
+    @Override
+    public Watermark getCurrentWatermark() {
+        return new Watermark(watermarks.currentWatermark());
+    }
+}
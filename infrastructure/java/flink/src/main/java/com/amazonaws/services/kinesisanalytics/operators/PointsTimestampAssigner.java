@@ -0,0 +1,32 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.eventtime.SerializableTimestampAssigner;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Event time of a parsed event: the time of its first point, which the mapping took from
+ * {@code received_at} or {@code time}. Events without points keep the record's timestamp.
+ */
+public class PointsTimestampAssigner implements SerializableTimestampAssigner<Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public long extractTimestamp(Collection<TimestreamPoint> points, long record_timestamp) {
+        Iterator<TimestreamPoint> iterator = points.iterator();
+
+        return iterator.hasNext() ? iterator.next().getTimeMillis() : record_timestamp;
+    }
+}
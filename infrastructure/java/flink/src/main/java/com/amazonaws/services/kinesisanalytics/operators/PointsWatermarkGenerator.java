@@ -0,0 +1,61 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.eventtime.Watermark;
+import org.apache.flink.api.common.eventtime.WatermarkGenerator;
+import org.apache.flink.api.common.eventtime.WatermarkOutput;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Bounded out-of-orderness watermarks that leave out events dated more than the future threshold
+ * ahead of processing time. {@link RouteOutOfBoundsPoints} dead-letters those points, so letting
+ * them advance the watermark would only make the on-time events after them late.
+ */
+public class PointsWatermarkGenerator implements WatermarkGenerator<Collection<TimestreamPoint>>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long max_out_of_orderness_millis;
+
+    private final long future_threshold_millis;
+
+    private long max_timestamp;
+
+    public PointsWatermarkGenerator(long max_out_of_orderness_millis, long future_threshold_millis) {
+        this.max_out_of_orderness_millis = max_out_of_orderness_millis;
+        this.future_threshold_millis = future_threshold_millis;
+        this.max_timestamp = Long.MIN_VALUE + max_out_of_orderness_millis + 1;
+    }
+
+    @Override
+    public void onEvent(Collection<TimestreamPoint> points, long event_timestamp, WatermarkOutput output) {
+        observe(event_timestamp);
+    }
+
+    @Override
+    public void onPeriodicEmit(WatermarkOutput output) {
+        output.emitWatermark(new Watermark(currentWatermark()));
+    }
+
+    /** Takes an event's timestamp into account unless it is dated too far ahead. */
+    public void observe(long event_timestamp) {
+        if (event_timestamp <= System.currentTimeMillis() + future_threshold_millis) {
+            max_timestamp = Math.max(max_timestamp, event_timestamp);
+        }
+    }
+
+    public long currentWatermark() {
+        return max_timestamp - max_out_of_orderness_millis - 1;
+    }
+}
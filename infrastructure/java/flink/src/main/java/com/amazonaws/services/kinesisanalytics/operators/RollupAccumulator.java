@@ -0,0 +1,36 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+/**
+ * Window state of {@link CountScansAndUsers}: the event count and the HyperLogLog registers of
+ * the users seen. A Flink POJO, so the window state does not fall back to Kryo.
+ */
+public class RollupAccumulator {
+    private long scan_count;
+
+    private byte[] user_registers;
+
+    public RollupAccumulator() {}
+
+    public RollupAccumulator(int hll_precision) {
+        this.user_registers = new byte[1 << hll_precision];
+    }
+
+    public long getScanCount() {
+        return scan_count;
+    }
+
+    public void setScanCount(long scan_count) {
+        this.scan_count = scan_count;
+    }
+
+    public byte[] getUserRegisters() {
+        return user_registers;
+    }
+
+    public void setUserRegisters(byte[] user_registers) {
+        this.user_registers = user_registers;
+    }
+}
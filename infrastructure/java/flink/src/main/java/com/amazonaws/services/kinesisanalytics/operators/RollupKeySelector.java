@@ -0,0 +1,48 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.functions.KeySelector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keys an event by its data_type and the values of the rollup's group dimensions, separated by
+ * {@link #SEPARATOR}; a dimension the event lacks contributes an empty value.
+ * {@link EmitRollupPoint} splits the key back into dimensions.
+ */
+public class RollupKeySelector implements KeySelector<Collection<TimestreamPoint>, String> {
+    private static final long serialVersionUID = 1L;
+
+    static final char SEPARATOR = '\u0000';
+
+    private final List<String> group_dimensions;
+
+    public RollupKeySelector(List<String> group_dimensions) {
+        this.group_dimensions = group_dimensions;
+    }
+
+    @Override
+    public String getKey(Collection<TimestreamPoint> points) {
+        TimestreamPoint point = points.iterator().next();
+        StringBuilder key = new StringBuilder(64).append(point.getDimension("data_type"));
+
+        for (String dimension : group_dimensions) {
+            String value = point.getDimension(dimension);
+
+            key.append(SEPARATOR).append(value == null ? "" : value);
+        }
+
+        return key.toString();
+    }
+}
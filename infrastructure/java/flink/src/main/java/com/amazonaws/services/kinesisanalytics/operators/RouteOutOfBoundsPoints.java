@@ -0,0 +1,88 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Event-time replacement for {@link OffsetFutureTimestreamPoints}: instead of rewriting their
+ * time, points dated too far ahead of processing time go to {@link #FUTURE_POINTS}, and points
+ * older than the current watermark minus the allowed lateness go to {@link #LATE_POINTS}.
+ */
+public class RouteOutOfBoundsPoints extends ProcessFunction<Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final OutputTag<TimestreamPoint> LATE_POINTS = new OutputTag<TimestreamPoint>("late_points") {};
+    public static final OutputTag<TimestreamPoint> FUTURE_POINTS = new OutputTag<TimestreamPoint>("future_points") {};
+
+    private final long allowed_lateness_millis;
+
+    private final long future_threshold_millis;
+
+    private transient Counter late_points;
+    private transient Counter future_points;
+
+    public RouteOutOfBoundsPoints(long allowed_lateness_millis, long future_threshold_millis) {
+        this.allowed_lateness_millis = allowed_lateness_millis;
+        this.future_threshold_millis = future_threshold_millis;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        MetricGroup metric_group = getRuntimeContext().getMetricGroup().addGroup("event_time");
+
+        this.late_points = metric_group.counter("late_points");
+        this.future_points = metric_group.counter("future_points");
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) {
+        long watermark = context.timerService().currentWatermark();
+        long latest_allowed = context.timerService().currentProcessingTime() + future_threshold_millis;
+        long earliest_allowed = watermark == Long.MIN_VALUE ? Long.MIN_VALUE : watermark - allowed_lateness_millis;
+
+        List<TimestreamPoint> in_bounds = null;
+
+        for (TimestreamPoint point : points) {
+            long time = point.getTimeMillis();
+
+            if (time > latest_allowed) {
+                context.output(FUTURE_POINTS, point);
+                future_points.inc();
+            } else if (time < earliest_allowed) {
+                context.output(LATE_POINTS, point);
+                late_points.inc();
+            } else {
+                if (in_bounds == null) {
+                    in_bounds = new ArrayList<>(points.size());
+                }
+
+                in_bounds.add(point);
+            }
+        }
+
+        if (in_bounds != null) {
+            collector.collect(in_bounds);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestream.TimestreamPointCollectionTypeInfo;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each point to the side output of the route its dimension value belongs to, see
+ * {@link #routeTag(String)}; unrouted points stay on the main output. Events whose points all go
+ * the same way, the usual case, are forwarded without being copied.
+ */
+public class RoutePointsToTables extends ProcessFunction<Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    private final String route_dimension;
+
+    private final Map<String, OutputTag<Collection<TimestreamPoint>>> tag_by_value;
+
+    /**
+     * @param route_dimension dimension whose value selects the route
+     * @param route_by_value  route name for each routed value
+     */
+    public RoutePointsToTables(String route_dimension, Map<String, String> route_by_value) {
+        this.route_dimension = route_dimension;
+        this.tag_by_value = new HashMap<>();
+
+        // One tag instance per route, so points of the same route can be compared by reference.
+        Map<String, OutputTag<Collection<TimestreamPoint>>> tag_by_route = new HashMap<>();
+
+        for (Map.Entry<String, String> entry : route_by_value.entrySet()) {
+            tag_by_value.put(entry.getKey(), tag_by_route.computeIfAbsent(entry.getValue(), RoutePointsToTables::routeTag));
+        }
+    }
+
+    public static OutputTag<Collection<TimestreamPoint>> routeTag(String route_name) {
+        return new OutputTag<>("timestream_route_" + route_name, TimestreamPointCollectionTypeInfo.INSTANCE);
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) {
+        if (points.isEmpty()) {
+            return;
+        }
+
+        OutputTag<Collection<TimestreamPoint>> first_tag = null;
+        boolean single_route = true;
+        boolean first = true;
+
+        for (TimestreamPoint point : points) {
+            OutputTag<Collection<TimestreamPoint>> tag = tag_by_value.get(point.getDimension(route_dimension));
+
+            if (first) {
+                first_tag = tag;
+                first = false;
+            } else if (tag != first_tag) {
+                single_route = false;
+
+                break;
+            }
+        }
+
+        if (single_route) {
+            emit(first_tag, points, context, collector);
+
+            return;
+        }
+
+        Map<OutputTag<Collection<TimestreamPoint>>, List<TimestreamPoint>> points_by_tag = new HashMap<>();
+
+        for (TimestreamPoint point : points) {
+            points_by_tag
+                .computeIfAbsent(tag_by_value.get(point.getDimension(route_dimension)), tag -> new ArrayList<>())
+                .add(point);
+        }
+
+        for (Map.Entry<OutputTag<Collection<TimestreamPoint>>, List<TimestreamPoint>> entry : points_by_tag.entrySet()) {
+            emit(entry.getKey(), entry.getValue(), context, collector);
+        }
+    }
+
+    private static void emit(
+        OutputTag<Collection<TimestreamPoint>> tag,
+        Collection<TimestreamPoint> points,
+        Context context,
+        Collector<Collection<TimestreamPoint>> collector
+    ) {
+        if (tag == null) {
+            collector.collect(points);
+        } else {
+            context.output(tag, points);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+/**
+ * Keyed state of {@link StitchSessions}: the time span of a visit's events, its ping count, the
+ * largest time_spent_away reported and the dimensions gathered so far. A Flink POJO, so the
+ * state does not fall back to Kryo.
+ */
+public class SessionAccumulator {
+    private long start_millis;
+    private long end_millis;
+
+    private long ping_count;
+
+    private long time_spent_away;
+
+    private String[] dimension_names;
+    private String[] dimension_values;
+
+    public SessionAccumulator() {}
+
+    public SessionAccumulator(long time_millis) {
+        this.start_millis = time_millis;
+        this.end_millis = time_millis;
+        this.dimension_names = new String[0];
+        this.dimension_values = new String[0];
+    }
+
+    public long getStartMillis() {
+        return start_millis;
+    }
+
+    public void setStartMillis(long start_millis) {
+        this.start_millis = start_millis;
+    }
+
+    public long getEndMillis() {
+        return end_millis;
+    }
+
+    public void setEndMillis(long end_millis) {
+        this.end_millis = end_millis;
+    }
+
+    public long getPingCount() {
+        return ping_count;
+    }
+
+    public void setPingCount(long ping_count) {
+        this.ping_count = ping_count;
+    }
+
+    public long getTimeSpentAway() {
+        return time_spent_away;
+    }
+
+    public void setTimeSpentAway(long time_spent_away) {
+        this.time_spent_away = time_spent_away;
+    }
+
+    public String[] getDimensionNames() {
+        return dimension_names;
+    }
+
+    public void setDimensionNames(String[] dimension_names) {
+        this.dimension_names = dimension_names;
+    }
+
+    public String[] getDimensionValues() {
+        return dimension_values;
+    }
+
+    public void setDimensionValues(String[] dimension_values) {
+        this.dimension_values = dimension_values;
+    }
+}
@@ -0,0 +1,37 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.functions.KeySelector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * Keys an event by its id alone, so a visit's events of every data type meet in one key. See
+ * {@link EventIdKeySelector} for the (data_type, id) key of deduplication.
+ */
+public class SessionIdKeySelector implements KeySelector<Collection<TimestreamPoint>, String> {
+    private static final long serialVersionUID = 1L;
+
+    private final String id_measure_name;
+
+    public SessionIdKeySelector(String id_measure_name) {
+        this.id_measure_name = id_measure_name;
+    }
+
+    @Override
+    public String getKey(Collection<TimestreamPoint> points) {
+        String id = EventIdKeySelector.eventId(points, id_measure_name);
+
+        return id == null ? "" : id;
+    }
+}
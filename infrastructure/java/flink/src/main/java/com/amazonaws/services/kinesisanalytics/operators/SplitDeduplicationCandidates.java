@@ -0,0 +1,53 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Sends events of the configured data types that carry an id to the {@link #CANDIDATES} side
+ * output for deduplication. Everything else passes through unkeyed.
+ */
+public class SplitDeduplicationCandidates extends ProcessFunction<Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final OutputTag<Collection<TimestreamPoint>> CANDIDATES = new OutputTag<Collection<TimestreamPoint>>("deduplication_candidates") {};
+
+    private final Set<String> data_types;
+
+    private final String id_measure_name;
+
+    public SplitDeduplicationCandidates(Collection<String> data_types, String id_measure_name) {
+        this.data_types = new HashSet<>(data_types);
+        this.id_measure_name = id_measure_name;
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) {
+        Iterator<TimestreamPoint> iterator = points.iterator();
+
+        if (iterator.hasNext()
+            && data_types.contains(iterator.next().getDimension("data_type"))
+            && EventIdKeySelector.eventKey(points, id_measure_name) != null) {
+            context.output(CANDIDATES, points);
+        } else {
+            collector.collect(points);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * Copies label_scan, label_scan_ping and label_scan_navigator events that carry an id to the
+ * {@link #SESSION_EVENTS} side output for {@link StitchSessions}. All events pass through, except
+ * pings when they are dropped in favour of the session records.
+ */
+public class SplitSessionEvents extends ProcessFunction<Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final OutputTag<Collection<TimestreamPoint>> SESSION_EVENTS = new OutputTag<Collection<TimestreamPoint>>("session_events") {};
+
+    private final String id_measure_name;
+
+    private final boolean drop_pings;
+
+    public SplitSessionEvents(String id_measure_name, boolean drop_pings) {
+        this.id_measure_name = id_measure_name;
+        this.drop_pings = drop_pings;
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) {
+        String data_type = points.isEmpty() ? null : points.iterator().next().getDimension("data_type");
+
+        if (!StitchSessions.isSessionDataType(data_type) || EventIdKeySelector.eventId(points, id_measure_name) == null) {
+            collector.collect(points);
+
+            return;
+        }
+
+        context.output(SESSION_EVENTS, points);
+
+        if (!drop_pings || !StitchSessions.PING_DATA_TYPE.equals(data_type)) {
+            collector.collect(points);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamMeasure;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sends points of the configured count data types, whose measure values are all integers, to the
+ * {@link #SUMMABLE} side output for windowed pre-aggregation. Everything else passes through.
+ */
+public class SplitSummablePoints extends ProcessFunction<Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final OutputTag<TimestreamPoint> SUMMABLE = new OutputTag<TimestreamPoint>("summable_points") {};
+
+    private final Set<String> data_types;
+
+    public SplitSummablePoints(Collection<String> data_types) {
+        this.data_types = new HashSet<>(data_types);
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) {
+        List<TimestreamPoint> passed_through = null;
+
+        for (TimestreamPoint point : points) {
+            if (isSummable(point)) {
+                context.output(SUMMABLE, point);
+
+                continue;
+            }
+
+            if (passed_through == null) {
+                passed_through = new ArrayList<>(points.size());
+            }
+
+            passed_through.add(point);
+        }
+
+        if (passed_through != null) {
+            collector.collect(passed_through);
+        }
+    }
+
+    private boolean isSummable(TimestreamPoint point) {
+        if (!data_types.contains(point.getDimension("data_type"))) {
+            return false;
+        }
+
+        if (point.getMeasures().isEmpty()) {
+            return isInteger(point.getMeasureValue());
+        }
+
+        for (TimestreamMeasure measure : point.getMeasures()) {
+            if (!isInteger(measure.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isInteger(String value) {
+        if (value == null || value.isEmpty() || value.length() > 18) {
+            return false;
+        }
+
+        for (int i = value.charAt(0) == '-' ? 1 : 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+
+        return !value.equals("-");
+    }
+}
@@ -0,0 +1,233 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds a visit's label_scan, label_scan_ping and label_scan_navigator events, keyed by their
+ * request_id, into one label_scan_session MULTI point once no event arrived for the gap in event
+ * time. The point is dated at the first event and carries the dimensions of all the events (geo
+ * from the scan, device and campaign from the navigator, enrichment and normalization included),
+ * with the request_id and these measures:
+ *
+ * <ul>
+ *   <li>dwell_time: milliseconds from the first to the last event;</li>
+ *   <li>time_away: the largest time_spent_away reported, which pings carry as a running total,
+ *   converted from the configured unit to milliseconds;</li>
+ *   <li>time_on_page: dwell_time less time_away, in milliseconds;</li>
+ *   <li>ping_count: the pings folded in.</li>
+ * </ul>
+ *
+ * <p>Events of a session that was already emitted, i.e. older than the watermark by more than the
+ * gap, are counted as late and left out.
+ */
+public class StitchSessions extends KeyedProcessFunction<String, Collection<TimestreamPoint>, Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final String SCAN_DATA_TYPE = "label_scan";
+    public static final String PING_DATA_TYPE = "label_scan_ping";
+    public static final String NAVIGATOR_DATA_TYPE = "label_scan_navigator";
+    public static final String SESSION_DATA_TYPE = "label_scan_session";
+
+    private static final String TIME_SPENT_AWAY_DIMENSION = "time_spent_away";
+
+    private final String id_measure_name;
+
+    private final long gap_millis;
+
+    private final TimeUnit time_spent_away_unit;
+
+    private transient ValueState<SessionAccumulator> session;
+
+    private transient Counter sessions_emitted;
+    private transient Counter late_events;
+
+    public StitchSessions(String id_measure_name, long gap_millis, TimeUnit time_spent_away_unit) {
+        this.id_measure_name = id_measure_name;
+        this.gap_millis = gap_millis;
+        this.time_spent_away_unit = time_spent_away_unit;
+    }
+
+    public static boolean isSessionDataType(String data_type) {
+        return SCAN_DATA_TYPE.equals(data_type) || PING_DATA_TYPE.equals(data_type) || NAVIGATOR_DATA_TYPE.equals(data_type);
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        this.session = getRuntimeContext().getState(new ValueStateDescriptor<>("session", TypeInformation.of(SessionAccumulator.class)));
+
+        MetricGroup metric_group = getRuntimeContext().getMetricGroup().addGroup("sessions");
+
+        this.sessions_emitted = metric_group.counter("sessions_emitted");
+        this.late_events = metric_group.counter("late_events");
+    }
+
+    @Override
+    public void processElement(Collection<TimestreamPoint> points, Context context, Collector<Collection<TimestreamPoint>> collector) throws Exception {
+        if (points.isEmpty()) {
+            return;
+        }
+
+        TimestreamPoint point = points.iterator().next();
+        long time = point.getTimeMillis();
+        SessionAccumulator accumulator = session.value();
+
+        if (accumulator == null) {
+            if (time + gap_millis <= context.timerService().currentWatermark()) {
+                late_events.inc();
+
+                return;
+            }
+
+            accumulator = new SessionAccumulator(time);
+        } else {
+            context.timerService().deleteEventTimeTimer(accumulator.getEndMillis() + gap_millis);
+        }
+
+        addEvent(accumulator, point);
+
+        session.update(accumulator);
+
+        context.timerService().registerEventTimeTimer(accumulator.getEndMillis() + gap_millis);
+    }
+
+    @Override
+    public void onTimer(long timestamp, OnTimerContext context, Collector<Collection<TimestreamPoint>> collector) throws Exception {
+        SessionAccumulator accumulator = session.value();
+
+        if (accumulator == null || timestamp != accumulator.getEndMillis() + gap_millis) {
+            return;
+        }
+
+        collector.collect(Collections.singletonList(sessionPoint(context.getCurrentKey(), accumulator)));
+        sessions_emitted.inc();
+
+        session.clear();
+    }
+
+    /** Folds an event, given by its first point, into the session. */
+    void addEvent(SessionAccumulator accumulator, TimestreamPoint point) {
+        long time = point.getTimeMillis();
+
+        accumulator.setStartMillis(Math.min(accumulator.getStartMillis(), time));
+        accumulator.setEndMillis(Math.max(accumulator.getEndMillis(), time));
+
+        if (PING_DATA_TYPE.equals(point.getDimension("data_type"))) {
+            accumulator.setPingCount(accumulator.getPingCount() + 1);
+        }
+
+        accumulator.setTimeSpentAway(Math.max(accumulator.getTimeSpentAway(), timeSpentAwayMillis(point)));
+
+        // The event's points share its dimensions, so the first point has them all.
+        addDimensions(accumulator, point);
+    }
+
+    TimestreamPoint sessionPoint(String id, SessionAccumulator accumulator) {
+        TimestreamPoint point = new TimestreamPoint();
+
+        point.addDimension("data_type", SESSION_DATA_TYPE);
+
+        for (int i = 0; i < accumulator.getDimensionNames().length; i++) {
+            point.addDimension(accumulator.getDimensionNames()[i], accumulator.getDimensionValues()[i]);
+        }
+
+        long dwell_time = accumulator.getEndMillis() - accumulator.getStartMillis();
+
+        point.setMeasureName(SESSION_DATA_TYPE);
+        point.setMeasureValueType(MeasureValueType.MULTI);
+        point.addMeasure(id_measure_name, id, MeasureValueType.VARCHAR);
+        point.addMeasure("dwell_time", String.valueOf(dwell_time), MeasureValueType.BIGINT);
+        point.addMeasure("time_away", String.valueOf(accumulator.getTimeSpentAway()), MeasureValueType.BIGINT);
+        point.addMeasure("time_on_page", String.valueOf(Math.max(0, dwell_time - accumulator.getTimeSpentAway())), MeasureValueType.BIGINT);
+        point.addMeasure("ping_count", String.valueOf(accumulator.getPingCount()), MeasureValueType.BIGINT);
+        point.setTime(accumulator.getStartMillis());
+        point.setTimeUnit(TimeUnit.MILLISECONDS.name());
+
+        return point;
+    }
+
+    /** Adds the dimensions the session does not have yet; the first value seen for a name is kept. */
+    private static void addDimensions(SessionAccumulator accumulator, TimestreamPoint point) {
+        String[] names = accumulator.getDimensionNames();
+        String[] values = accumulator.getDimensionValues();
+        int count = names.length;
+
+        for (int i = 0; i < point.getDimensionCount(); i++) {
+            String name = point.getDimensionName(i);
+
+            if (name.equals("data_type") || name.equals(TIME_SPENT_AWAY_DIMENSION) || indexOf(names, count, name) >= 0) {
+                continue;
+            }
+
+            if (count == names.length) {
+                names = Arrays.copyOf(names, count + point.getDimensionCount());
+                values = Arrays.copyOf(values, count + point.getDimensionCount());
+            }
+
+            names[count] = name;
+            values[count] = point.getDimensionValue(i);
+            count++;
+        }
+
+        if (count != accumulator.getDimensionNames().length) {
+            accumulator.setDimensionNames(Arrays.copyOf(names, count));
+            accumulator.setDimensionValues(Arrays.copyOf(values, count));
+        }
+    }
+
+    private static int indexOf(String[] names, int count, String name) {
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /** time_spent_away in milliseconds; values that are not numbers count as 0. */
+    private long timeSpentAwayMillis(TimestreamPoint point) {
+        String value = point.getDimension(TIME_SPENT_AWAY_DIMENSION);
+
+        if (value == null) {
+            return 0;
+        }
+
+        try {
+            BigDecimal millis = new BigDecimal(value.trim())
+                .multiply(BigDecimal.valueOf(time_spent_away_unit.toNanos(1)))
+                .divide(BigDecimal.valueOf(TimeUnit.MILLISECONDS.toNanos(1)), 0, RoundingMode.HALF_UP);
+
+            return Math.max(0, millis.longValueExact());
+        } catch (ArithmeticException | NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestream.TimestreamPointSerializer;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.functions.AggregateFunction;
+
+/**
+ * Sums the integer measure values of points of one series. The accumulator is the first point
+ * seen, with its values replaced by the running sums; points with no measure name mark an empty
+ * accumulator.
+ */
+public class SumPointMeasures implements AggregateFunction<TimestreamPoint, TimestreamPoint, TimestreamPoint> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public TimestreamPoint createAccumulator() {
+        return new TimestreamPoint();
+    }
+
+    @Override
+    public TimestreamPoint add(TimestreamPoint point, TimestreamPoint accumulator) {
+        if (accumulator.getMeasureName() == null) {
+            return TimestreamPointSerializer.INSTANCE.copy(point);
+        }
+
+        if (accumulator.getMeasures().isEmpty()) {
+            accumulator.setMeasureValue(sum(accumulator.getMeasureValue(), point.getMeasureValue()));
+
+            return accumulator;
+        }
+
+        for (int i = 0; i < accumulator.getMeasures().size(); i++) {
+            String name = accumulator.getMeasures().get(i).getName();
+
+            for (int j = 0; j < point.getMeasures().size(); j++) {
+                if (name.equals(point.getMeasures().get(j).getName())) {
+                    accumulator.setMeasureValue(i, sum(accumulator.getMeasures().get(i).getValue(), point.getMeasures().get(j).getValue()));
+
+                    break;
+                }
+            }
+        }
+
+        return accumulator;
+    }
+
+    @Override
+    public TimestreamPoint getResult(TimestreamPoint accumulator) {
+        return accumulator;
+    }
+
+    @Override
+    public TimestreamPoint merge(TimestreamPoint a, TimestreamPoint b) {
+        return b.getMeasureName() == null ? a : add(b, a);
+    }
+
+    private static String sum(String a, String b) {
+        return String.valueOf(Long.parseLong(a) + Long.parseLong(b));
+    }
+}
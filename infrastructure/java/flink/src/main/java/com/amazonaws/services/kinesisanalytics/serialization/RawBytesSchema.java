@@ -0,0 +1,19 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.serialization;
+
+import org.apache.flink.api.common.serialization.AbstractDeserializationSchema;
+
+/**
+ * Hands the Kinesis record payload through untouched so the parser can read the bytes directly
+ * instead of going through an intermediate String.
+ */
+public class RawBytesSchema extends AbstractDeserializationSchema<byte[]> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public byte[] deserialize(byte[] message) {
+        return message;
+    }
+}
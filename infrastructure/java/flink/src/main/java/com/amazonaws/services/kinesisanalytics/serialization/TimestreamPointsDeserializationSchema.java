@@ -0,0 +1,65 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.serialization;
+
+import com.amazonaws.services.kinesisanalytics.mapping.TimestreamPayloadParser;
+import com.amazonaws.services.timestream.TimestreamPoint;
+import com.amazonaws.services.timestream.TimestreamPointCollectionTypeInfo;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.streaming.connectors.kinesis.serialization.KinesisDeserializationSchema;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Parses Kinesis records into points inside the source, skipping the separate parse operator and
+ * the record hand-over to it. Events without a time fall back to the record's approximate
+ * arrival time instead of the wall clock at parse time.
+ */
+public class TimestreamPointsDeserializationSchema implements KinesisDeserializationSchema<Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    private final TimestreamPayloadParser parser;
+
+    /**
+     * @see TimestreamPayloadParser#TimestreamPayloadParser(String, int, boolean)
+     */
+    public TimestreamPointsDeserializationSchema(String mapping_overrides_json, int log_records_per_second, boolean multi_measure_records) {
+        this.parser = new TimestreamPayloadParser(mapping_overrides_json, log_records_per_second, multi_measure_records);
+    }
+
+    @Override
+    public void open(DeserializationSchema.InitializationContext context) throws Exception {
+        parser.open(context.getMetricGroup());
+    }
+
+    @Override
+    public Collection<TimestreamPoint> deserialize(
+        byte[] record_value,
+        String partition_key,
+        String sequence_number,
+        long approximate_arrival_timestamp,
+        String stream,
+        String shard_id
+    ) throws IOException {
+        try {
+            return parser.parse(record_value, approximate_arrival_timestamp);
+        } catch (RuntimeException err) {
+            throw new IOException("Malformed record " + sequence_number + " in " + stream + "/" + shard_id, err);
+        }
+    }
+
+    @Override
+    public TypeInformation<Collection<TimestreamPoint>> getProducedType() {
+        return TimestreamPointCollectionTypeInfo.INSTANCE;
+    }
+}
@@ -0,0 +1,81 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+/**
+ * Fixed-size bloom filter over Strings, sized from the expected number of keys and the accepted
+ * false positive rate. Uses double hashing of two 64-bit string hashes.
+ *
+ * <p>Instances are not thread-safe; keep one per operator instance.
+ */
+public final class BloomFilter {
+    private final long[] bits;
+    private final long bit_count;
+    private final int hash_count;
+
+    public BloomFilter(long expected_keys, double false_positive_rate) {
+        if (expected_keys < 1 || false_positive_rate <= 0 || false_positive_rate >= 1) {
+            throw new IllegalArgumentException("BloomFilter needs expected_keys >= 1 and 0 < false_positive_rate < 1");
+        }
+
+        long optimal_bits = (long) Math.ceil(-expected_keys * Math.log(false_positive_rate) / (Math.log(2) * Math.log(2)));
+
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (optimal_bits + 63) / 64)];
+        this.bit_count = bits.length * 64L;
+        this.hash_count = Math.max(1, (int) Math.round((double) bit_count / expected_keys * Math.log(2)));
+    }
+
+    public void add(String key) {
+        long hash1 = hash1(key);
+        long hash2 = hash2(key);
+
+        for (int i = 0; i < hash_count; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bit_count);
+
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /** False means the key was never added; true means it probably was. */
+    public boolean mightContain(String key) {
+        long hash1 = hash1(key);
+        long hash2 = hash2(key);
+
+        for (int i = 0; i < hash_count; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bit_count);
+
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long hash1(String key) {
+        return mix(key.hashCode() * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long hash2(String key) {
+        // FNV-1a over the UTF-16 code units, made odd so the probe sequence covers the table.
+        long hash = 0xCBF29CE484222325L;
+
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+
+        return mix(hash) | 1L;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+
+        return value;
+    }
+}
@@ -0,0 +1,422 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable tokenizer for the flat JSON objects the Lambdas put on the analytics stream.
+ *
+ * <p>{@link #reset(byte[])} indexes the top-level fields of a payload in a single pass, storing
+ * only offsets into the byte array. Values are materialized as Strings on demand, so fields a
+ * mapping does not need cost nothing beyond the scan. Nested objects and arrays are kept as raw
+ * JSON text. Keys are matched against ASCII names without allocating; a key repeated in a payload
+ * resolves to its last occurrence, as with Gson's {@code JsonObject}. Anything but whitespace after
+ * the object is rejected as malformed.
+ *
+ * <p>Instances are not thread-safe; keep one per operator instance.
+ */
+public final class FlatJsonReader {
+    private static final int INITIAL_FIELD_CAPACITY = 32;
+
+    private static final byte KIND_STRING = 1;
+    private static final byte KIND_ESCAPED_STRING = 2;
+    private static final byte KIND_LITERAL = 3;
+    private static final byte KIND_NULL = 4;
+    private static final byte KIND_STRUCTURE = 5;
+
+    private byte[] buffer;
+    private int field_count;
+
+    private int[] key_start = new int[INITIAL_FIELD_CAPACITY];
+    private int[] key_end = new int[INITIAL_FIELD_CAPACITY];
+    private boolean[] key_escaped = new boolean[INITIAL_FIELD_CAPACITY];
+    private int[] value_start = new int[INITIAL_FIELD_CAPACITY];
+    private int[] value_end = new int[INITIAL_FIELD_CAPACITY];
+    private byte[] value_kind = new byte[INITIAL_FIELD_CAPACITY];
+
+    public FlatJsonReader reset(byte[] bytes) {
+        this.buffer = bytes;
+        this.field_count = 0;
+
+        int position = expect(skipWhitespace(0), '{');
+
+        position = skipWhitespace(position);
+
+        if (peek(position) == '}') {
+            return expectEnd(position + 1);
+        }
+
+        while (true) {
+            ensureCapacity();
+
+            position = expect(position, '"');
+
+            int index = field_count;
+            key_start[index] = position;
+            position = scanString(position);
+            key_end[index] = position;
+            key_escaped[index] = containsEscape(key_start[index], key_end[index]);
+
+            position = skipWhitespace(expect(skipWhitespace(position + 1), ':'));
+            position = scanValue(index, position);
+
+            field_count++;
+
+            position = skipWhitespace(position);
+
+            byte separator = peek(position);
+
+            if (separator == ',') {
+                position = skipWhitespace(position + 1);
+            } else if (separator == '}') {
+                return expectEnd(position + 1);
+            } else {
+                throw malformed(position);
+            }
+        }
+    }
+
+    public int size() {
+        return field_count;
+    }
+
+    /** Index of the last field named {@code key}, or -1 when absent. */
+    public int find(String key) {
+        int key_length = key.length();
+
+        for (int i = field_count - 1; i >= 0; i--) {
+            if (key_escaped[i]) {
+                if (key.equals(key(i))) {
+                    return i;
+                }
+
+                continue;
+            }
+
+            if (key_end[i] - key_start[i] != key_length) {
+                continue;
+            }
+
+            int offset = key_start[i];
+            int j = 0;
+
+            while (j < key_length && buffer[offset + j] == key.charAt(j)) {
+                j++;
+            }
+
+            if (j == key_length) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean has(String key) {
+        return find(key) >= 0;
+    }
+
+    public String key(int index) {
+        return decode(key_start[index], key_end[index], key_escaped[index]);
+    }
+
+    /** Value of the field as a String (numbers and booleans as their JSON text), or null. */
+    public String string(int index) {
+        if (index < 0) {
+            return null;
+        }
+
+        switch (value_kind[index]) {
+            case KIND_NULL:
+                return null;
+            case KIND_ESCAPED_STRING:
+                return decode(value_start[index], value_end[index], true);
+            default:
+                return decode(value_start[index], value_end[index], false);
+        }
+    }
+
+    public String string(String key) {
+        return string(find(key));
+    }
+
+    /** True when the field is present, not null and not the empty string. */
+    public boolean isPresent(int index) {
+        return index >= 0 && value_kind[index] != KIND_NULL && value_end[index] > value_start[index];
+    }
+
+    /** Compares the raw value against an ASCII literal without allocating. */
+    public boolean valueEquals(int index, String expected) {
+        if (index < 0 || value_kind[index] == KIND_NULL || value_kind[index] == KIND_ESCAPED_STRING) {
+            return index >= 0 && expected.equals(string(index));
+        }
+
+        int length = value_end[index] - value_start[index];
+
+        if (length != expected.length()) {
+            return false;
+        }
+
+        for (int j = 0; j < length; j++) {
+            if (buffer[value_start[index] + j] != expected.charAt(j)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /** Parses an integral number or numeric string in place; throws like {@link Long#parseLong}. */
+    public long parseLong(int index) {
+        if (index < 0 || value_kind[index] == KIND_NULL) {
+            throw new NumberFormatException("null");
+        }
+
+        int position = value_start[index];
+        int end = value_end[index];
+
+        if (position == end || value_kind[index] == KIND_ESCAPED_STRING || value_kind[index] == KIND_STRUCTURE) {
+            return Long.parseLong(string(index));
+        }
+
+        boolean negative = buffer[position] == '-';
+
+        if (negative) {
+            position++;
+        }
+
+        if (position == end || end - position > 18) {
+            return Long.parseLong(string(index));
+        }
+
+        long value = 0;
+
+        for (; position < end; position++) {
+            int digit = buffer[position] - '0';
+
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(string(index));
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return negative ? -value : value;
+    }
+
+    private int scanValue(int index, int position) {
+        byte first = peek(position);
+
+        if (first == '"') {
+            int start = position + 1;
+            int end = scanString(start);
+
+            value_start[index] = start;
+            value_end[index] = end;
+            value_kind[index] = containsEscape(start, end) ? KIND_ESCAPED_STRING : KIND_STRING;
+
+            return end + 1;
+        }
+
+        if (first == '{' || first == '[') {
+            int end = skipStructure(position);
+
+            value_start[index] = position;
+            value_end[index] = end;
+            value_kind[index] = KIND_STRUCTURE;
+
+            return end;
+        }
+
+        int end = position;
+
+        while (end < buffer.length) {
+            byte current = buffer[end];
+
+            if (current == ',' || current == '}' || isWhitespace(current)) {
+                break;
+            }
+
+            end++;
+        }
+
+        if (end == position) {
+            throw malformed(position);
+        }
+
+        value_start[index] = position;
+        value_end[index] = end;
+        value_kind[index] = (end - position == 4
+            && buffer[position] == 'n'
+            && buffer[position + 1] == 'u'
+            && buffer[position + 2] == 'l'
+            && buffer[position + 3] == 'l') ? KIND_NULL : KIND_LITERAL;
+
+        return end;
+    }
+
+    /** Returns the offset of the closing quote of a string whose content starts at {@code position}. */
+    private int scanString(int position) {
+        while (position < buffer.length) {
+            byte current = buffer[position];
+
+            if (current == '\\') {
+                position += 2;
+            } else if (current == '"') {
+                return position;
+            } else {
+                position++;
+            }
+        }
+
+        throw malformed(position);
+    }
+
+    private int skipStructure(int position) {
+        int depth = 0;
+
+        while (position < buffer.length) {
+            byte current = buffer[position];
+
+            if (current == '"') {
+                position = scanString(position + 1) + 1;
+
+                continue;
+            }
+
+            if (current == '{' || current == '[') {
+                depth++;
+            } else if (current == '}' || current == ']') {
+                depth--;
+
+                if (depth == 0) {
+                    return position + 1;
+                }
+            }
+
+            position++;
+        }
+
+        throw malformed(position);
+    }
+
+    private boolean containsEscape(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == '\\') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private String decode(int start, int end, boolean escaped) {
+        String raw = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+
+        return escaped ? unescape(raw) : raw;
+    }
+
+    private static String unescape(String raw) {
+        StringBuilder builder = new StringBuilder(raw.length());
+
+        for (int i = 0; i < raw.length(); i++) {
+            char current = raw.charAt(i);
+
+            if (current != '\\' || i + 1 >= raw.length()) {
+                builder.append(current);
+
+                continue;
+            }
+
+            char escaped = raw.charAt(++i);
+
+            switch (escaped) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= raw.length()) {
+                        throw new IllegalArgumentException("Malformed unicode escape in JSON string");
+                    }
+
+                    builder.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default:
+                    builder.append(escaped);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < buffer.length && isWhitespace(buffer[position])) {
+            position++;
+        }
+
+        return position;
+    }
+
+    private static boolean isWhitespace(byte current) {
+        return current == ' ' || current == '\n' || current == '\r' || current == '\t';
+    }
+
+    private byte peek(int position) {
+        if (position >= buffer.length) {
+            throw malformed(position);
+        }
+
+        return buffer[position];
+    }
+
+    private int expect(int position, char expected) {
+        if (peek(position) != expected) {
+            throw malformed(position);
+        }
+
+        return position + 1;
+    }
+
+    private FlatJsonReader expectEnd(int position) {
+        if (skipWhitespace(position) != buffer.length) {
+            throw malformed(position);
+        }
+
+        return this;
+    }
+
+    private void ensureCapacity() {
+        if (field_count < key_start.length) {
+            return;
+        }
+
+        int capacity = key_start.length * 2;
+
+        key_start = Arrays.copyOf(key_start, capacity);
+        key_end = Arrays.copyOf(key_end, capacity);
+        key_escaped = Arrays.copyOf(key_escaped, capacity);
+        value_start = Arrays.copyOf(value_start, capacity);
+        value_end = Arrays.copyOf(value_end, capacity);
+        value_kind = Arrays.copyOf(value_kind, capacity);
+    }
+
+    private IllegalArgumentException malformed(int position) {
+        return new IllegalArgumentException("Malformed JSON object at offset " + position);
+    }
+}
@@ -0,0 +1,200 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct-count sketch over Strings, with 2^precision one-byte registers and linear
+ * counting for small cardinalities. Sketches of the same precision merge by register-wise max, so
+ * per-minute sketches can be combined into any coarser bucket. The standard error is about
+ * 1.04 / sqrt(2^precision), 2.3% at precision 11.
+ *
+ * <p>{@link #toBytes()} packs the registers into 6 bits each, which keeps a precision 11 sketch
+ * within a 2 KB Timestream VARCHAR once base64 encoded.
+ *
+ * <p>Instances are not thread-safe; keep one per operator instance.
+ */
+public final class HyperLogLog {
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final int BITS_PER_REGISTER = 6;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        this(precision, new byte[1 << checkPrecision(precision)]);
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    /** Wraps existing registers, e.g. a window accumulator's; updates write through to them. */
+    public static HyperLogLog wrap(byte[] registers) {
+        int precision = Integer.numberOfTrailingZeros(registers.length);
+
+        if (registers.length != 1 << checkPrecision(precision)) {
+            throw new IllegalArgumentException("HyperLogLog needs a power of two registers, got " + registers.length);
+        }
+
+        return new HyperLogLog(precision, registers);
+    }
+
+    private static int checkPrecision(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ", got " + precision);
+        }
+
+        return precision;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    /** Whether nothing was added; every added value sets a register to at least 1. */
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+
+        // Rank of the first set bit in the remaining 64 - precision bits, capped when they are all zero.
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of precision " + precision + " and " + other.precision);
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /** The registers packed into 6 bits each, most significant bit first. */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[(registers.length * BITS_PER_REGISTER + 7) / 8];
+        int bit = 0;
+
+        for (byte register : registers) {
+            for (int i = BITS_PER_REGISTER - 1; i >= 0; i--, bit++) {
+                if ((register & (1 << i)) != 0) {
+                    bytes[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+                }
+            }
+        }
+
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(int precision, byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+
+        if (bytes.length != (sketch.registers.length * BITS_PER_REGISTER + 7) / 8) {
+            throw new IllegalArgumentException("Expected a packed precision " + precision + " sketch, got " + bytes.length + " bytes");
+        }
+
+        int bit = 0;
+
+        for (int index = 0; index < sketch.registers.length; index++) {
+            int register = 0;
+
+            for (int i = 0; i < BITS_PER_REGISTER; i++, bit++) {
+                register = (register << 1) | ((bytes[bit >>> 3] >>> (7 - (bit & 7))) & 1);
+            }
+
+            sketch.registers[index] = (byte) register;
+        }
+
+        return sketch;
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the UTF-16 code units, then a finalizer so the high bits are well mixed.
+        long hash = 0xCBF29CE484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HyperLogLog && Arrays.equals(registers, ((HyperLogLog) other).registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+}
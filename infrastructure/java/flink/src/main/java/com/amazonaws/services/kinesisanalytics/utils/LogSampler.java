@@ -0,0 +1,38 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+import java.io.Serializable;
+
+/**
+ * Caps per-record logging to a number of lines per second. A rate of zero (the default in
+ * StreamingJob) disables per-record logging entirely.
+ */
+public final class LogSampler implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int lines_per_second;
+
+    private long window_start_millis;
+    private int lines_in_window;
+
+    public LogSampler(int lines_per_second) {
+        this.lines_per_second = lines_per_second;
+    }
+
+    public synchronized boolean shouldLog() {
+        if (lines_per_second <= 0) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (now - window_start_millis >= 1000L) {
+            window_start_millis = now;
+            lines_in_window = 0;
+        }
+
+        return lines_in_window++ < lines_per_second;
+    }
+}
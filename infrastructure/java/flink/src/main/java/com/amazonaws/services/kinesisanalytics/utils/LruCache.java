@@ -0,0 +1,28 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Access-ordered map that evicts its least recently used entry beyond max_entries. Not
+ * thread-safe; keep one per operator instance.
+ */
+public final class LruCache<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    private final int max_entries;
+
+    public LruCache(int max_entries) {
+        super(16, 0.75f, true);
+
+        this.max_entries = max_entries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > max_entries;
+    }
+}
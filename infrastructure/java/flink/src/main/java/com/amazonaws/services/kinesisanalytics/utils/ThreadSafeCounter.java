@@ -0,0 +1,41 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+import org.apache.flink.metrics.Counter;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Counter that may be updated from async client callback threads. */
+public final class ThreadSafeCounter implements Counter {
+    private final AtomicLong count = new AtomicLong();
+
+    @Override
+    public void inc() {
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void inc(long n) {
+        count.addAndGet(n);
+    }
+
+    @Override
+    public void dec() {
+        count.decrementAndGet();
+    }
+
+    @Override
+    public void dec(long n) {
+        count.addAndGet(-n);
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+}
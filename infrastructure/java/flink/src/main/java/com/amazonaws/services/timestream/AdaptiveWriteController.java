@@ -0,0 +1,120 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+/**
+ * AIMD control of the sink's batch size and in-flight request limit. Write callbacks report
+ * latency, throttling and whether the limits were reached; once per interval the task thread
+ * calls {@link #adjust()}, which
+ * <ul>
+ *   <li>after throttling shrinks the in-flight limit by a quarter, or the batch size once the
+ *       limit is at its minimum (with blocking writes the batch size is the only lever on the
+ *       write rate),</li>
+ *   <li>after an average latency above the target shrinks the batch size by a quarter,</li>
+ *   <li>otherwise grows each limit that was actually reached, by {@link #BATCH_SIZE_INCREMENT}
+ *       records or one request.</li>
+ * </ul>
+ * Halving, as TCP does, left the sink well below a table's capacity in load tests against the
+ * stub writer, as every subtask backs off on its own. Without adaptive writes the bounds collapse
+ * onto the configured values, so nothing moves.
+ */
+final class AdaptiveWriteController {
+    static final int BATCH_SIZE_INCREMENT = 5;
+
+    private final int min_batch_size;
+    private final int max_batch_size;
+    private final int min_in_flight_requests;
+    private final int max_in_flight_requests;
+    private final long target_latency_millis;
+
+    // Written on the task thread by adjust(), read by the metric reporter.
+    private volatile int batch_size;
+    private volatile int in_flight_limit;
+
+    // Signals since the last adjust(), guarded by this.
+    private int writes_completed;
+    private long write_latency_sum_millis;
+    private boolean throttled;
+    private boolean batch_size_reached;
+    private boolean in_flight_limit_reached;
+
+    AdaptiveWriteController(TimestreamSinkConfig config) {
+        int max_in_flight_requests = config.isAsyncWrites() ? config.getMaxInFlightRequests() : 1;
+
+        if (config.isAdaptiveWrites()) {
+            this.min_batch_size = config.getAdaptiveMinBatchSize();
+            this.max_batch_size = config.getAdaptiveMaxBatchSize();
+            this.min_in_flight_requests = Math.min(config.getAdaptiveMinInFlightRequests(), max_in_flight_requests);
+        } else {
+            this.min_batch_size = config.getBatchSize();
+            this.max_batch_size = config.getBatchSize();
+            this.min_in_flight_requests = max_in_flight_requests;
+        }
+
+        this.max_in_flight_requests = max_in_flight_requests;
+        this.target_latency_millis = config.getAdaptiveTargetLatencyMillis();
+
+        this.batch_size = Math.max(min_batch_size, Math.min(max_batch_size, config.getBatchSize()));
+        this.in_flight_limit = max_in_flight_requests;
+    }
+
+    int getBatchSize() {
+        return batch_size;
+    }
+
+    int getInFlightLimit() {
+        return in_flight_limit;
+    }
+
+    synchronized void batchSent(int size) {
+        if (size >= batch_size) {
+            batch_size_reached = true;
+        }
+    }
+
+    synchronized void inFlightLimitReached() {
+        in_flight_limit_reached = true;
+    }
+
+    synchronized void writeCompleted(long latency_millis) {
+        writes_completed++;
+        write_latency_sum_millis += latency_millis;
+    }
+
+    synchronized void throttled() {
+        throttled = true;
+    }
+
+    /** Applies the signals gathered since the last call; returns whether a limit changed. */
+    synchronized boolean adjust() {
+        int previous_batch_size = batch_size;
+        int previous_in_flight_limit = in_flight_limit;
+
+        if (throttled) {
+            if (in_flight_limit > min_in_flight_requests) {
+                in_flight_limit = Math.max(min_in_flight_requests, in_flight_limit * 3 / 4);
+            } else {
+                batch_size = Math.max(min_batch_size, batch_size * 3 / 4);
+            }
+        } else if (writes_completed > 0 && write_latency_sum_millis / writes_completed > target_latency_millis) {
+            batch_size = Math.max(min_batch_size, batch_size * 3 / 4);
+        } else {
+            if (batch_size_reached) {
+                batch_size = Math.min(max_batch_size, batch_size + BATCH_SIZE_INCREMENT);
+            }
+
+            if (in_flight_limit_reached) {
+                in_flight_limit = Math.min(max_in_flight_requests, in_flight_limit + 1);
+            }
+        }
+
+        writes_completed = 0;
+        write_latency_sum_millis = 0;
+        throttled = false;
+        batch_size_reached = false;
+        in_flight_limit_reached = false;
+
+        return batch_size != previous_batch_size || in_flight_limit != previous_in_flight_limit;
+    }
+}
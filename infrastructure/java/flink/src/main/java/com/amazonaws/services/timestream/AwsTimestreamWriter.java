@@ -0,0 +1,76 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.timestreamwrite.AmazonTimestreamWrite;
+import com.amazonaws.services.timestreamwrite.AmazonTimestreamWriteAsync;
+import com.amazonaws.services.timestreamwrite.AmazonTimestreamWriteAsyncClientBuilder;
+import com.amazonaws.services.timestreamwrite.AmazonTimestreamWriteClientBuilder;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsRequest;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsResult;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.concurrent.Executors;
+
+/**
+ * Writes to Amazon Timestream in the sink's region, through the async client when async writes
+ * are enabled and the blocking one otherwise.
+ */
+public class AwsTimestreamWriter implements TimestreamWriter {
+    private static final long serialVersionUID = 1L;
+
+    private transient AmazonTimestreamWrite aws_timestream_write_client;
+
+    private transient AmazonTimestreamWriteAsync aws_timestream_write_async_client;
+
+    @Override
+    public void open(TimestreamSinkConfig config) {
+        final ClientConfiguration client_configuration = new ClientConfiguration()
+                .withMaxConnections(5000)
+                .withRequestTimeout(20 * 1000)
+                .withMaxErrorRetry(config.getSdkMaxErrorRetry());
+
+        if (config.isAsyncWrites()) {
+            final int max_in_flight_requests = config.getMaxInFlightRequests();
+
+            this.aws_timestream_write_async_client = AmazonTimestreamWriteAsyncClientBuilder
+                    .standard()
+                    .withRegion(config.getRegion())
+                    .withClientConfiguration(client_configuration)
+                    .withExecutorFactory(() -> Executors.newFixedThreadPool(max_in_flight_requests))
+                    .build();
+        } else {
+            this.aws_timestream_write_client = AmazonTimestreamWriteClientBuilder
+                    .standard()
+                    .withRegion(config.getRegion())
+                    .withClientConfiguration(client_configuration)
+                    .build();
+        }
+    }
+
+    @Override
+    public WriteRecordsResult writeRecords(WriteRecordsRequest request) {
+        return aws_timestream_write_client.writeRecords(request);
+    }
+
+    @Override
+    public void writeRecordsAsync(WriteRecordsRequest request, AsyncHandler<WriteRecordsRequest, WriteRecordsResult> handler) {
+        aws_timestream_write_async_client.writeRecordsAsync(request, handler);
+    }
+
+    @Override
+    public void close() {
+        if (aws_timestream_write_async_client != null) {
+            aws_timestream_write_async_client.shutdown();
+        }
+
+        if (aws_timestream_write_client != null) {
+            aws_timestream_write_client.shutdown();
+        }
+    }
+}
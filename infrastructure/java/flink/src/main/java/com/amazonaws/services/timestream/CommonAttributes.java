@@ -0,0 +1,127 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.Dimension;
+import com.amazonaws.services.timestreamwrite.model.Record;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Moves the attributes every record of a batch shares (dimensions, time unit, measure name and
+ * type, time) into a single {@code CommonAttributes} record, so each one only carries what
+ * differs. Records keep their order, so rejected record indexes still point at the same points.
+ */
+final class CommonAttributes {
+
+    private CommonAttributes() {}
+
+    /**
+     * Strips the shared attributes from {@code records} in place and returns them as a record,
+     * or null when the records share nothing.
+     */
+    static Record extract(List<Record> records) {
+        if (records.size() < 2) {
+            return null;
+        }
+
+        Record first = records.get(0);
+        Map<String, Dimension> shared_dimensions = new LinkedHashMap<>();
+
+        for (Dimension dimension : first.getDimensions()) {
+            if (dimension.getValue() != null) {
+                shared_dimensions.put(dimension.getName(), dimension);
+            }
+        }
+
+        String time_unit = first.getTimeUnit();
+        String time = first.getTime();
+        String measure_name = first.getMeasureName();
+        String measure_value_type = first.getMeasureValueType();
+
+        for (int i = 1; i < records.size(); i++) {
+            Record record = records.get(i);
+
+            if (!shared_dimensions.isEmpty()) {
+                retainDimensions(shared_dimensions, record.getDimensions());
+            }
+
+            time_unit = Objects.equals(time_unit, record.getTimeUnit()) ? time_unit : null;
+            time = Objects.equals(time, record.getTime()) ? time : null;
+            measure_name = Objects.equals(measure_name, record.getMeasureName()) ? measure_name : null;
+            measure_value_type = Objects.equals(measure_value_type, record.getMeasureValueType()) ? measure_value_type : null;
+        }
+
+        if (shared_dimensions.isEmpty() && time_unit == null && time == null && measure_name == null && measure_value_type == null) {
+            return null;
+        }
+
+        for (Record record : records) {
+            if (!shared_dimensions.isEmpty()) {
+                List<Dimension> remaining = new ArrayList<>(record.getDimensions().size() - shared_dimensions.size());
+
+                for (Dimension dimension : record.getDimensions()) {
+                    if (!shared_dimensions.containsKey(dimension.getName())) {
+                        remaining.add(dimension);
+                    }
+                }
+
+                record.setDimensions(remaining);
+            }
+
+            if (time_unit != null) {
+                record.setTimeUnit(null);
+            }
+
+            if (time != null) {
+                record.setTime(null);
+            }
+
+            if (measure_name != null) {
+                record.setMeasureName(null);
+            }
+
+            if (measure_value_type != null) {
+                record.setMeasureValueType((String) null);
+            }
+        }
+
+        return new Record()
+            .withDimensions(new ArrayList<>(shared_dimensions.values()))
+            .withTimeUnit(time_unit)
+            .withTime(time)
+            .withMeasureName(measure_name)
+            .withMeasureValueType(measure_value_type);
+    }
+
+    private static void retainDimensions(Map<String, Dimension> shared_dimensions, List<Dimension> dimensions) {
+        Iterator<Map.Entry<String, Dimension>> iterator = shared_dimensions.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Dimension shared = iterator.next().getValue();
+            boolean found = false;
+
+            for (Dimension dimension : dimensions) {
+                if (shared.getName().equals(dimension.getName())) {
+                    found = shared.getValue().equals(dimension.getValue())
+                        && Objects.equals(shared.getDimensionValueType(), dimension.getDimensionValueType());
+
+                    break;
+                }
+            }
+
+            if (!found) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.runtime.state.FunctionInitializationContext;
+import org.apache.flink.runtime.state.FunctionSnapshotContext;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+
+/**
+ * Hands every point to a {@link DeadLetterWriter} with a fixed reason, for points the job routes
+ * away from Timestream itself (for example late or future-dated ones).
+ */
+public class DeadLetterSink extends RichSinkFunction<TimestreamPoint> implements CheckpointedFunction {
+    private static final long serialVersionUID = 1L;
+
+    private final DeadLetterWriter dead_letter_writer;
+
+    private final String name;
+
+    private final String reason;
+
+    private transient Counter dead_letters;
+
+    /**
+     * @param name   writer output name, e.g. {@code late-points}
+     * @param reason reason recorded with each point
+     */
+    public DeadLetterSink(DeadLetterWriter dead_letter_writer, String name, String reason) {
+        this.dead_letter_writer = dead_letter_writer;
+        this.name = name;
+        this.reason = reason;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+
+        this.dead_letters = getRuntimeContext().getMetricGroup().addGroup("dead_letters").counter(name);
+
+        dead_letter_writer.open(name, getRuntimeContext().getIndexOfThisSubtask());
+    }
+
+    @Override
+    public void invoke(TimestreamPoint point, Context context) throws Exception {
+        dead_letter_writer.write(point, reason);
+        dead_letters.inc();
+    }
+
+    @Override
+    public void snapshotState(FunctionSnapshotContext context) throws Exception {
+        dead_letter_writer.flush();
+    }
+
+    @Override
+    public void initializeState(FunctionInitializationContext context) {}
+
+    @Override
+    public void close() throws Exception {
+        dead_letter_writer.close();
+
+        super.close();
+    }
+}
@@ -0,0 +1,90 @@
+/* ----------
+ * Google imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.google.gson.Gson;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destination for points Timestream will never accept (or that ran out of retries), so they stop
+ * blocking the sink. Implementations must tolerate calls from async client callback threads.
+ *
+ * <p>Failures are reported by throwing, never swallowed: the points would be lost. On the task
+ * thread they fail the task right away; on a callback thread {@link TimestreamSink} records the
+ * first one and rethrows it on the task thread at the next record, flush timer or checkpoint.
+ */
+public interface DeadLetterWriter extends Serializable {
+
+    /**
+     * @param name          what is being dead-lettered, e.g. {@code dead-letters}; writers that
+     *                      keep one output per operator use it to tell them apart
+     * @param subtask_index index of the subtask opening the writer
+     */
+    void open(String name, int subtask_index) throws IOException;
+
+    void write(TimestreamPoint point, String reason) throws IOException;
+
+    /** Called from snapshotState; everything written before must be durable afterwards. */
+    void flush() throws IOException;
+
+    void close() throws IOException;
+
+    /**
+     * Builds the writer for the {@code timestream_dead_letter_target} property:
+     * {@code log} (default), {@code file:<directory>} or {@code kinesis:<stream name>}.
+     */
+    static DeadLetterWriter fromTarget(String target, String region) {
+        if (target == null || target.isEmpty() || target.equals("log")) {
+            return new LoggingDeadLetterWriter();
+        }
+
+        if (target.startsWith("file:")) {
+            return new FileDeadLetterWriter(target.substring("file:".length()));
+        }
+
+        if (target.startsWith("kinesis:")) {
+            return new KinesisDeadLetterWriter(region, target.substring("kinesis:".length()));
+        }
+
+        throw new IllegalArgumentException("Unknown timestream_dead_letter_target " + target);
+    }
+
+    static String toJson(Gson gson, TimestreamPoint point, String reason) {
+        Map<String, Object> letter = new LinkedHashMap<>();
+
+        letter.put("reason", reason);
+        letter.put("time", point.getTime());
+        letter.put("time_unit", point.getTimeUnit());
+        letter.put("measure_name", point.getMeasureName());
+        letter.put("measure_value", point.getMeasureValue());
+        letter.put("measure_value_type", point.getMeasureValueType() == null ? null : point.getMeasureValueType().toString());
+        letter.put("dimensions", point.getDimensions());
+
+        if (!point.getMeasures().isEmpty()) {
+            List<Map<String, String>> measures = new ArrayList<>(point.getMeasures().size());
+
+            for (TimestreamMeasure measure : point.getMeasures()) {
+                Map<String, String> measure_value = new LinkedHashMap<>();
+
+                measure_value.put("name", measure.getName());
+                measure_value.put("value", measure.getValue());
+                measure_value.put("type", measure.getType() == null ? null : measure.getType().toString());
+                measures.add(measure_value);
+            }
+
+            letter.put("measures", measures);
+        }
+
+        return gson.toJson(letter);
+    }
+}
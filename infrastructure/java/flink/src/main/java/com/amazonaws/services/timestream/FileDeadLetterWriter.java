@@ -0,0 +1,64 @@
+/* ----------
+ * Google imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.google.gson.Gson;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/** Appends dead letters as JSON lines to {@code <directory>/<name>-<subtask>.jsonl}. */
+public class FileDeadLetterWriter implements DeadLetterWriter {
+    private static final long serialVersionUID = 1L;
+
+    private final String directory;
+
+    private transient Gson gson;
+
+    private transient BufferedWriter writer;
+
+    public FileDeadLetterWriter(String directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void open(String name, int subtask_index) throws IOException {
+        Path directory_path = Paths.get(directory);
+
+        Files.createDirectories(directory_path);
+
+        this.gson = new Gson();
+        this.writer = Files.newBufferedWriter(
+            directory_path.resolve(name + "-" + subtask_index + ".jsonl"),
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void write(TimestreamPoint point, String reason) throws IOException {
+        writer.write(DeadLetterWriter.toJson(gson, point, reason));
+        writer.newLine();
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
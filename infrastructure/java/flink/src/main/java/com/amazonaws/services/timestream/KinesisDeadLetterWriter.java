@@ -0,0 +1,68 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.kinesis.AmazonKinesis;
+import com.amazonaws.services.kinesis.AmazonKinesisClientBuilder;
+import com.amazonaws.services.kinesis.model.PutRecordRequest;
+
+/* ----------
+ * Google imports
+ * ---------- */
+import com.google.gson.Gson;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Puts each dead letter on a second Kinesis stream, partitioned by data_type. Writes are
+ * synchronous, so everything is already durable when {@link #flush()} is called.
+ */
+public class KinesisDeadLetterWriter implements DeadLetterWriter {
+    private static final long serialVersionUID = 1L;
+
+    private final String region;
+    private final String stream_name;
+
+    private transient Gson gson;
+
+    private transient AmazonKinesis kinesis_client;
+
+    public KinesisDeadLetterWriter(String region, String stream_name) {
+        this.region = region;
+        this.stream_name = stream_name;
+    }
+
+    @Override
+    public void open(String name, int subtask_index) {
+        this.gson = new Gson();
+        this.kinesis_client = AmazonKinesisClientBuilder
+                .standard()
+                .withRegion(region)
+                .build();
+    }
+
+    @Override
+    public void write(TimestreamPoint point, String reason) {
+        String data_type = point.getDimension("data_type");
+
+        kinesis_client.putRecord(new PutRecordRequest()
+                .withStreamName(stream_name)
+                .withPartitionKey(data_type == null ? "unknown" : data_type)
+                .withData(ByteBuffer.wrap(DeadLetterWriter.toJson(gson, point, reason).getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {
+        if (kinesis_client != null) {
+            kinesis_client.shutdown();
+        }
+    }
+}
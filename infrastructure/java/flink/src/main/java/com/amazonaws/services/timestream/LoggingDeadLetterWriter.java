@@ -0,0 +1,37 @@
+/* ----------
+ * Google imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.google.gson.Gson;
+
+/* ----------
+ * Logs imports
+ * ---------- */
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Writes dead letters to the task manager log; the default when no target is configured. */
+public class LoggingDeadLetterWriter implements DeadLetterWriter {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingDeadLetterWriter.class);
+
+    private transient Gson gson;
+
+    @Override
+    public void open(String name, int subtask_index) {
+        this.gson = new Gson();
+    }
+
+    @Override
+    public void write(TimestreamPoint point, String reason) {
+        logger.warn("xWARNx xDeadLetterx {}", DeadLetterWriter.toJson(gson, point, reason));
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+}
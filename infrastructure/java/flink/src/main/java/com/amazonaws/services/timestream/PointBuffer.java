@@ -0,0 +1,151 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * The points {@link TimestreamSink} has taken and not sent yet, in order: those in memory, then
+ * those in the {@link SpillQueue}, if there is one. A point is kept in memory only while
+ * {@code memory_available} accepts its estimated bytes; once anything has spilled, new points
+ * queue behind it and move back into memory by {@link #refill()} as room frees up. Only used on
+ * the task thread; the metric reporter reads the sizes without synchronization.
+ */
+final class PointBuffer implements AutoCloseable {
+    private final ArrayDeque<TimestreamPoint> memory = new ArrayDeque<>();
+
+    private final SpillQueue spill;
+
+    private final LongPredicate memory_available;
+
+    private volatile int memory_size;
+
+    private volatile long memory_bytes;
+
+    // Read from the spill queue but still waiting for room in memory.
+    private TimestreamPoint spilled_head;
+
+    /**
+     * @param spill            overflow queue, or null to refuse points that do not fit in memory
+     * @param memory_available whether a point of the given estimated bytes fits in memory
+     */
+    PointBuffer(SpillQueue spill, LongPredicate memory_available) {
+        this.spill = spill;
+        this.memory_available = memory_available;
+    }
+
+    /** Returns false when the point fits neither in memory nor in the spill queue. */
+    boolean offer(TimestreamPoint point) throws IOException {
+        if (spilledSize() == 0) {
+            long bytes = TimestreamSink.estimateRecordBytes(point);
+
+            if (memory_available.test(bytes)) {
+                addToMemory(point, bytes);
+
+                return true;
+            }
+        }
+
+        return spill != null && spill.offer(point);
+    }
+
+    /** Adds the point even beyond the bounds, for points restored from a checkpoint. */
+    void add(TimestreamPoint point) throws IOException {
+        if (!offer(point)) {
+            addToMemory(point, TimestreamSink.estimateRecordBytes(point));
+        }
+    }
+
+    /** Moves spilled points into memory while they fit. */
+    void refill() throws IOException {
+        while (spill != null) {
+            if (spilled_head == null) {
+                spilled_head = spill.poll();
+
+                if (spilled_head == null) {
+                    return;
+                }
+            }
+
+            long bytes = TimestreamSink.estimateRecordBytes(spilled_head);
+
+            if (!memory_available.test(bytes)) {
+                return;
+            }
+
+            addToMemory(spilled_head, bytes);
+
+            spilled_head = null;
+        }
+    }
+
+    private void addToMemory(TimestreamPoint point, long bytes) {
+        memory.addLast(point);
+
+        memory_size++;
+        memory_bytes += bytes;
+    }
+
+    TimestreamPoint peek() {
+        return memory.peekFirst();
+    }
+
+    TimestreamPoint poll() {
+        TimestreamPoint point = memory.pollFirst();
+
+        if (point != null) {
+            memory_size--;
+            memory_bytes = memory_size == 0 ? 0 : memory_bytes - TimestreamSink.estimateRecordBytes(point);
+        }
+
+        return point;
+    }
+
+    int size() {
+        return memory_size + spilledSize();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int memorySize() {
+        return memory_size;
+    }
+
+    long memoryBytes() {
+        return memory_bytes;
+    }
+
+    int spilledSize() {
+        return (spilled_head == null ? 0 : 1) + (spill == null ? 0 : spill.size());
+    }
+
+    long spilledBytes() {
+        return spill == null ? 0 : spill.bytes();
+    }
+
+    /** Visits every point in order, leaving the buffer unchanged. */
+    void forEach(Consumer<TimestreamPoint> action) throws IOException {
+        memory.forEach(action);
+
+        if (spilled_head != null) {
+            action.accept(spilled_head);
+        }
+
+        if (spill != null) {
+            spill.forEach(action);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+        }
+    }
+}
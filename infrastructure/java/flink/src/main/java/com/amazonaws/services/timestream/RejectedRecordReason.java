@@ -0,0 +1,70 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.RejectedRecord;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Locale;
+
+/**
+ * Coarse buckets for {@link RejectedRecord#getReason()}, whose free-text message is too varied to
+ * use as a metric name directly. Only throttling and internal errors are worth retrying.
+ */
+public enum RejectedRecordReason {
+    THROTTLED(true),
+    INTERNAL_ERROR(true),
+    VERSION_CONFLICT(false),
+    OUT_OF_RETENTION(false),
+    INVALID_RECORD(false),
+    OTHER(false);
+
+    private final boolean retryable;
+
+    RejectedRecordReason(boolean retryable) {
+        this.retryable = retryable;
+    }
+
+    public static RejectedRecordReason classify(RejectedRecord rejected_record) {
+        if (rejected_record.getExistingVersion() != null) {
+            return VERSION_CONFLICT;
+        }
+
+        String reason = rejected_record.getReason() == null
+            ? ""
+            : rejected_record.getReason().toLowerCase(Locale.ROOT);
+
+        if (reason.contains("throttl") || reason.contains("rate exceeded")) {
+            return THROTTLED;
+        }
+
+        if (reason.contains("internal")) {
+            return INTERNAL_ERROR;
+        }
+
+        if (reason.contains("version") || reason.contains("already exists")) {
+            return VERSION_CONFLICT;
+        }
+
+        if (reason.contains("retention") || reason.contains("time range")) {
+            return OUT_OF_RETENTION;
+        }
+
+        if (reason.contains("invalid") || reason.contains("dimension") || reason.contains("measure")) {
+            return INVALID_RECORD;
+        }
+
+        return OTHER;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    public String metricName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
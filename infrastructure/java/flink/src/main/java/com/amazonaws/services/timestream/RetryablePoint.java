@@ -0,0 +1,34 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+/**
+ * A point waiting in {@link TimestreamSink}'s retry queue after a retryable write failure.
+ */
+public final class RetryablePoint {
+    private final TimestreamPoint point;
+
+    private final int attempt;
+
+    private final long retry_at_millis;
+
+    public RetryablePoint(TimestreamPoint point, int attempt, long retry_at_millis) {
+        this.point = point;
+        this.attempt = attempt;
+        this.retry_at_millis = retry_at_millis;
+    }
+
+    public TimestreamPoint getPoint() {
+        return point;
+    }
+
+    /** Number of write attempts that have already failed for this point. */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public long getRetryAtMillis() {
+        return retry_at_millis;
+    }
+}
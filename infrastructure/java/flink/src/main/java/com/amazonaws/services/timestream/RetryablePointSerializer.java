@@ -0,0 +1,145 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+
+/**
+ * Checkpoints the attempt count with each pending retry so the retry budget survives restarts.
+ * The retry time is not kept: restored retries are due immediately. Points are written with
+ * {@link TimestreamPointSerializer}, and this serializer follows its format version.
+ */
+public final class RetryablePointSerializer extends TypeSerializer<RetryablePoint> {
+    private static final long serialVersionUID = 1L;
+
+    public static final RetryablePointSerializer INSTANCE = new RetryablePointSerializer(TimestreamPointSerializer.INSTANCE);
+
+    private final TimestreamPointSerializer point_serializer;
+
+    private RetryablePointSerializer(TimestreamPointSerializer point_serializer) {
+        this.point_serializer = point_serializer;
+    }
+
+    @Override
+    public TypeSerializer<RetryablePoint> duplicate() {
+        return this;
+    }
+
+    @Override
+    public boolean isImmutableType() {
+        return false;
+    }
+
+    @Override
+    public RetryablePoint createInstance() {
+        return new RetryablePoint(new TimestreamPoint(), 0, 0L);
+    }
+
+    @Override
+    public RetryablePoint copy(RetryablePoint from) {
+        return new RetryablePoint(point_serializer.copy(from.getPoint()), from.getAttempt(), from.getRetryAtMillis());
+    }
+
+    @Override
+    public RetryablePoint copy(RetryablePoint from, RetryablePoint reuse) {
+        return copy(from);
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public void serialize(RetryablePoint retryable_point, DataOutputView target) throws IOException {
+        TimestreamPointSerializer.writeVarLong(retryable_point.getAttempt(), target);
+        point_serializer.serialize(retryable_point.getPoint(), target);
+    }
+
+    @Override
+    public RetryablePoint deserialize(DataInputView source) throws IOException {
+        int attempt = (int) TimestreamPointSerializer.readVarLong(source);
+
+        return new RetryablePoint(point_serializer.deserialize(source), attempt, 0L);
+    }
+
+    @Override
+    public RetryablePoint deserialize(RetryablePoint reuse, DataInputView source) throws IOException {
+        return deserialize(source);
+    }
+
+    @Override
+    public void copy(DataInputView source, DataOutputView target) throws IOException {
+        serialize(deserialize(source), target);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RetryablePointSerializer
+            && ((RetryablePointSerializer) other).point_serializer.equals(point_serializer);
+    }
+
+    @Override
+    public int hashCode() {
+        return point_serializer.hashCode();
+    }
+
+    @Override
+    public TypeSerializerSnapshot<RetryablePoint> snapshotConfiguration() {
+        return new RetryablePointSerializerSnapshot(point_serializer.getFormatVersion());
+    }
+
+    /** Versioned like {@link TimestreamPointSerializer.TimestreamPointSerializerSnapshot}. */
+    public static final class RetryablePointSerializerSnapshot implements TypeSerializerSnapshot<RetryablePoint> {
+        private int format_version;
+
+        public RetryablePointSerializerSnapshot() {
+            this(TimestreamPointSerializer.CURRENT_FORMAT_VERSION);
+        }
+
+        RetryablePointSerializerSnapshot(int format_version) {
+            this.format_version = format_version;
+        }
+
+        @Override
+        public int getCurrentVersion() {
+            return format_version;
+        }
+
+        @Override
+        public void writeSnapshot(DataOutputView out) {}
+
+        @Override
+        public void readSnapshot(int read_version, DataInputView in, ClassLoader user_code_class_loader) {
+            this.format_version = read_version;
+        }
+
+        @Override
+        public TypeSerializer<RetryablePoint> restoreSerializer() {
+            TimestreamPointSerializer point_serializer = TimestreamPointSerializer.forFormatVersion(format_version);
+
+            return point_serializer == TimestreamPointSerializer.INSTANCE ? INSTANCE : new RetryablePointSerializer(point_serializer);
+        }
+
+        @Override
+        public TypeSerializerSchemaCompatibility<RetryablePoint> resolveSchemaCompatibility(TypeSerializer<RetryablePoint> new_serializer) {
+            if (!(new_serializer instanceof RetryablePointSerializer)) {
+                return TypeSerializerSchemaCompatibility.incompatible();
+            }
+
+            return ((RetryablePointSerializer) new_serializer).point_serializer.getFormatVersion() == format_version
+                ? TypeSerializerSchemaCompatibility.compatibleAsIs()
+                : TypeSerializerSchemaCompatibility.compatibleAfterMigration();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * FIFO of {@link TimestreamPoint}s kept in memory-mapped segment files of one directory, each a
+ * sequence of length-prefixed {@link TimestreamPointSerializer} records. Segments are deleted
+ * once read; the directory is deleted on {@link #close()}. It only relieves the heap: the points
+ * are not durable across restarts, so the sink still checkpoints them. Not thread-safe.
+ */
+final class SpillQueue implements AutoCloseable {
+    static final int SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    private final File directory;
+
+    private final long max_bytes;
+
+    private final int segment_bytes;
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    private final DataOutputSerializer output = new DataOutputSerializer(1024);
+
+    private final DataInputDeserializer input = new DataInputDeserializer();
+
+    private int next_segment;
+
+    private int size;
+
+    private long bytes;
+
+    SpillQueue(File directory, long max_bytes) throws IOException {
+        this(directory, max_bytes, SEGMENT_BYTES);
+    }
+
+    /** Smaller segments roll over sooner, so tests need not write 16MB to reach the next one. */
+    SpillQueue(File directory, long max_bytes, int segment_bytes) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create spill directory " + directory);
+        }
+
+        this.directory = directory;
+        this.max_bytes = max_bytes;
+        this.segment_bytes = segment_bytes;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Bytes written to segments and not read yet. */
+    long bytes() {
+        return bytes;
+    }
+
+    /** Returns false, leaving the queue unchanged, when the point would exceed max_bytes. */
+    boolean offer(TimestreamPoint point) throws IOException {
+        output.clear();
+        TimestreamPointSerializer.INSTANCE.serialize(point, output);
+
+        int record_bytes = Integer.BYTES + output.length();
+
+        if (bytes + record_bytes > max_bytes) {
+            return false;
+        }
+
+        Segment tail = segments.peekLast();
+
+        if (tail == null || tail.buffer.capacity() - tail.write_position < record_bytes) {
+            tail = new Segment(new File(directory, "segment-" + next_segment++), Math.max(segment_bytes, record_bytes));
+
+            segments.addLast(tail);
+        }
+
+        tail.buffer.putInt(tail.write_position, output.length());
+        tail.buffer.position(tail.write_position + Integer.BYTES);
+        tail.buffer.put(output.getSharedBuffer(), 0, output.length());
+        tail.write_position += record_bytes;
+
+        size++;
+        bytes += record_bytes;
+
+        return true;
+    }
+
+    TimestreamPoint poll() throws IOException {
+        Segment head = segments.peekFirst();
+
+        while (head != null && head.read_position == head.write_position) {
+            if (head == segments.peekLast()) {
+                // Keep the last segment and write over it from the start.
+                head.read_position = 0;
+                head.write_position = 0;
+
+                return null;
+            }
+
+            segments.removeFirst().delete();
+
+            head = segments.peekFirst();
+        }
+
+        if (head == null) {
+            return null;
+        }
+
+        TimestreamPoint point = read(head, head.read_position);
+        int record_bytes = Integer.BYTES + head.buffer.getInt(head.read_position);
+
+        head.read_position += record_bytes;
+
+        size--;
+        bytes -= record_bytes;
+
+        return point;
+    }
+
+    /** Reads every queued point in order, leaving the queue unchanged. */
+    void forEach(Consumer<TimestreamPoint> action) throws IOException {
+        for (Segment segment : segments) {
+            int position = segment.read_position;
+
+            while (position < segment.write_position) {
+                action.accept(read(segment, position));
+
+                position += Integer.BYTES + segment.buffer.getInt(position);
+            }
+        }
+    }
+
+    private TimestreamPoint read(Segment segment, int position) throws IOException {
+        int length = segment.buffer.getInt(position);
+        byte[] record = new byte[length];
+
+        segment.buffer.position(position + Integer.BYTES);
+        segment.buffer.get(record);
+
+        input.setBuffer(record);
+
+        return TimestreamPointSerializer.INSTANCE.deserialize(input);
+    }
+
+    @Override
+    public void close() throws IOException {
+        while (!segments.isEmpty()) {
+            segments.removeFirst().delete();
+        }
+
+        size = 0;
+        bytes = 0;
+
+        if (!directory.delete()) {
+            throw new IOException("Could not delete spill directory " + directory);
+        }
+    }
+
+    private static final class Segment {
+        private final File file;
+
+        private final MappedByteBuffer buffer;
+
+        private int read_position;
+
+        private int write_position;
+
+        Segment(File file, int capacity) throws IOException {
+            this.file = file;
+
+            // The mapping stays valid after the channel is closed.
+            try (RandomAccessFile random_access_file = new RandomAccessFile(file, "rw")) {
+                this.buffer = random_access_file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+        }
+
+        /** The pages are released once the buffer is collected; until then they are only disk cache. */
+        void delete() throws IOException {
+            if (!file.delete()) {
+                throw new IOException("Could not delete spill segment " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/* ----------
+ * Java imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed code tables for the dimension and measure names the job writes. Codes are persisted in
+ * checkpoints, so entries may only ever be appended; never reorder or remove one.
+ */
+public final class TimestreamDictionary {
+
+    /** Code written for a name that is not in the table; the literal string follows it. */
+    public static final int UNKNOWN = 0;
+
+    private static final String[] DIMENSION_NAMES = {
+        "data_type",
+        "mrf_id",
+        "gtin",
+        "city",
+        "country",
+        "ip",
+        "latitude",
+        "longitude",
+        "postal_code",
+        "time_spent_away",
+        "time_zone",
+        "phone_os",
+        "product_group_id",
+        "campaign_id",
+        "landing_page_id",
+        "hardware_concurrency",
+        "max_touch_points",
+        "user_agent",
+        "phone_current_language",
+        "languages",
+        "screen_size",
+        "serial",
+        "third_party_id",
+        "country_code",
+        "product_id",
+        "browser",
+        "os",
+        "device",
+        "granularity"
+    };
+
+    private static final String[] MEASURE_NAMES = {
+        "count_measure",
+        "label_measure",
+        "third_party_measure",
+        // MULTI record names in multi-measure mode default to the data_type.
+        "mrf_scans",
+        "label_scan",
+        "label_scan_ping",
+        "label_scan_navigator",
+        "third_party_scan",
+        "third_party_redeem",
+        "rollup",
+        "scan_count",
+        "distinct_users",
+        "users_sketch",
+        "label_scan_session",
+        "dwell_time",
+        "time_away",
+        "time_on_page",
+        "ping_count"
+    };
+
+    private static final String[] TIME_UNITS = {
+        "MILLISECONDS",
+        "SECONDS",
+        "MICROSECONDS",
+        "NANOSECONDS"
+    };
+
+    private static final String[] MEASURE_VALUE_TYPES = {
+        "DOUBLE",
+        "BIGINT",
+        "VARCHAR",
+        "BOOLEAN",
+        "TIMESTAMP",
+        "MULTI"
+    };
+
+    private static final Map<String, Integer> DIMENSION_CODES = index(DIMENSION_NAMES);
+    private static final Map<String, Integer> MEASURE_CODES = index(MEASURE_NAMES);
+    private static final Map<String, Integer> TIME_UNIT_CODES = index(TIME_UNITS);
+    private static final Map<String, Integer> MEASURE_VALUE_TYPE_CODES = index(MEASURE_VALUE_TYPES);
+
+    private TimestreamDictionary() {}
+
+    public static int dimensionCode(String name) {
+        return DIMENSION_CODES.getOrDefault(name, UNKNOWN);
+    }
+
+    /** The dictionary's own instance of a known dimension name, so points share one String. */
+    public static String internDimensionName(String name) {
+        int code = dimensionCode(name);
+
+        return code == UNKNOWN ? name : DIMENSION_NAMES[code - 1];
+    }
+
+    public static String dimensionName(int code) {
+        return DIMENSION_NAMES[code - 1];
+    }
+
+    public static int measureCode(String name) {
+        return name == null ? UNKNOWN : MEASURE_CODES.getOrDefault(name, UNKNOWN);
+    }
+
+    public static String measureName(int code) {
+        return MEASURE_NAMES[code - 1];
+    }
+
+    public static int timeUnitCode(String time_unit) {
+        return time_unit == null ? UNKNOWN : TIME_UNIT_CODES.getOrDefault(time_unit, UNKNOWN);
+    }
+
+    public static String timeUnit(int code) {
+        return TIME_UNITS[code - 1];
+    }
+
+    public static int measureValueTypeCode(String measure_value_type) {
+        return measure_value_type == null ? UNKNOWN : MEASURE_VALUE_TYPE_CODES.getOrDefault(measure_value_type, UNKNOWN);
+    }
+
+    public static String measureValueType(int code) {
+        return MEASURE_VALUE_TYPES[code - 1];
+    }
+
+    private static Map<String, Integer> index(String[] names) {
+        Map<String, Integer> codes = new HashMap<>(names.length * 2);
+
+        for (int i = 0; i < names.length; i++) {
+            codes.put(names[i], i + 1);
+        }
+
+        return codes;
+    }
+}
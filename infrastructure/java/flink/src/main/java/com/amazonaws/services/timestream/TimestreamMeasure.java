@@ -0,0 +1,38 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/**
+ * One typed value of a multi-measure {@link TimestreamPoint}.
+ */
+public final class TimestreamMeasure {
+    private final String name;
+    private final String value;
+    private final MeasureValueType type;
+
+    public TimestreamMeasure(String name, String value, MeasureValueType type) {
+        this.name = name;
+        this.value = value;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public MeasureValueType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + value + " (" + type + ")";
+    }
+}
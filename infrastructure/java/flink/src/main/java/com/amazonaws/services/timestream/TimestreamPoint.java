@@ -5,14 +5,38 @@ package com.amazonaws.services.timestream;
 
 import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
 
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
 /* ----------
  * Java imports
  * ---------- */
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Timestream record. Dimensions are kept as parallel name/value arrays, with names interned
+ * through {@link TimestreamDictionary}. Points copied from a base point share its dimension
+ * arrays until either side adds a dimension, so fanning an event out into one point per measure
+ * does not copy them.
+ */
+@TypeInfo(TimestreamPointTypeInfo.Factory.class)
 public class TimestreamPoint {
-    private final Map<String, String> dimensions;
+    private static final String[] NO_DIMENSIONS = new String[0];
+
+    private String[] dimension_names;
+    private String[] dimension_values;
+    private int dimension_count;
+
+    // Set on both points once a copy shares the arrays; the next addDimension copies them first.
+    private boolean dimensions_shared;
 
     private long time;
 
@@ -22,8 +46,12 @@ public class TimestreamPoint {
     private String measure_value;
     private String time_unit;
 
+    // Only set for MULTI points; single-measure points use measure_value instead.
+    private List<TimestreamMeasure> measures;
+
     public TimestreamPoint() {
-      this.dimensions = new HashMap<>();
+        this.dimension_names = NO_DIMENSIONS;
+        this.dimension_values = NO_DIMENSIONS;
     }
 
     public TimestreamPoint(
@@ -32,7 +60,11 @@ public class TimestreamPoint {
       String measure_value,
       MeasureValueType measure_value_type
     ) {
-        this.dimensions = new HashMap<>(another_point.dimensions);
+        this.dimension_names = another_point.dimension_names;
+        this.dimension_values = another_point.dimension_values;
+        this.dimension_count = another_point.dimension_count;
+        this.dimensions_shared = true;
+        another_point.dimensions_shared = true;
         this.measure_name = measure_name;
         this.measure_value = measure_value;
         this.measure_value_type = measure_value_type;
@@ -44,14 +76,26 @@ public class TimestreamPoint {
         return measure_name;
     }
 
+    public void setMeasureName(String measure_name) {
+        this.measure_name = measure_name;
+    }
+
     public String getMeasureValue() {
         return measure_value;
     }
 
+    public void setMeasureValue(String measure_value) {
+        this.measure_value = measure_value;
+    }
+
     public MeasureValueType getMeasureValueType() {
         return measure_value_type;
     }
 
+    public void setMeasureValueType(MeasureValueType measure_value_type) {
+        this.measure_value_type = measure_value_type;
+    }
+
     public long getTime() {
         return time;
     }
@@ -60,6 +104,24 @@ public class TimestreamPoint {
         this.time = time;
     }
 
+    /** The time in epoch milliseconds; unknown units are taken as milliseconds. */
+    public long getTimeMillis() {
+        if (time_unit == null) {
+            return time;
+        }
+
+        switch (time_unit) {
+            case "SECONDS":
+                return TimeUnit.SECONDS.toMillis(time);
+            case "MICROSECONDS":
+                return TimeUnit.MICROSECONDS.toMillis(time);
+            case "NANOSECONDS":
+                return TimeUnit.NANOSECONDS.toMillis(time);
+            default:
+                return time;
+        }
+    }
+
     public String getTimeUnit() {
         return time_unit;
     }
@@ -68,11 +130,108 @@ public class TimestreamPoint {
         this.time_unit = time_unit;
     }
 
+    public List<TimestreamMeasure> getMeasures() {
+        return measures == null ? Collections.emptyList() : measures;
+    }
+
+    public void addMeasure(String name, String value, MeasureValueType type) {
+        if (measures == null) {
+            measures = new ArrayList<>(4);
+        }
+
+        measures.add(new TimestreamMeasure(name, value, type));
+    }
+
+    public void setMeasureValue(int index, String value) {
+        TimestreamMeasure measure = measures.get(index);
+
+        measures.set(index, new TimestreamMeasure(measure.getName(), value, measure.getType()));
+    }
+
+    public int getDimensionCount() {
+        return dimension_count;
+    }
+
+    public String getDimensionName(int index) {
+        return dimension_names[index];
+    }
+
+    public String getDimensionValue(int index) {
+        return dimension_values[index];
+    }
+
+    /** Value of the dimension, or null when the point does not have it. */
+    public String getDimension(String dimension_name) {
+        int index = indexOfDimension(dimension_name);
+
+        return index < 0 ? null : dimension_values[index];
+    }
+
+    /** A copy of the dimensions in insertion order; prefer the indexed accessors on hot paths. */
     public Map<String, String> getDimensions() {
+        Map<String, String> dimensions = new LinkedHashMap<>(dimension_count * 2);
+
+        for (int i = 0; i < dimension_count; i++) {
+            dimensions.put(dimension_names[i], dimension_values[i]);
+        }
+
         return dimensions;
     }
 
+    /** Adds the dimension, or replaces its value when the point already has it. */
     public void addDimension(String dimension_name, String dimension_value) {
-        dimensions.put(dimension_name, dimension_value);
+        int index = indexOfDimension(dimension_name);
+
+        if (dimensions_shared || (index < 0 && dimension_count == dimension_names.length)) {
+            int capacity = index < 0 && dimension_count == dimension_names.length
+                ? Math.max(8, dimension_count * 2)
+                : dimension_names.length;
+
+            dimension_names = Arrays.copyOf(dimension_names, capacity);
+            dimension_values = Arrays.copyOf(dimension_values, capacity);
+            dimensions_shared = false;
+        }
+
+        if (index >= 0) {
+            dimension_values[index] = dimension_value;
+
+            return;
+        }
+
+        dimension_names[dimension_count] = TimestreamDictionary.internDimensionName(dimension_name);
+        dimension_values[dimension_count] = dimension_value;
+        dimension_count++;
+    }
+
+    /** Removes the dimension, keeping the order of the others; no-op when the point does not have it. */
+    public void removeDimension(String dimension_name) {
+        int index = indexOfDimension(dimension_name);
+
+        if (index < 0) {
+            return;
+        }
+
+        if (dimensions_shared) {
+            dimension_names = Arrays.copyOf(dimension_names, dimension_names.length);
+            dimension_values = Arrays.copyOf(dimension_values, dimension_values.length);
+            dimensions_shared = false;
+        }
+
+        System.arraycopy(dimension_names, index + 1, dimension_names, index, dimension_count - index - 1);
+        System.arraycopy(dimension_values, index + 1, dimension_values, index, dimension_count - index - 1);
+
+        dimension_count--;
+        dimension_names[dimension_count] = null;
+        dimension_values[dimension_count] = null;
+    }
+
+    private int indexOfDimension(String dimension_name) {
+        for (int i = 0; i < dimension_count; i++) {
+            if (dimension_names[i].equals(dimension_name)) {
+                return i;
+            }
+        }
+
+        return -1;
     }
 }
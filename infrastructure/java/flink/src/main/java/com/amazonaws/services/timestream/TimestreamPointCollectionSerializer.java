@@ -0,0 +1,154 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.api.common.typeutils.CompositeTypeSerializerSnapshot;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes a varint count followed by the points with {@link TimestreamPointSerializer}. Collections
+ * are read back as {@link ArrayList}s.
+ */
+public final class TimestreamPointCollectionSerializer extends TypeSerializer<Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final TimestreamPointCollectionSerializer INSTANCE = new TimestreamPointCollectionSerializer(TimestreamPointSerializer.INSTANCE);
+
+    private final TimestreamPointSerializer point_serializer;
+
+    private TimestreamPointCollectionSerializer(TimestreamPointSerializer point_serializer) {
+        this.point_serializer = point_serializer;
+    }
+
+    @Override
+    public boolean isImmutableType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<Collection<TimestreamPoint>> duplicate() {
+        return this;
+    }
+
+    @Override
+    public Collection<TimestreamPoint> createInstance() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public Collection<TimestreamPoint> copy(Collection<TimestreamPoint> from) {
+        List<TimestreamPoint> copy = new ArrayList<>(from.size());
+
+        for (TimestreamPoint point : from) {
+            copy.add(point_serializer.copy(point));
+        }
+
+        return copy;
+    }
+
+    @Override
+    public Collection<TimestreamPoint> copy(Collection<TimestreamPoint> from, Collection<TimestreamPoint> reuse) {
+        return copy(from);
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public void serialize(Collection<TimestreamPoint> points, DataOutputView target) throws IOException {
+        TimestreamPointSerializer.writeVarLong(points.size(), target);
+
+        for (TimestreamPoint point : points) {
+            point_serializer.serialize(point, target);
+        }
+    }
+
+    @Override
+    public Collection<TimestreamPoint> deserialize(DataInputView source) throws IOException {
+        int size = (int) TimestreamPointSerializer.readVarLong(source);
+        List<TimestreamPoint> points = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            points.add(point_serializer.deserialize(source));
+        }
+
+        return points;
+    }
+
+    @Override
+    public Collection<TimestreamPoint> deserialize(Collection<TimestreamPoint> reuse, DataInputView source) throws IOException {
+        return deserialize(source);
+    }
+
+    @Override
+    public void copy(DataInputView source, DataOutputView target) throws IOException {
+        int size = (int) TimestreamPointSerializer.readVarLong(source);
+
+        TimestreamPointSerializer.writeVarLong(size, target);
+
+        for (int i = 0; i < size; i++) {
+            point_serializer.copy(source, target);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimestreamPointCollectionSerializer
+            && ((TimestreamPointCollectionSerializer) other).point_serializer.equals(point_serializer);
+    }
+
+    @Override
+    public int hashCode() {
+        return point_serializer.hashCode();
+    }
+
+    @Override
+    public TypeSerializerSnapshot<Collection<TimestreamPoint>> snapshotConfiguration() {
+        return new TimestreamPointCollectionSerializerSnapshot(this);
+    }
+
+    /** Delegates compatibility, and format migration, to the nested point serializer's snapshot. */
+    public static final class TimestreamPointCollectionSerializerSnapshot
+            extends CompositeTypeSerializerSnapshot<Collection<TimestreamPoint>, TimestreamPointCollectionSerializer> {
+        private static final int CURRENT_VERSION = 1;
+
+        public TimestreamPointCollectionSerializerSnapshot() {
+            super(TimestreamPointCollectionSerializer.class);
+        }
+
+        TimestreamPointCollectionSerializerSnapshot(TimestreamPointCollectionSerializer serializer) {
+            super(serializer);
+        }
+
+        @Override
+        protected int getCurrentOuterSnapshotVersion() {
+            return CURRENT_VERSION;
+        }
+
+        @Override
+        protected TypeSerializer<?>[] getNestedSerializers(TimestreamPointCollectionSerializer outer_serializer) {
+            return new TypeSerializer<?>[] {outer_serializer.point_serializer};
+        }
+
+        @Override
+        protected TimestreamPointCollectionSerializer createOuterSerializerWithNestedSerializers(TypeSerializer<?>[] nested_serializers) {
+            TimestreamPointSerializer point_serializer = (TimestreamPointSerializer) nested_serializers[0];
+
+            return point_serializer == TimestreamPointSerializer.INSTANCE ? INSTANCE : new TimestreamPointCollectionSerializer(point_serializer);
+        }
+    }
+}
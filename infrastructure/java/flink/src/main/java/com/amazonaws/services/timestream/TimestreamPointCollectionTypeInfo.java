@@ -0,0 +1,82 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+
+/**
+ * Type information for the per-event {@code Collection<TimestreamPoint>} passed between the
+ * operators. Flink cannot derive it from the interface type, so the job declares it with
+ * {@code returns(TimestreamPointCollectionTypeInfo.INSTANCE)}.
+ */
+public final class TimestreamPointCollectionTypeInfo extends TypeInformation<Collection<TimestreamPoint>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final TimestreamPointCollectionTypeInfo INSTANCE = new TimestreamPointCollectionTypeInfo();
+
+    private TimestreamPointCollectionTypeInfo() {}
+
+    @Override
+    public boolean isBasicType() {
+        return false;
+    }
+
+    @Override
+    public boolean isTupleType() {
+        return false;
+    }
+
+    @Override
+    public int getArity() {
+        return 1;
+    }
+
+    @Override
+    public int getTotalFields() {
+        return 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<Collection<TimestreamPoint>> getTypeClass() {
+        return (Class<Collection<TimestreamPoint>>) (Class<?>) Collection.class;
+    }
+
+    @Override
+    public boolean isKeyType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<Collection<TimestreamPoint>> createSerializer(ExecutionConfig config) {
+        return TimestreamPointCollectionSerializer.INSTANCE;
+    }
+
+    @Override
+    public String toString() {
+        return "Collection<TimestreamPoint>";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimestreamPointCollectionTypeInfo;
+    }
+
+    @Override
+    public int hashCode() {
+        return Collection.class.hashCode() * 31 + TimestreamPoint.class.hashCode();
+    }
+
+    @Override
+    public boolean canEqual(Object other) {
+        return other instanceof TimestreamPointCollectionTypeInfo;
+    }
+}
@@ -0,0 +1,299 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.types.StringValue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compact serializer for buffered {@link TimestreamPoint}s. Known dimension/measure names, time
+ * units and measure types are written as {@link TimestreamDictionary} codes, and the time and
+ * counts as varints, instead of falling back to Kryo.
+ *
+ * <p>Format versions: 1 has no multi-measure values, 2 appends them after the dimensions. State
+ * written with an older version is read with that version's serializer and migrated on restore.
+ */
+public final class TimestreamPointSerializer extends TypeSerializer<TimestreamPoint> {
+    private static final long serialVersionUID = 1L;
+
+    static final int CURRENT_FORMAT_VERSION = 2;
+
+    public static final TimestreamPointSerializer INSTANCE = new TimestreamPointSerializer(CURRENT_FORMAT_VERSION);
+
+    private final int format_version;
+
+    private TimestreamPointSerializer(int format_version) {
+        this.format_version = format_version;
+    }
+
+    static TimestreamPointSerializer forFormatVersion(int format_version) {
+        if (format_version < 1 || format_version > CURRENT_FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown TimestreamPoint format version " + format_version);
+        }
+
+        return format_version == CURRENT_FORMAT_VERSION ? INSTANCE : new TimestreamPointSerializer(format_version);
+    }
+
+    int getFormatVersion() {
+        return format_version;
+    }
+
+    @Override
+    public TypeSerializer<TimestreamPoint> duplicate() {
+        return this;
+    }
+
+    @Override
+    public boolean isImmutableType() {
+        return false;
+    }
+
+    @Override
+    public TimestreamPoint createInstance() {
+        return new TimestreamPoint();
+    }
+
+    @Override
+    public TimestreamPoint copy(TimestreamPoint from) {
+        TimestreamPoint copy = new TimestreamPoint(from, from.getMeasureName(), from.getMeasureValue(), from.getMeasureValueType());
+
+        for (TimestreamMeasure measure : from.getMeasures()) {
+            copy.addMeasure(measure.getName(), measure.getValue(), measure.getType());
+        }
+
+        return copy;
+    }
+
+    @Override
+    public TimestreamPoint copy(TimestreamPoint from, TimestreamPoint reuse) {
+        return copy(from);
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public void serialize(TimestreamPoint point, DataOutputView target) throws IOException {
+        writeVarLong(point.getTime(), target);
+        writeCoded(TimestreamDictionary.timeUnitCode(point.getTimeUnit()), point.getTimeUnit(), target);
+
+        MeasureValueType measure_value_type = point.getMeasureValueType();
+        String measure_value_type_name = measure_value_type == null ? null : measure_value_type.toString();
+
+        writeCoded(TimestreamDictionary.measureValueTypeCode(measure_value_type_name), measure_value_type_name, target);
+        writeCoded(TimestreamDictionary.measureCode(point.getMeasureName()), point.getMeasureName(), target);
+        StringValue.writeString(point.getMeasureValue(), target);
+
+        int dimension_count = point.getDimensionCount();
+
+        writeVarLong(dimension_count, target);
+
+        for (int i = 0; i < dimension_count; i++) {
+            String dimension_name = point.getDimensionName(i);
+
+            writeCoded(TimestreamDictionary.dimensionCode(dimension_name), dimension_name, target);
+            StringValue.writeString(point.getDimensionValue(i), target);
+        }
+
+        if (format_version < 2) {
+            return;
+        }
+
+        List<TimestreamMeasure> measures = point.getMeasures();
+
+        writeVarLong(measures.size(), target);
+
+        for (TimestreamMeasure measure : measures) {
+            String type_name = measure.getType() == null ? null : measure.getType().toString();
+
+            writeCoded(TimestreamDictionary.measureCode(measure.getName()), measure.getName(), target);
+            StringValue.writeString(measure.getValue(), target);
+            writeCoded(TimestreamDictionary.measureValueTypeCode(type_name), type_name, target);
+        }
+    }
+
+    @Override
+    public TimestreamPoint deserialize(DataInputView source) throws IOException {
+        TimestreamPoint point = new TimestreamPoint();
+
+        point.setTime(readVarLong(source));
+
+        int time_unit_code = readVarInt(source);
+        point.setTimeUnit(time_unit_code == TimestreamDictionary.UNKNOWN
+            ? StringValue.readString(source)
+            : TimestreamDictionary.timeUnit(time_unit_code));
+
+        point.setMeasureValueType(readMeasureValueType(source));
+        point.setMeasureName(readMeasureName(source));
+        point.setMeasureValue(StringValue.readString(source));
+
+        int dimension_count = readVarInt(source);
+
+        for (int i = 0; i < dimension_count; i++) {
+            int dimension_code = readVarInt(source);
+            String dimension_name = dimension_code == TimestreamDictionary.UNKNOWN
+                ? StringValue.readString(source)
+                : TimestreamDictionary.dimensionName(dimension_code);
+
+            point.addDimension(dimension_name, StringValue.readString(source));
+        }
+
+        if (format_version < 2) {
+            return point;
+        }
+
+        int measure_count = readVarInt(source);
+
+        for (int i = 0; i < measure_count; i++) {
+            String name = readMeasureName(source);
+            String value = StringValue.readString(source);
+
+            point.addMeasure(name, value, readMeasureValueType(source));
+        }
+
+        return point;
+    }
+
+    private static String readMeasureName(DataInputView source) throws IOException {
+        int measure_code = readVarInt(source);
+
+        return measure_code == TimestreamDictionary.UNKNOWN
+            ? StringValue.readString(source)
+            : TimestreamDictionary.measureName(measure_code);
+    }
+
+    private static MeasureValueType readMeasureValueType(DataInputView source) throws IOException {
+        int measure_value_type_code = readVarInt(source);
+        String measure_value_type = measure_value_type_code == TimestreamDictionary.UNKNOWN
+            ? StringValue.readString(source)
+            : TimestreamDictionary.measureValueType(measure_value_type_code);
+
+        return measure_value_type == null ? null : MeasureValueType.fromValue(measure_value_type);
+    }
+
+    @Override
+    public TimestreamPoint deserialize(TimestreamPoint reuse, DataInputView source) throws IOException {
+        return deserialize(source);
+    }
+
+    @Override
+    public void copy(DataInputView source, DataOutputView target) throws IOException {
+        serialize(deserialize(source), target);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimestreamPointSerializer
+            && ((TimestreamPointSerializer) other).format_version == format_version;
+    }
+
+    @Override
+    public int hashCode() {
+        return format_version;
+    }
+
+    @Override
+    public TypeSerializerSnapshot<TimestreamPoint> snapshotConfiguration() {
+        return new TimestreamPointSerializerSnapshot(format_version);
+    }
+
+    private static void writeCoded(int code, String literal, DataOutput target) throws IOException {
+        writeVarLong(code, target);
+
+        if (code == TimestreamDictionary.UNKNOWN) {
+            StringValue.writeString(literal, target);
+        }
+    }
+
+    static void writeVarLong(long value, DataOutput target) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            target.writeByte((int) ((value & 0x7F) | 0x80));
+
+            value >>>= 7;
+        }
+
+        target.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput source) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte current = source.readByte();
+
+            value |= (long) (current & 0x7F) << shift;
+
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint in TimestreamPoint state");
+    }
+
+    private static int readVarInt(DataInput source) throws IOException {
+        return (int) readVarLong(source);
+    }
+
+    /** The snapshot version is the point format version the state was written with. */
+    public static final class TimestreamPointSerializerSnapshot implements TypeSerializerSnapshot<TimestreamPoint> {
+        private int format_version;
+
+        public TimestreamPointSerializerSnapshot() {
+            this(CURRENT_FORMAT_VERSION);
+        }
+
+        TimestreamPointSerializerSnapshot(int format_version) {
+            this.format_version = format_version;
+        }
+
+        @Override
+        public int getCurrentVersion() {
+            return format_version;
+        }
+
+        @Override
+        public void writeSnapshot(DataOutputView out) {}
+
+        @Override
+        public void readSnapshot(int read_version, DataInputView in, ClassLoader user_code_class_loader) {
+            this.format_version = read_version;
+        }
+
+        @Override
+        public TypeSerializer<TimestreamPoint> restoreSerializer() {
+            return forFormatVersion(format_version);
+        }
+
+        @Override
+        public TypeSerializerSchemaCompatibility<TimestreamPoint> resolveSchemaCompatibility(TypeSerializer<TimestreamPoint> new_serializer) {
+            if (!(new_serializer instanceof TimestreamPointSerializer)) {
+                return TypeSerializerSchemaCompatibility.incompatible();
+            }
+
+            return ((TimestreamPointSerializer) new_serializer).getFormatVersion() == format_version
+                ? TypeSerializerSchemaCompatibility.compatibleAsIs()
+                : TypeSerializerSchemaCompatibility.compatibleAfterMigration();
+        }
+    }
+}
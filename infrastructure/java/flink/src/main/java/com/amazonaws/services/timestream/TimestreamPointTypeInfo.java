@@ -0,0 +1,90 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInfoFactory;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Type information for {@link TimestreamPoint}, so points crossing the network or kept in state
+ * use {@link TimestreamPointSerializer} instead of falling back to Kryo. Picked up through the
+ * {@code @TypeInfo} annotation on the class.
+ */
+public final class TimestreamPointTypeInfo extends TypeInformation<TimestreamPoint> {
+    private static final long serialVersionUID = 1L;
+
+    public static final TimestreamPointTypeInfo INSTANCE = new TimestreamPointTypeInfo();
+
+    private TimestreamPointTypeInfo() {}
+
+    @Override
+    public boolean isBasicType() {
+        return false;
+    }
+
+    @Override
+    public boolean isTupleType() {
+        return false;
+    }
+
+    @Override
+    public int getArity() {
+        return 1;
+    }
+
+    @Override
+    public int getTotalFields() {
+        return 1;
+    }
+
+    @Override
+    public Class<TimestreamPoint> getTypeClass() {
+        return TimestreamPoint.class;
+    }
+
+    @Override
+    public boolean isKeyType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<TimestreamPoint> createSerializer(ExecutionConfig config) {
+        return TimestreamPointSerializer.INSTANCE;
+    }
+
+    @Override
+    public String toString() {
+        return "TimestreamPoint";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimestreamPointTypeInfo;
+    }
+
+    @Override
+    public int hashCode() {
+        return TimestreamPoint.class.hashCode();
+    }
+
+    @Override
+    public boolean canEqual(Object other) {
+        return other instanceof TimestreamPointTypeInfo;
+    }
+
+    public static final class Factory extends TypeInfoFactory<TimestreamPoint> {
+        @Override
+        public TypeInformation<TimestreamPoint> createTypeInfo(Type type, Map<String, TypeInformation<?>> generic_parameters) {
+            return INSTANCE;
+        }
+    }
+}
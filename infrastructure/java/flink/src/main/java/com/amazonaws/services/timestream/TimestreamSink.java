@@ -3,10 +3,12 @@
  * ---------- */
 package com.amazonaws.services.timestream;
 
-import com.amazonaws.ClientConfiguration;
-import com.amazonaws.services.timestreamwrite.AmazonTimestreamWrite;
-import com.amazonaws.services.timestreamwrite.AmazonTimestreamWriteClientBuilder;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.kinesisanalytics.utils.LogSampler;
 import com.amazonaws.services.timestreamwrite.model.*;
+import com.amazonaws.services.timestreamwrite.model.Record;
 
 /* ----------
  * Apache imports
@@ -18,6 +20,9 @@ import org.apache.flink.runtime.state.FunctionInitializationContext;
 import org.apache.flink.runtime.state.FunctionSnapshotContext;
 import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 
 /* ----------
  * Logs imports
@@ -28,154 +33,729 @@ import org.slf4j.LoggerFactory;
 /* ----------
  * Java imports
  * ---------- */
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
-public class TimestreamSink extends RichSinkFunction<Collection<TimestreamPoint>> implements CheckpointedFunction {
+public class TimestreamSink extends RichSinkFunction<Collection<TimestreamPoint>> implements CheckpointedFunction, ProcessingTimeCallback {
 
-    private final BlockingQueue records_already_buffered;
-    
-    private final Integer batch_size;
+    // Bounded together with the pending retries by max_buffered_records/bytes, see invoke().
+    private transient PointBuffer records_already_buffered;
 
-    private final String database_name;
-    private final String region;
-    private final String table_name;
+    private final TimestreamSinkConfig config;
 
     private static final Logger logger = LoggerFactory.getLogger(TimestreamSink.class);
-    
-    private static final long RECORDS_FLUSH_INTERVAL_MILLISECONDS = 60L * 1000L;
 
-    private long empty_list_timestamp;
+    // Rough per-record JSON framing overhead (keys, quotes, braces) on top of the raw field lengths.
+    private static final int RECORD_OVERHEAD_BYTES = 64;
+    private static final int DIMENSION_OVERHEAD_BYTES = 32;
+
+    private transient boolean flush_timer_registered;
+
+    private transient ProcessingTimeService processing_time_service;
+
+    private transient TimestreamSinkMetrics metrics;
+
+    private transient LogSampler log_sampler;
+
+    // Serialized with the sink, so each subtask opens its own copy.
+    private final TimestreamWriter timestream_writer;
+
+    // One permit per WriteRecordsRequest allowed in flight; acquiring blocks the task thread (backpressure).
+    // Only resized on the task thread, to the controller's current in-flight limit.
+    private transient ResizableSemaphore in_flight_requests;
 
-    private transient AmazonTimestreamWrite aws_timestream_write_client;
+    private transient AdaptiveWriteController write_controller;
+
+    private transient int in_flight_limit;
     
-    private transient ListState current_checkpoint_state;
+    private transient ListState<TimestreamPoint> current_checkpoint_state;
+
+    private transient ListState<RetryablePoint> retry_checkpoint_state;
 
-    public TimestreamSink(String region, String database_name, String table_name, int batch_size) {
-        this.batch_size = batch_size;
+    // Filled from async callbacks, drained on the task thread by retryDuePoints.
+    private final Queue<RetryablePoint> pending_retries;
 
-        this.database_name = database_name;
+    // Points and estimated bytes in pending_retries, counted against the buffer bounds.
+    private transient AtomicInteger retry_records;
 
-        this.empty_list_timestamp = System.currentTimeMillis();
+    private transient AtomicLong retry_bytes;
 
-        this.records_already_buffered = new LinkedBlockingQueue();
+    private transient DeadLetterWriter dead_letter_writer;
 
-        this.region = region;
+    // First failure an async callback could not handle, e.g. a dead letter it could not write;
+    // rethrown on the task thread by the next invoke, timer or checkpoint.
+    private transient AtomicReference<RuntimeException> async_failure;
 
-        this.table_name = table_name;
+    public TimestreamSink(TimestreamSinkConfig config) {
+        this(config, new AwsTimestreamWriter());
+    }
+
+    /** Writes through {@code timestream_writer} instead of Timestream, e.g. a load test's stand-in. */
+    public TimestreamSink(TimestreamSinkConfig config, TimestreamWriter timestream_writer) {
+        this.config = config;
+        this.timestream_writer = timestream_writer;
+
+        this.pending_retries = new ConcurrentLinkedQueue<>();
     }
 
     @Override
     public void open(Configuration parameters) throws Exception {
         super.open(parameters);
 
-        final ClientConfiguration client_configuration = new ClientConfiguration()
-                .withMaxConnections(5000)
-                .withRequestTimeout(20 * 1000)
-                .withMaxErrorRetry(10);
+        this.write_controller = new AdaptiveWriteController(config);
+
+        this.async_failure = new AtomicReference<>();
+
+        if (config.isAsyncWrites()) {
+            this.in_flight_limit = write_controller.getInFlightLimit();
+            this.in_flight_requests = new ResizableSemaphore(in_flight_limit);
+        }
+
+        this.timestream_writer.open(config);
+
+        this.processing_time_service = ((StreamingRuntimeContext) getRuntimeContext()).getProcessingTimeService();
+
+        this.metrics = new TimestreamSinkMetrics(
+            getRuntimeContext().getMetricGroup(),
+            records_already_buffered::size,
+            retry_records::get,
+            write_controller::getBatchSize,
+            write_controller::getInFlightLimit,
+            () -> records_already_buffered.memoryBytes() + retry_bytes.get(),
+            records_already_buffered::spilledSize,
+            records_already_buffered::spilledBytes,
+            this::bufferOccupancy);
 
-        this.aws_timestream_write_client = AmazonTimestreamWriteClientBuilder
-                .standard()
-                .withRegion(this.region)
-                .withClientConfiguration(client_configuration)
-                .build();
+        this.log_sampler = new LogSampler(config.getLogRecordsPerSecond());
+
+        this.dead_letter_writer = DeadLetterWriter.fromTarget(config.getDeadLetterTarget(), config.getRegion());
+        this.dead_letter_writer.open(config.getDeadLetterName(), getRuntimeContext().getIndexOfThisSubtask());
+
+        processing_time_service.scheduleAtFixedRate(
+            timestamp -> retryDuePoints(),
+            config.getRetryBaseBackoffMillis(),
+            config.getRetryBaseBackoffMillis());
+
+        if (config.isAdaptiveWrites()) {
+            processing_time_service.scheduleAtFixedRate(
+                timestamp -> adjustWriteLimits(),
+                config.getAdaptiveIntervalMillis(),
+                config.getAdaptiveIntervalMillis());
+        }
+
+        // Records restored from a checkpoint must not wait for the next element to arrive.
+        if (!records_already_buffered.isEmpty()) {
+            registerFlushTimer();
+        }
     }
 
     @Override
-    public void invoke(Collection<TimestreamPoint> points, Context context) {
-      records_already_buffered.addAll(createRecords(points));
+    public void close() throws Exception {
+        if (timestream_writer != null) {
+            if (config.isAsyncWrites()) {
+                awaitInFlightRequests();
+            }
+
+            timestream_writer.close();
+        }
+
+        if (dead_letter_writer != null) {
+            dead_letter_writer.close();
+        }
+
+        if (records_already_buffered != null) {
+            records_already_buffered.close();
+        }
+
+        super.close();
+
+        // Only once everything is closed, so a failed callback does not leak the writers.
+        if (async_failure != null) {
+            checkAsyncFailure();
+        }
+    }
+
+    @Override
+    public void invoke(Collection<TimestreamPoint> points, Context context) throws Exception {
+        checkAsyncFailure();
+
+        for (TimestreamPoint point : points) {
+            while (!records_already_buffered.offer(point)) {
+                awaitBufferCapacity();
+            }
+        }
+
+        records_already_buffered.refill();
+
+        while (records_already_buffered.memorySize() >= write_controller.getBatchSize()
+                || records_already_buffered.memoryBytes() >= config.getMaxBatchBytes()) {
+            writeBatch(drainBatch());
+        }
+
+        if (!records_already_buffered.isEmpty()) {
+            registerFlushTimer();
+        }
+    }
+
+    /**
+     * Fired on the task thread once the oldest buffered record has waited max_linger_millis,
+     * so quiet shards still get their partial batches written.
+     */
+    @Override
+    public void onProcessingTime(long timestamp) throws IOException {
+        flush_timer_registered = false;
+
+        checkAsyncFailure();
+
+        if (!records_already_buffered.isEmpty()) {
+            logger.debug("xDEBUGx xTimestreamSinkx <on_processing_time> Flushing {} records after linger interval", records_already_buffered.size());
+        }
+
+        records_already_buffered.refill();
+
+        while (records_already_buffered.memorySize() > 0) {
+            writeBatch(drainBatch());
+
+            records_already_buffered.refill();
+        }
+
+        // Spilled points that did not fit back in memory, with the retries still holding it.
+        if (!records_already_buffered.isEmpty()) {
+            registerFlushTimer();
+        }
+    }
 
-        if (shouldPublish()) {
-            while (!records_already_buffered.isEmpty()) {
-                List<?> recordsToSend = new ArrayList<>(batch_size);
-                records_already_buffered.drainTo(recordsToSend, batch_size);
+    /**
+     * Whether a point of the given estimated bytes fits in memory next to the buffered points and
+     * the pending retries. A point always fits when nothing is held, so oversized ones get through.
+     */
+    private boolean isMemoryAvailable(long bytes) {
+        int records = records_already_buffered.memorySize() + retry_records.get();
+        long held_bytes = records_already_buffered.memoryBytes() + retry_bytes.get();
 
-                writeBatch(recordsToSend);
+        return records == 0
+            || (records < config.getMaxBufferedRecords() && held_bytes + bytes <= config.getMaxBufferedBytes());
+    }
+
+    /** Share of the memory bound in use, by records or bytes, whichever is higher. */
+    private double bufferOccupancy() {
+        double records = records_already_buffered.memorySize() + retry_records.get();
+        double bytes = records_already_buffered.memoryBytes() + retry_bytes.get();
+
+        return Math.max(records / config.getMaxBufferedRecords(), bytes / config.getMaxBufferedBytes());
+    }
+
+    /**
+     * Called on the task thread while a point fits neither in memory nor on disk: writes what is
+     * buffered, or re-sends the due retries, or waits for the next retry to fall due. Until the
+     * memory held goes down invoke() does not return, which backpressures the upstream operators.
+     */
+    private void awaitBufferCapacity() throws InterruptedException {
+        long started_at = System.currentTimeMillis();
+
+        if (records_already_buffered.memorySize() > 0) {
+            writeBatch(drainBatch());
+        } else if (!retryDuePoints()) {
+            Thread.sleep(millisUntilNextRetry());
+        }
+
+        metrics.backpressured(System.currentTimeMillis() - started_at);
+    }
+
+    private long millisUntilNextRetry() {
+        long now = System.currentTimeMillis();
+        long next_retry_at = now + config.getRetryBaseBackoffMillis();
+
+        for (RetryablePoint retryable_point : pending_retries) {
+            next_retry_at = Math.min(next_retry_at, retryable_point.getRetryAtMillis());
+        }
+
+        return Math.max(1L, next_retry_at - now);
+    }
+
+    private void registerFlushTimer() {
+        if (flush_timer_registered) {
+            return;
+        }
+
+        flush_timer_registered = true;
+
+        processing_time_service.registerTimer(
+            processing_time_service.getCurrentProcessingTime() + config.getMaxLingerMillis(),
+            this);
+    }
+
+    private List<TimestreamPoint> drainBatch() {
+        int batch_size = write_controller.getBatchSize();
+        List<TimestreamPoint> records_to_send = new ArrayList<>(batch_size);
+        long batch_bytes = 0;
+
+        while (records_to_send.size() < batch_size && records_already_buffered.memorySize() > 0) {
+            long record_bytes = estimateRecordBytes(records_already_buffered.peek());
+
+            if (!records_to_send.isEmpty() && batch_bytes + record_bytes > config.getMaxBatchBytes()) {
+                break;
             }
+
+            records_to_send.add(records_already_buffered.poll());
+
+            batch_bytes += record_bytes;
         }
+
+        return records_to_send;
     }
 
-    private void writeBatch(List records_to_send) {
+    static long estimateRecordBytes(TimestreamPoint point) {
+        // A millisecond epoch is 13 digits once written as the record's Time string.
+        long bytes = RECORD_OVERHEAD_BYTES
+            + length(point.getMeasureName())
+            + length(point.getMeasureValue())
+            + 13;
+
+        for (int i = 0; i < point.getDimensionCount(); i++) {
+            bytes += DIMENSION_OVERHEAD_BYTES + length(point.getDimensionName(i)) + length(point.getDimensionValue(i));
+        }
+
+        for (TimestreamMeasure measure : point.getMeasures()) {
+            bytes += DIMENSION_OVERHEAD_BYTES + length(measure.getName()) + length(measure.getValue());
+        }
+
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private void writeBatch(List<TimestreamPoint> points_to_send) {
+        writeBatch(points_to_send, null);
+    }
+
+    /**
+     * @param attempts failed attempts so far for each point, or null for a batch of fresh points
+     */
+    private void writeBatch(List<TimestreamPoint> points_to_send, int[] attempts) {
+        List<Record> records = createRecords(points_to_send);
+
         WriteRecordsRequest write_records_request = new WriteRecordsRequest()
-                .withDatabaseName(this.database_name)
-                .withTableName(this.table_name)
-                .withRecords(records_to_send);
+                .withDatabaseName(config.getDatabaseName())
+                .withTableName(config.getTableName());
+
+        if (config.isCommonAttributes()) {
+            write_records_request.setCommonAttributes(CommonAttributes.extract(records));
+        }
+
+        write_records_request.setRecords(records);
+
+        metrics.batchSent(points_to_send.size());
+        write_controller.batchSent(points_to_send.size());
+
+        if (config.isAsyncWrites()) {
+            writeBatchAsync(write_records_request, points_to_send, attempts);
+
+            return;
+        }
+
+        long started_at = System.currentTimeMillis();
 
         try {
-            WriteRecordsResult write_records_result = this.aws_timestream_write_client.writeRecords(write_records_request);
+            onWriteSuccess(timestream_writer.writeRecords(write_records_request), points_to_send, started_at);
+        } catch (Exception e) {
+            onWriteFailure(e, points_to_send, attempts, started_at);
+        }
+    }
+
+    private void writeBatchAsync(WriteRecordsRequest write_records_request, List<TimestreamPoint> points_to_send, int[] attempts) {
+        try {
+            if (!in_flight_requests.tryAcquire()) {
+                write_controller.inFlightLimitReached();
+
+                in_flight_requests.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new RuntimeException("Interrupted while waiting for an in-flight Timestream write slot", e);
+        }
+
+        long started_at = System.currentTimeMillis();
+
+        try {
+            timestream_writer.writeRecordsAsync(
+                write_records_request,
+                new AsyncHandler<WriteRecordsRequest, WriteRecordsResult>() {
+                    @Override
+                    public void onError(Exception exception) {
+                        try {
+                            onWriteFailure(exception, points_to_send, attempts, started_at);
+                        } catch (RuntimeException e) {
+                            recordAsyncFailure(e);
+                        } finally {
+                            in_flight_requests.release();
+                        }
+                    }
+
+                    @Override
+                    public void onSuccess(WriteRecordsRequest request, WriteRecordsResult write_records_result) {
+                        try {
+                            onWriteSuccess(write_records_result, points_to_send, started_at);
+                        } catch (RuntimeException e) {
+                            recordAsyncFailure(e);
+                        } finally {
+                            in_flight_requests.release();
+                        }
+                    }
+                });
+        } catch (RuntimeException e) {
+            in_flight_requests.release();
+
+            onWriteFailure(e, points_to_send, attempts, started_at);
+        }
+    }
+
+    /** Keeps the first failure for the task thread; exceptions thrown on SDK callback threads are lost. */
+    private void recordAsyncFailure(RuntimeException failure) {
+        logger.error("xERRORx xTimestreamSinkx <async_failure> {}", failure.getMessage(), failure);
 
+        async_failure.compareAndSet(null, failure);
+    }
+
+    private void checkAsyncFailure() throws IOException {
+        RuntimeException failure = async_failure.get();
+
+        if (failure != null) {
+            throw new IOException("Asynchronous Timestream write failed", failure);
+        }
+    }
+
+    private void onWriteSuccess(WriteRecordsResult write_records_result, List<TimestreamPoint> points_sent, long started_at) {
+        long latency_millis = System.currentTimeMillis() - started_at;
+
+        metrics.batchWritten(points_sent.size(), latency_millis);
+        write_controller.writeCompleted(latency_millis);
+
+        if (log_sampler.shouldLog()) {
             logger.info("xINFOx xTimestreamSinkx <write_records_result/status_code> {}", write_records_result.getSdkHttpMetadata().getHttpStatusCode());
+        }
+    }
+
+    /**
+     * Retryable failures (throttling, internal errors, network problems) go back to the retry
+     * queue with backoff; everything else, and points out of attempts, goes to the dead letters.
+     */
+    private void onWriteFailure(Exception exception, List<TimestreamPoint> points_sent, int[] attempts, long started_at) {
+        long latency_millis = System.currentTimeMillis() - started_at;
+
+        write_controller.writeCompleted(latency_millis);
+
+        if (exception instanceof RejectedRecordsException) {
+            List<RejectedRecord> rejected_records = ((RejectedRecordsException) exception).getRejectedRecords();
+
+            // The records that were not rejected have been written.
+            metrics.batchWritten(points_sent.size() - rejected_records.size(), latency_millis);
+
+            logRejectedRecords(rejected_records);
 
-            empty_list_timestamp = System.currentTimeMillis();
+            for (RejectedRecord rejected_record : rejected_records) {
+                int index = rejected_record.getRecordIndex();
+                RejectedRecordReason reason = RejectedRecordReason.classify(rejected_record);
+
+                if (reason == RejectedRecordReason.THROTTLED) {
+                    write_controller.throttled();
+                }
+
+                retryOrDeadLetter(points_sent.get(index), attemptOf(attempts, index), reason.isRetryable(), reason.metricName());
+            }
+
+            return;
+        }
+
+        metrics.batchFailed(latency_millis);
+
+        if (isThrottling(exception)) {
+            write_controller.throttled();
+        }
+
+        boolean retryable = isRetryable(exception);
+
+        if (!retryable || log_sampler.shouldLog()) {
+            logger.error("xERRORx xTimestreamSinkx {}", exception.getMessage(), exception);
+        }
+
+        String reason = exception.getClass().getSimpleName();
+
+        for (int i = 0; i < points_sent.size(); i++) {
+            retryOrDeadLetter(points_sent.get(i), attemptOf(attempts, i), retryable, reason);
+        }
+    }
+
+    private void retryOrDeadLetter(TimestreamPoint point, int failed_attempts, boolean retryable, String reason) {
+        int attempt = failed_attempts + 1;
+
+        if (retryable && attempt <= config.getMaxRetryAttempts()) {
+            retry_records.incrementAndGet();
+            retry_bytes.addAndGet(estimateRecordBytes(point));
+
+            pending_retries.add(new RetryablePoint(point, attempt, System.currentTimeMillis() + backoffMillis(attempt)));
+
+            metrics.retryScheduled();
+
+            return;
+        }
+
+        metrics.deadLettered();
+
+        try {
+            dead_letter_writer.write(point, retryable ? "retries_exhausted:" + reason : reason);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write Timestream dead letter", e);
+        }
+    }
+
+    /** Exponential backoff with "equal jitter": a random delay in [backoff / 2, backoff]. */
+    private long backoffMillis(int attempt) {
+        long backoff = config.getRetryBaseBackoffMillis() << Math.min(attempt - 1, 20);
+        long capped_backoff = Math.min(config.getRetryMaxBackoffMillis(), backoff);
+
+        return capped_backoff / 2 + ThreadLocalRandom.current().nextLong(capped_backoff / 2 + 1);
+    }
+
+    private static int attemptOf(int[] attempts, int index) {
+        return attempts == null ? 0 : attempts[index];
+    }
+
+    private static boolean isThrottling(Exception exception) {
+        return exception instanceof ThrottlingException
+            || (exception instanceof AmazonServiceException && ((AmazonServiceException) exception).getStatusCode() == 429);
+    }
+
+    private static boolean isRetryable(Exception exception) {
+        if (exception instanceof ThrottlingException || exception instanceof InternalServerException) {
+            return true;
+        }
+
+        if (exception instanceof AmazonServiceException) {
+            AmazonServiceException service_exception = (AmazonServiceException) exception;
+
+            return service_exception.getStatusCode() >= 500 || service_exception.getStatusCode() == 429;
+        }
+
+        // Client-side failures such as timeouts and connection resets.
+        return exception instanceof SdkClientException;
+    }
+
+    /**
+     * Runs on the task thread every retry_base_backoff_millis, and while the buffer is full, and
+     * re-sends the pending retries whose backoff has elapsed; returns whether there were any.
+     */
+    private boolean retryDuePoints() {
+        if (pending_retries.isEmpty()) {
+            return false;
+        }
 
-        } catch (RejectedRecordsException error) {
-            List<RejectedRecord> rejected_records = error.getRejectedRecords();
+        long now = System.currentTimeMillis();
+        List<RetryablePoint> due = new ArrayList<>();
 
+        for (Iterator<RetryablePoint> iterator = pending_retries.iterator(); iterator.hasNext(); ) {
+            RetryablePoint retryable_point = iterator.next();
+
+            if (retryable_point.getRetryAtMillis() <= now) {
+                due.add(retryable_point);
+
+                iterator.remove();
+
+                retry_records.decrementAndGet();
+                retry_bytes.addAndGet(-estimateRecordBytes(retryable_point.getPoint()));
+            }
+        }
+
+        int batch_size = write_controller.getBatchSize();
+
+        for (int start = 0; start < due.size(); start += batch_size) {
+            List<RetryablePoint> batch = due.subList(start, Math.min(due.size(), start + batch_size));
+            List<TimestreamPoint> points = new ArrayList<>(batch.size());
+            int[] attempts = new int[batch.size()];
+
+            for (int i = 0; i < batch.size(); i++) {
+                points.add(batch.get(i).getPoint());
+                attempts[i] = batch.get(i).getAttempt();
+            }
+
+            writeBatch(points, attempts);
+        }
+
+        return !due.isEmpty();
+    }
+
+    private void awaitInFlightRequests() throws InterruptedException {
+        in_flight_requests.acquire(in_flight_limit);
+        in_flight_requests.release(in_flight_limit);
+    }
+
+    /** Runs on the task thread every adaptive_interval_millis. */
+    private void adjustWriteLimits() {
+        if (!write_controller.adjust()) {
+            return;
+        }
+
+        if (in_flight_requests != null) {
+            int new_in_flight_limit = write_controller.getInFlightLimit();
+
+            if (new_in_flight_limit > in_flight_limit) {
+                in_flight_requests.release(new_in_flight_limit - in_flight_limit);
+            } else {
+                in_flight_requests.reducePermits(in_flight_limit - new_in_flight_limit);
+            }
+
+            in_flight_limit = new_in_flight_limit;
+        }
+
+        logger.debug("xDEBUGx xTimestreamSinkx <adjust_write_limits> batch_size {} in_flight_limit {}", write_controller.getBatchSize(), in_flight_limit);
+    }
+
+    private void logRejectedRecords(List<RejectedRecord> rejected_records) {
+        for (RejectedRecord rejected_record : rejected_records) {
+            metrics.recordRejected(RejectedRecordReason.classify(rejected_record));
+        }
+
+        if (log_sampler.shouldLog()) {
             logger.warn("xWARNx xTimestreamSinkx <rejected_records/size> {}", rejected_records.size());
 
             for (int i = rejected_records.size() - 1; i >= 0; i--) {
                 logger.warn("xWARNx xTimestreamSinkx <rejected_record> {}", rejected_records.get(i));
                 logger.warn("xWARNx xTimestreamSinkx <rejected_record/reason {}", rejected_records.get(i).getReason());
             }
-        } catch (Exception e) {
-            logger.error("xERRORx xTimestreamSinkx {}", e.getMessage(), e);
         }
     }
 
-    private Collection createRecords(Collection<TimestreamPoint> points) {
-        return points.stream()
-                .map(point -> new com.amazonaws.services.timestreamwrite.model.Record()
-                        .withDimensions(point.getDimensions().entrySet().stream()
-                                .map(entry -> new Dimension()
-                                        .withName(entry.getKey())
-                                        .withValue(entry.getValue()))
-                                .collect(Collectors.toList()))
-                        .withMeasureName(point.getMeasureName())
-                        .withMeasureValueType(point.getMeasureValueType())
-                        .withMeasureValue(point.getMeasureValue())
-                        .withTimeUnit(point.getTimeUnit())
-                        .withTime(String.valueOf(point.getTime())))
-                .collect(Collectors.toList());
+    // Package-private for the record-building benchmarks.
+    static List<Record> createRecords(Collection<TimestreamPoint> points) {
+        List<Record> records = new ArrayList<>(points.size());
+
+        for (TimestreamPoint point : points) {
+            records.add(createRecord(point));
+        }
+
+        return records;
     }
 
-    private boolean shouldPublish() {
-        if (records_already_buffered.size() >= batch_size) {
-            logger.info("xINFOx xTimestreamSinkx <should_publish> Batch of size {} should get published", records_already_buffered.size());
+    private static Record createRecord(TimestreamPoint point) {
+        List<Dimension> dimensions = new ArrayList<>(point.getDimensionCount());
 
-            return true;
-        } else if (System.currentTimeMillis() - empty_list_timestamp >= RECORDS_FLUSH_INTERVAL_MILLISECONDS) {
-            logger.info("xINFOx xTimestreamSinkx <should_publish> Records after flush interval should get published");
+        for (int i = 0; i < point.getDimensionCount(); i++) {
+            dimensions.add(new Dimension()
+                    .withName(point.getDimensionName(i))
+                    .withValue(point.getDimensionValue(i)));
+        }
 
-            return true;
-        } else {
-            return false;
+        Record record = new Record()
+                .withDimensions(dimensions)
+                .withMeasureName(point.getMeasureName())
+                .withMeasureValueType(point.getMeasureValueType())
+                .withTimeUnit(point.getTimeUnit())
+                .withTime(String.valueOf(point.getTime()));
+
+        if (point.getMeasureValueType() == MeasureValueType.MULTI) {
+            return record.withMeasureValues(point.getMeasures().stream()
+                    .map(measure -> new MeasureValue()
+                            .withName(measure.getName())
+                            .withValue(measure.getValue())
+                            .withType(measure.getType()))
+                    .collect(Collectors.toList()));
         }
+
+        return record.withMeasureValue(point.getMeasureValue());
     }
 
     @Override
     public void snapshotState(FunctionSnapshotContext functionSnapshotContext) throws Exception {
-        current_checkpoint_state.clear();
-        for (Object bufferedRecord : records_already_buffered) {
-            current_checkpoint_state.add(bufferedRecord);
+        // Requests already handed to the async client are no longer in the buffer, so the
+        // checkpoint may only complete once they are acknowledged (at-least-once). Their
+        // failures have been moved to the retry queue or the dead letters by then.
+        if (config.isAsyncWrites()) {
+            awaitInFlightRequests();
+
+            checkAsyncFailure();
         }
+
+        // Spilled points included: the spill files are not restored.
+        List<TimestreamPoint> buffered_points = new ArrayList<>(records_already_buffered.size());
+
+        records_already_buffered.forEach(buffered_points::add);
+
+        current_checkpoint_state.update(buffered_points);
+
+        retry_checkpoint_state.update(new ArrayList<>(pending_retries));
+
+        dead_letter_writer.flush();
     }
 
     @Override
     public void initializeState(FunctionInitializationContext functionInitializationContext) throws Exception {
-        ListStateDescriptor<com.amazonaws.services.timestreamwrite.model.Record> descriptor = new ListStateDescriptor<>("recordList", com.amazonaws.services.timestreamwrite.model.Record.class);
+        ListStateDescriptor<TimestreamPoint> descriptor = new ListStateDescriptor<>("buffered_points", TimestreamPointSerializer.INSTANCE);
+        ListStateDescriptor<RetryablePoint> retry_descriptor = new ListStateDescriptor<>("pending_retries", RetryablePointSerializer.INSTANCE);
 
         current_checkpoint_state = functionInitializationContext.getOperatorStateStore().getListState(descriptor);
+        retry_checkpoint_state = functionInitializationContext.getOperatorStateStore().getListState(retry_descriptor);
+
+        retry_records = new AtomicInteger();
+        retry_bytes = new AtomicLong();
+        records_already_buffered = new PointBuffer(createSpillQueue(), this::isMemoryAvailable);
 
         if (functionInitializationContext.isRestored()) {
-          logger.info("xINFOx xTimestreamSinkx ", "InitializeState: Running from inside if statement.");
+            for (RetryablePoint retryable_point : retry_checkpoint_state.get()) {
+                pending_retries.add(retryable_point);
+
+                retry_records.incrementAndGet();
+                retry_bytes.addAndGet(estimateRecordBytes(retryable_point.getPoint()));
+            }
+
+            for (TimestreamPoint point : current_checkpoint_state.get()) {
+                records_already_buffered.add(point);
+            }
+
+            logger.info("xINFOx xTimestreamSinkx <initialize_state> Restored {} buffered points and {} pending retries", records_already_buffered.size(), pending_retries.size());
+        }
+    }
+
+    private SpillQueue createSpillQueue() throws IOException {
+        if (!config.isSpillEnabled()) {
+            return null;
+        }
+
+        // Unique per attempt: files of a failed attempt are garbage, its points are in the checkpoint.
+        File directory = new File(
+            config.getSpillDirectory(),
+            config.getTableName() + "-" + getRuntimeContext().getIndexOfThisSubtask() + "-" + UUID.randomUUID());
+
+        return new SpillQueue(directory, config.getMaxSpillBytes());
+    }
+
+    /** A semaphore whose permits can also be taken away, going negative while requests are in flight. */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
 
-            /* for (com.amazonaws.services.timestreamwrite.model.Record element : checkPointedState.get()) {
-                bufferedRecords.add(element);
-            }*/
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
         }
     }
 }
@@ -0,0 +1,398 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+
+public class TimestreamSinkConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final String DEFAULT_REGION_NAME = "eu-west-1";
+    private static final String DEFAULT_DB_NAME = "Polytag-DEV";
+    private static final String DEFAULT_TABLE_NAME = "Polytag-DEV";
+
+    private final String region;
+    private final String database_name;
+    private final String table_name;
+
+    private int batch_size = 75;
+    private long max_linger_millis = 60L * 1000L;
+    private long max_batch_bytes = 1000L * 1000L;
+
+    private boolean common_attributes = true;
+
+    private boolean async_writes = false;
+    private int max_in_flight_requests = 50;
+
+    private boolean adaptive_writes = false;
+    private int adaptive_min_batch_size = 10;
+    private int adaptive_max_batch_size = 100;
+    private int adaptive_min_in_flight_requests = 1;
+    private long adaptive_target_latency_millis = 1000L;
+    private long adaptive_interval_millis = 1000L;
+
+    private int max_buffered_records = 100 * 1000;
+    private long max_buffered_bytes = 64L * 1024L * 1024L;
+    private String spill_directory = "";
+    private long max_spill_bytes = 1024L * 1024L * 1024L;
+
+    private int max_retry_attempts = 5;
+    private int sdk_max_error_retry = -1;
+    private long retry_base_backoff_millis = 200L;
+    private long retry_max_backoff_millis = 30L * 1000L;
+    private String dead_letter_target = "log";
+    private String dead_letter_name = "dead-letters";
+
+    private int log_records_per_second = 0;
+
+    public TimestreamSinkConfig(String region, String database_name, String table_name) {
+        this.region = region;
+        this.database_name = database_name;
+        this.table_name = table_name;
+    }
+
+    public static TimestreamSinkConfig fromParameterTool(ParameterTool parameter) {
+        return new TimestreamSinkConfig(
+                parameter.get("region", DEFAULT_REGION_NAME),
+                parameter.get("timestream_database_name", DEFAULT_DB_NAME),
+                parameter.get("timestream_table_name", DEFAULT_TABLE_NAME))
+            .withBatchSize(Integer.parseInt(parameter.get("timestream_ingest_batch_size", "75")))
+            .withMaxLingerMillis(Long.parseLong(parameter.get("timestream_flush_max_linger_millis", "60000")))
+            .withMaxBatchBytes(Long.parseLong(parameter.get("timestream_flush_max_batch_bytes", "1000000")))
+            .withCommonAttributes(parameter.get("timestream_common_attributes", "true").equals("true"))
+            .withAsyncWrites(parameter.get("timestream_async_writes", "false").equals("true"))
+            .withMaxInFlightRequests(Integer.parseInt(parameter.get("timestream_max_in_flight_requests", "50")))
+            .withAdaptiveWrites(parameter.get("timestream_adaptive_writes", "false").equals("true"))
+            .withAdaptiveBatchSize(
+                Integer.parseInt(parameter.get("timestream_adaptive_min_batch_size", "10")),
+                Integer.parseInt(parameter.get("timestream_adaptive_max_batch_size", "100")))
+            .withAdaptiveMinInFlightRequests(Integer.parseInt(parameter.get("timestream_adaptive_min_in_flight_requests", "1")))
+            .withAdaptiveTargetLatencyMillis(Long.parseLong(parameter.get("timestream_adaptive_target_latency_millis", "1000")))
+            .withAdaptiveIntervalMillis(Long.parseLong(parameter.get("timestream_adaptive_interval_millis", "1000")))
+            .withMaxBuffered(
+                Integer.parseInt(parameter.get("timestream_buffer_max_records", "100000")),
+                Long.parseLong(parameter.get("timestream_buffer_max_bytes", "67108864")))
+            .withSpill(
+                parameter.get("timestream_buffer_spill_directory", ""),
+                Long.parseLong(parameter.get("timestream_buffer_spill_max_bytes", "1073741824")))
+            .withMaxRetryAttempts(Integer.parseInt(parameter.get("timestream_max_retry_attempts", "5")))
+            .withSdkMaxErrorRetry(Integer.parseInt(parameter.get("timestream_sdk_max_error_retry", "-1")))
+            .withRetryBackoffMillis(
+                Long.parseLong(parameter.get("timestream_retry_base_backoff_millis", "200")),
+                Long.parseLong(parameter.get("timestream_retry_max_backoff_millis", "30000")))
+            .withDeadLetterTarget(parameter.get("timestream_dead_letter_target", "log"))
+            .withDeadLetterName(parameter.get("timestream_dead_letter_name", "dead-letters"))
+            .withLogRecordsPerSecond(Integer.parseInt(parameter.get("log_records_per_second", "0")));
+    }
+
+    public TimestreamSinkConfig withBatchSize(int batch_size) {
+        if (batch_size < 1 || batch_size > 100) {
+            throw new IllegalArgumentException("batch_size must be between 1 and 100, got " + batch_size);
+        }
+
+        this.batch_size = batch_size;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withMaxLingerMillis(long max_linger_millis) {
+        if (max_linger_millis < 1) {
+            throw new IllegalArgumentException("max_linger_millis must be positive, got " + max_linger_millis);
+        }
+
+        this.max_linger_millis = max_linger_millis;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withMaxBatchBytes(long max_batch_bytes) {
+        if (max_batch_bytes < 1) {
+            throw new IllegalArgumentException("max_batch_bytes must be positive, got " + max_batch_bytes);
+        }
+
+        this.max_batch_bytes = max_batch_bytes;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withCommonAttributes(boolean common_attributes) {
+        this.common_attributes = common_attributes;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withAsyncWrites(boolean async_writes) {
+        this.async_writes = async_writes;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withMaxInFlightRequests(int max_in_flight_requests) {
+        if (max_in_flight_requests < 1) {
+            throw new IllegalArgumentException("max_in_flight_requests must be at least 1, got " + max_in_flight_requests);
+        }
+
+        this.max_in_flight_requests = max_in_flight_requests;
+
+        return this;
+    }
+
+    /**
+     * Lets the sink move its batch size within the adaptive bounds and its in-flight request limit
+     * between the adaptive minimum and max_in_flight_requests, see {@link AdaptiveWriteController}.
+     * batch_size is where it starts.
+     */
+    public TimestreamSinkConfig withAdaptiveWrites(boolean adaptive_writes) {
+        this.adaptive_writes = adaptive_writes;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withAdaptiveBatchSize(int adaptive_min_batch_size, int adaptive_max_batch_size) {
+        if (adaptive_min_batch_size < 1 || adaptive_max_batch_size > 100 || adaptive_min_batch_size > adaptive_max_batch_size) {
+            throw new IllegalArgumentException("adaptive batch size bounds must satisfy 1 <= min <= max <= 100, got "
+                + adaptive_min_batch_size + " and " + adaptive_max_batch_size);
+        }
+
+        this.adaptive_min_batch_size = adaptive_min_batch_size;
+        this.adaptive_max_batch_size = adaptive_max_batch_size;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withAdaptiveMinInFlightRequests(int adaptive_min_in_flight_requests) {
+        if (adaptive_min_in_flight_requests < 1) {
+            throw new IllegalArgumentException("adaptive_min_in_flight_requests must be at least 1, got " + adaptive_min_in_flight_requests);
+        }
+
+        this.adaptive_min_in_flight_requests = adaptive_min_in_flight_requests;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withAdaptiveTargetLatencyMillis(long adaptive_target_latency_millis) {
+        if (adaptive_target_latency_millis < 1) {
+            throw new IllegalArgumentException("adaptive_target_latency_millis must be positive, got " + adaptive_target_latency_millis);
+        }
+
+        this.adaptive_target_latency_millis = adaptive_target_latency_millis;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withAdaptiveIntervalMillis(long adaptive_interval_millis) {
+        if (adaptive_interval_millis < 1) {
+            throw new IllegalArgumentException("adaptive_interval_millis must be positive, got " + adaptive_interval_millis);
+        }
+
+        this.adaptive_interval_millis = adaptive_interval_millis;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withMaxRetryAttempts(int max_retry_attempts) {
+        if (max_retry_attempts < 0) {
+            throw new IllegalArgumentException("max_retry_attempts must not be negative, got " + max_retry_attempts);
+        }
+
+        this.max_retry_attempts = max_retry_attempts;
+
+        return this;
+    }
+
+    /**
+     * Retries the AWS SDK makes on its own before the sink sees a failure; -1 (default) picks 0
+     * while the sink retries or adapts its write limits itself, so throttling reaches it at once
+     * and the two backoffs do not stack, and the SDK default of 10 otherwise.
+     */
+    public TimestreamSinkConfig withSdkMaxErrorRetry(int sdk_max_error_retry) {
+        if (sdk_max_error_retry < -1) {
+            throw new IllegalArgumentException("sdk_max_error_retry must be -1 (automatic) or more, got " + sdk_max_error_retry);
+        }
+
+        this.sdk_max_error_retry = sdk_max_error_retry;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withRetryBackoffMillis(long retry_base_backoff_millis, long retry_max_backoff_millis) {
+        if (retry_base_backoff_millis < 1 || retry_max_backoff_millis < retry_base_backoff_millis) {
+            throw new IllegalArgumentException("retry backoff must satisfy 0 < base <= max, got "
+                + retry_base_backoff_millis + " and " + retry_max_backoff_millis);
+        }
+
+        this.retry_base_backoff_millis = retry_base_backoff_millis;
+        this.retry_max_backoff_millis = retry_max_backoff_millis;
+
+        return this;
+    }
+
+    /**
+     * Bounds the points held in memory, buffered and waiting for a retry together; once either
+     * bound is reached the sink spills to disk if it can, otherwise it stops taking input.
+     */
+    public TimestreamSinkConfig withMaxBuffered(int max_buffered_records, long max_buffered_bytes) {
+        if (max_buffered_records < 1 || max_buffered_bytes < 1) {
+            throw new IllegalArgumentException("buffer bounds must be positive, got "
+                + max_buffered_records + " records and " + max_buffered_bytes + " bytes");
+        }
+
+        this.max_buffered_records = max_buffered_records;
+        this.max_buffered_bytes = max_buffered_bytes;
+
+        return this;
+    }
+
+    /** An empty spill_directory turns spilling off. */
+    public TimestreamSinkConfig withSpill(String spill_directory, long max_spill_bytes) {
+        if (max_spill_bytes < 1) {
+            throw new IllegalArgumentException("max_spill_bytes must be positive, got " + max_spill_bytes);
+        }
+
+        this.spill_directory = spill_directory == null ? "" : spill_directory;
+        this.max_spill_bytes = max_spill_bytes;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withDeadLetterTarget(String dead_letter_target) {
+        this.dead_letter_target = dead_letter_target;
+
+        return this;
+    }
+
+    /** Tells the dead letters of several sinks apart, e.g. in file names. */
+    public TimestreamSinkConfig withDeadLetterName(String dead_letter_name) {
+        if (dead_letter_name == null || dead_letter_name.isEmpty()) {
+            throw new IllegalArgumentException("dead_letter_name must not be empty");
+        }
+
+        this.dead_letter_name = dead_letter_name;
+
+        return this;
+    }
+
+    public TimestreamSinkConfig withLogRecordsPerSecond(int log_records_per_second) {
+        this.log_records_per_second = log_records_per_second;
+
+        return this;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getDatabaseName() {
+        return database_name;
+    }
+
+    public String getTableName() {
+        return table_name;
+    }
+
+    public int getBatchSize() {
+        return batch_size;
+    }
+
+    public long getMaxLingerMillis() {
+        return max_linger_millis;
+    }
+
+    public long getMaxBatchBytes() {
+        return max_batch_bytes;
+    }
+
+    public boolean isCommonAttributes() {
+        return common_attributes;
+    }
+
+    public boolean isAsyncWrites() {
+        return async_writes;
+    }
+
+    public int getMaxInFlightRequests() {
+        return max_in_flight_requests;
+    }
+
+    public boolean isAdaptiveWrites() {
+        return adaptive_writes;
+    }
+
+    public int getAdaptiveMinBatchSize() {
+        return adaptive_min_batch_size;
+    }
+
+    public int getAdaptiveMaxBatchSize() {
+        return adaptive_max_batch_size;
+    }
+
+    public int getAdaptiveMinInFlightRequests() {
+        return adaptive_min_in_flight_requests;
+    }
+
+    public long getAdaptiveTargetLatencyMillis() {
+        return adaptive_target_latency_millis;
+    }
+
+    public long getAdaptiveIntervalMillis() {
+        return adaptive_interval_millis;
+    }
+
+    public int getMaxRetryAttempts() {
+        return max_retry_attempts;
+    }
+
+    public int getSdkMaxErrorRetry() {
+        if (sdk_max_error_retry >= 0) {
+            return sdk_max_error_retry;
+        }
+
+        return max_retry_attempts > 0 || adaptive_writes ? 0 : 10;
+    }
+
+    public long getRetryBaseBackoffMillis() {
+        return retry_base_backoff_millis;
+    }
+
+    public int getMaxBufferedRecords() {
+        return max_buffered_records;
+    }
+
+    public long getMaxBufferedBytes() {
+        return max_buffered_bytes;
+    }
+
+    public boolean isSpillEnabled() {
+        return !spill_directory.isEmpty();
+    }
+
+    public String getSpillDirectory() {
+        return spill_directory;
+    }
+
+    public long getMaxSpillBytes() {
+        return max_spill_bytes;
+    }
+
+    public long getRetryMaxBackoffMillis() {
+        return retry_max_backoff_millis;
+    }
+
+    public String getDeadLetterTarget() {
+        return dead_letter_target;
+    }
+
+    public String getDeadLetterName() {
+        return dead_letter_name;
+    }
+
+    public int getLogRecordsPerSecond() {
+        return log_records_per_second;
+    }
+}
@@ -0,0 +1,107 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.kinesisanalytics.utils.ThreadSafeCounter;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Metrics exposed by {@link TimestreamSink} under the operator's "timestream" group. All of them
+ * may be updated from async write callbacks.
+ */
+public final class TimestreamSinkMetrics {
+    private static final int HISTOGRAM_WINDOW_SIZE = 1000;
+
+    private final Histogram batch_size;
+    private final Histogram write_latency_millis;
+    private final Counter records_written;
+    private final Counter write_errors;
+    private final Map<RejectedRecordReason, Counter> rejected_records;
+    private final Counter retries_scheduled;
+    private final Counter dead_letters;
+    private final Counter backpressure_millis;
+
+    public TimestreamSinkMetrics(
+        MetricGroup operator_group,
+        Gauge<Integer> buffer_depth,
+        Gauge<Integer> retry_queue_depth,
+        Gauge<Integer> batch_size_limit,
+        Gauge<Integer> in_flight_limit,
+        Gauge<Long> buffer_memory_bytes,
+        Gauge<Integer> spilled_records,
+        Gauge<Long> spilled_bytes,
+        Gauge<Double> buffer_occupancy
+    ) {
+        MetricGroup group = operator_group.addGroup("timestream");
+
+        this.batch_size = group.histogram("batch_size", new DescriptiveStatisticsHistogram(HISTOGRAM_WINDOW_SIZE));
+        this.write_latency_millis = group.histogram("write_latency_millis", new DescriptiveStatisticsHistogram(HISTOGRAM_WINDOW_SIZE));
+        this.records_written = group.counter("records_written", new ThreadSafeCounter());
+        this.write_errors = group.counter("write_errors", new ThreadSafeCounter());
+        this.retries_scheduled = group.counter("retries_scheduled", new ThreadSafeCounter());
+        this.dead_letters = group.counter("dead_letters", new ThreadSafeCounter());
+        this.backpressure_millis = group.counter("backpressure_millis", new ThreadSafeCounter());
+        this.rejected_records = new EnumMap<>(RejectedRecordReason.class);
+
+        MetricGroup rejected_group = group.addGroup("rejected_records");
+
+        for (RejectedRecordReason reason : RejectedRecordReason.values()) {
+            rejected_records.put(reason, rejected_group.counter(reason.metricName(), new ThreadSafeCounter()));
+        }
+
+        group.gauge("buffer_depth", buffer_depth);
+        group.gauge("retry_queue_depth", retry_queue_depth);
+        group.gauge("batch_size_limit", batch_size_limit);
+        group.gauge("in_flight_limit", in_flight_limit);
+        group.gauge("buffer_memory_bytes", buffer_memory_bytes);
+        group.gauge("spilled_records", spilled_records);
+        group.gauge("spilled_bytes", spilled_bytes);
+        group.gauge("buffer_occupancy", buffer_occupancy);
+    }
+
+    public void batchSent(int size) {
+        batch_size.update(size);
+    }
+
+    public void batchWritten(int size, long latency_millis) {
+        records_written.inc(size);
+        write_latency_millis.update(latency_millis);
+    }
+
+    public void batchFailed(long latency_millis) {
+        write_errors.inc();
+        write_latency_millis.update(latency_millis);
+    }
+
+    public void recordRejected(RejectedRecordReason reason) {
+        rejected_records.get(reason).inc();
+    }
+
+    public void retryScheduled() {
+        retries_scheduled.inc();
+    }
+
+    public void deadLettered() {
+        dead_letters.inc();
+    }
+
+    /** Time the task thread spent with a full buffer instead of taking input. */
+    public void backpressured(long millis) {
+        backpressure_millis.inc(millis);
+    }
+}
@@ -0,0 +1,31 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsRequest;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsResult;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.Serializable;
+
+/**
+ * The WriteRecords calls {@link TimestreamSink} makes, so the sink can run against Timestream or
+ * a stand-in a load test passes to it. Failures are reported as the SDK's exceptions either way, which is what
+ * the sink's retry and dead-letter handling classifies.
+ */
+public interface TimestreamWriter extends Serializable {
+
+    /** Called from the sink's open; async writers size their request threads from the config. */
+    void open(TimestreamSinkConfig config);
+
+    WriteRecordsResult writeRecords(WriteRecordsRequest request);
+
+    /** Only used with {@code timestream_async_writes}; the handler runs on a writer thread. */
+    void writeRecordsAsync(WriteRecordsRequest request, AsyncHandler<WriteRecordsRequest, WriteRecordsResult> handler);
+
+    void close();
+}
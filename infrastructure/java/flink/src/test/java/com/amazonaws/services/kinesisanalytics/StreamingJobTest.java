@@ -0,0 +1,93 @@
+/* ----------
+ * Flink imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class StreamingJobTest {
+
+    @Test
+    public void buildsOneRollupSinkForAllWindows() {
+        JobGraph job_graph = jobGraph("--rollup_data_types", "label_scan", "--event_time_watermarks", "true");
+
+        assertEquals(1, countVertices(job_graph, "TimeSeries<Polytag-DEV, Polytag-DEV-rollups>"));
+    }
+
+    @Test
+    public void buildsOneSinkPerRoutedTable() {
+        JobGraph job_graph = jobGraph(
+            "--timestream_routes", "labels,third_party",
+            "--timestream_route.labels.values", "label_scan",
+            "--timestream_route.labels.timestream_table_name", "labels",
+            "--timestream_route.third_party.values", "third_party_scan",
+            "--timestream_route.third_party.timestream_table_name", "third-party");
+
+        assertEquals(1, countVertices(job_graph, "TimeSeries<Polytag-DEV, labels>"));
+        assertEquals(1, countVertices(job_graph, "TimeSeries<Polytag-DEV, third-party>"));
+    }
+
+    @Test
+    public void rejectsRouteToTheJobsTable() {
+        assertThrows(IllegalArgumentException.class, () -> jobGraph(
+            "--timestream_routes", "labels",
+            "--timestream_route.labels.values", "label_scan"));
+    }
+
+    @Test
+    public void rejectsRoutesSharingATable() {
+        assertThrows(IllegalArgumentException.class, () -> jobGraph(
+            "--timestream_routes", "labels,pings",
+            "--timestream_route.labels.values", "label_scan",
+            "--timestream_route.labels.timestream_table_name", "labels",
+            "--timestream_route.pings.values", "label_scan_ping",
+            "--timestream_route.pings.timestream_table_name", "labels"));
+    }
+
+    @Test
+    public void rejectsPreAggregationWithoutEventTime() {
+        assertThrows(IllegalArgumentException.class, () -> jobGraph("--pre_aggregate_data_types", "mrf_scans"));
+    }
+
+    @Test
+    public void rejectsRollupsWithoutEventTime() {
+        assertThrows(IllegalArgumentException.class, () -> jobGraph("--rollup_data_types", "label_scan"));
+    }
+
+    @Test
+    public void rejectsSessionStitchingWithoutEventTime() {
+        assertThrows(IllegalArgumentException.class, () -> jobGraph("--session_stitching", "true"));
+    }
+
+    /** Builds the job graph, which is where colliding operator uids are rejected. */
+    static JobGraph jobGraph(String... args) {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+
+        StreamingJob.createTopologyFromRecords(env.fromElements(new byte[0]), ParameterTool.fromArgs(args));
+
+        return env.getStreamGraph().getJobGraph();
+    }
+
+    static int countVertices(JobGraph job_graph, String operator_name) {
+        int count = 0;
+
+        for (JobVertex vertex : job_graph.getVertices()) {
+            if (vertex.getName().contains(operator_name)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,78 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.RollupConfig;
+import com.amazonaws.services.kinesisanalytics.mapping.TimestreamPayloadParser;
+import com.amazonaws.services.kinesisanalytics.utils.HyperLogLog;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.nio.charset.StandardCharsets;
+
+public class CountScansAndUsersTest {
+    private static final String SCAN = "{\"data_type\":\"label_scan\",\"request_id\":\"%s\",\"received_at\":1700000000000,\"ip\":\"%s\",\"country\":\"UK\",\"is_ios\":\"true\"}";
+
+    private static final String NAVIGATOR = "{\"data_type\":\"label_scan_navigator\",\"request_id\":\"%s\",\"received_at\":1700000000000,"
+        + "\"product_group_id\":\"pg\",\"campaign_id\":\"c\",\"landing_page_id\":\"lp\",\"hardware_concurrency\":\"4\",\"max_touch_points\":\"5\","
+        + "\"user_agent\":\"Mozilla\",\"phone_current_language\":\"en\",\"gtin\":\"1\",\"time_spent_away\":\"0\",\"languages\":\"en\",\"screen_size\":\"1x1\"}";
+
+    private final RollupConfig config = RollupConfig.fromParameterTool(ParameterTool.fromArgs(new String[] {"--rollup_data_types", "label_scan"}));
+
+    @Test
+    public void countsScanUsersByIp() throws Exception {
+        TimestreamPayloadParser parser = parser();
+        CountScansAndUsers aggregate = new CountScansAndUsers(config.getDistinctFields(), config.getHllPrecision());
+        RollupAccumulator accumulator = aggregate.createAccumulator();
+
+        // Ten visits by three users.
+        for (int i = 0; i < 10; i++) {
+            accumulator = aggregate.add(parser.parse(json(SCAN, "visit-" + i, "10.0.0." + (i % 3)), 0L), accumulator);
+        }
+
+        assertEquals(10, accumulator.getScanCount());
+        assertEquals(3, HyperLogLog.wrap(accumulator.getUserRegisters()).estimate());
+    }
+
+    @Test
+    public void doesNotCountVisitsAsUsers() throws Exception {
+        TimestreamPayloadParser parser = parser();
+        CountScansAndUsers aggregate = new CountScansAndUsers(config.getDistinctFields(), config.getHllPrecision());
+        RollupAccumulator accumulator = aggregate.createAccumulator();
+
+        for (int i = 0; i < 10; i++) {
+            accumulator = aggregate.add(parser.parse(json(NAVIGATOR, "visit-" + i), 0L), accumulator);
+        }
+
+        assertEquals(10, accumulator.getScanCount());
+        assertTrue(HyperLogLog.wrap(accumulator.getUserRegisters()).isEmpty());
+    }
+
+    private static TimestreamPayloadParser parser() throws Exception {
+        TimestreamPayloadParser parser = new TimestreamPayloadParser(null, 0, false);
+
+        parser.open(new UnregisteredMetricsGroup());
+
+        return parser;
+    }
+
+    private static byte[] json(String format, Object... values) {
+        return String.format(format, values).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.mapping.TimestreamPayloadParser;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+public class EventIdKeySelectorTest {
+    private static final String PING = "{\"data_type\":\"label_scan_ping\",\"request_id\":\"visit-1\",\"received_at\":%d,\"time_spent_away\":\"%s\"}";
+
+    private static final String SCAN = "{\"data_type\":\"label_scan\",\"request_id\":\"visit-1\",\"received_at\":%d,\"city\":\"London\",\"is_ios\":\"true\"}";
+
+    @Test
+    public void keepsDistinctPingsOfOneVisitApart() throws Exception {
+        for (boolean multi_measure_records : new boolean[] {false, true}) {
+            TimestreamPayloadParser parser = parser(multi_measure_records);
+
+            String first_ping = key(parser, String.format(PING, 1700000000000L, "0"));
+            String second_ping = key(parser, String.format(PING, 1700000003000L, "0"));
+            String third_ping = key(parser, String.format(PING, 1700000003000L, "1500"));
+
+            assertNotEquals(first_ping, second_ping);
+            assertNotEquals(second_ping, third_ping);
+        }
+    }
+
+    @Test
+    public void matchesReplayedPing() throws Exception {
+        TimestreamPayloadParser parser = parser(false);
+        String ping = String.format(PING, 1700000003000L, "1500");
+
+        assertEquals(key(parser, ping), key(parser, ping));
+    }
+
+    @Test
+    public void keysOtherDataTypesByIdOnly() throws Exception {
+        TimestreamPayloadParser parser = parser(false);
+
+        assertEquals(key(parser, String.format(SCAN, 1700000000000L)), key(parser, String.format(SCAN, 1700000009000L)));
+    }
+
+    private static TimestreamPayloadParser parser(boolean multi_measure_records) throws Exception {
+        TimestreamPayloadParser parser = new TimestreamPayloadParser(null, 0, multi_measure_records);
+
+        parser.open(new UnregisteredMetricsGroup());
+
+        return parser;
+    }
+
+    private static String key(TimestreamPayloadParser parser, String json) {
+        Collection<TimestreamPoint> points = parser.parse(json.getBytes(StandardCharsets.UTF_8), 0L);
+
+        return new EventIdKeySelector("label_measure").getKey(points);
+    }
+}
@@ -0,0 +1,74 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class PointsWatermarkGeneratorTest {
+    private static final long MAX_OUT_OF_ORDERNESS_MILLIS = 5000L;
+
+    private static final long FUTURE_THRESHOLD_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    @Test
+    public void futureEventDoesNotMakeLaterEventsLate() {
+        PointsWatermarkGenerator generator = new PointsWatermarkGenerator(MAX_OUT_OF_ORDERNESS_MILLIS, FUTURE_THRESHOLD_MILLIS);
+        long now = System.currentTimeMillis();
+
+        generator.observe(now - 1000L);
+        generator.observe(now + TimeUnit.DAYS.toMillis(1));
+
+        // Still behind an event that arrives after the future one, a little out of order.
+        assertEquals(now - 1000L - MAX_OUT_OF_ORDERNESS_MILLIS - 1, generator.currentWatermark());
+        assertTrue(generator.currentWatermark() < now - 2000L);
+
+        generator.observe(now);
+
+        assertEquals(now - MAX_OUT_OF_ORDERNESS_MILLIS - 1, generator.currentWatermark());
+    }
+
+    @Test
+    public void eventWithinFutureThresholdAdvancesWatermark() {
+        PointsWatermarkGenerator generator = new PointsWatermarkGenerator(MAX_OUT_OF_ORDERNESS_MILLIS, FUTURE_THRESHOLD_MILLIS);
+        long ahead = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+
+        generator.observe(ahead);
+
+        assertEquals(ahead - MAX_OUT_OF_ORDERNESS_MILLIS - 1, generator.currentWatermark());
+    }
+
+    @Test
+    public void kinesisAssignerKeepsFutureTimestampButNotItsWatermark() {
+        PointsPeriodicWatermarkAssigner assigner = new PointsPeriodicWatermarkAssigner(MAX_OUT_OF_ORDERNESS_MILLIS, FUTURE_THRESHOLD_MILLIS);
+        long now = System.currentTimeMillis();
+        long future = now + TimeUnit.DAYS.toMillis(1);
+
+        assigner.extractTimestamp(points(now), Long.MIN_VALUE);
+
+        // The future event keeps its own timestamp, so RouteOutOfBoundsPoints can still dead-letter it.
+        assertEquals(future, assigner.extractTimestamp(points(future), Long.MIN_VALUE));
+        assertEquals(now - MAX_OUT_OF_ORDERNESS_MILLIS - 1, assigner.getCurrentWatermark().getTimestamp());
+    }
+
+    private static Collection<TimestreamPoint> points(long time) {
+        TimestreamPoint point = new TimestreamPoint();
+        point.setTime(time);
+
+        return Collections.singletonList(point);
+    }
+}
@@ -0,0 +1,104 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.operators;
+
+import com.amazonaws.services.kinesisanalytics.mapping.TimestreamPayloadParser;
+import com.amazonaws.services.timestream.TimestreamMeasure;
+import com.amazonaws.services.timestream.TimestreamPoint;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class StitchSessionsTest {
+    private static final long STARTED_AT = 1700000000000L;
+
+    private static final String SCAN = "{\"data_type\":\"label_scan\",\"request_id\":\"visit-1\",\"received_at\":%d,\"ip\":\"10.0.0.1\",\"country\":\"UK\",\"is_ios\":\"true\"}";
+
+    private static final String PING = "{\"data_type\":\"label_scan_ping\",\"request_id\":\"visit-1\",\"received_at\":%d,\"time_spent_away\":\"%s\"}";
+
+    private static final String NAVIGATOR = "{\"data_type\":\"label_scan_navigator\",\"request_id\":\"visit-1\",\"received_at\":%d,"
+        + "\"product_group_id\":\"pg\",\"campaign_id\":\"c\",\"landing_page_id\":\"lp\",\"hardware_concurrency\":\"4\",\"max_touch_points\":\"5\","
+        + "\"user_agent\":\"Mozilla\",\"phone_current_language\":\"en\",\"gtin\":\"1\",\"time_spent_away\":\"0\",\"languages\":\"en\",\"screen_size\":\"1x1\"}";
+
+    @Test
+    public void takesTimeSpentAwayInMilliseconds() throws Exception {
+        for (boolean multi_measure_records : new boolean[] {false, true}) {
+            Map<String, String> measures = stitch(TimeUnit.MILLISECONDS, multi_measure_records, "0", "1500", "4500");
+
+            assertEquals("visit-1", measures.get("label_measure"));
+            assertEquals("9000", measures.get("dwell_time"));
+            assertEquals("4500", measures.get("time_away"));
+            assertEquals("4500", measures.get("time_on_page"));
+            assertEquals("3", measures.get("ping_count"));
+        }
+    }
+
+    @Test
+    public void convertsTimeSpentAwayToMilliseconds() throws Exception {
+        Map<String, String> measures = stitch(TimeUnit.SECONDS, false, "0", "1.5", "4.5");
+
+        assertEquals("4500", measures.get("time_away"));
+        assertEquals("4500", measures.get("time_on_page"));
+    }
+
+    @Test
+    public void ignoresTimeSpentAwayThatIsNotANumber() throws Exception {
+        Map<String, String> measures = stitch(TimeUnit.MILLISECONDS, false, "0", "unknown", "");
+
+        assertEquals("0", measures.get("time_away"));
+        assertEquals("9000", measures.get("time_on_page"));
+    }
+
+    /** A scan, a navigator 2s later and a ping every 3s from the scan, up to 9s. */
+    private static Map<String, String> stitch(TimeUnit unit, boolean multi_measure_records, String... times_spent_away) throws Exception {
+        TimestreamPayloadParser parser = new TimestreamPayloadParser(null, 0, multi_measure_records);
+
+        parser.open(new UnregisteredMetricsGroup());
+
+        StitchSessions stitch_sessions = new StitchSessions("label_measure", 60000L, unit);
+        SessionAccumulator accumulator = new SessionAccumulator(STARTED_AT);
+
+        stitch_sessions.addEvent(accumulator, first(parser, String.format(SCAN, STARTED_AT)));
+        stitch_sessions.addEvent(accumulator, first(parser, String.format(NAVIGATOR, STARTED_AT + 2000L)));
+
+        for (int i = 0; i < times_spent_away.length; i++) {
+            stitch_sessions.addEvent(accumulator, first(parser, String.format(PING, STARTED_AT + 3000L * (i + 1), times_spent_away[i])));
+        }
+
+        TimestreamPoint session = stitch_sessions.sessionPoint("visit-1", accumulator);
+
+        assertEquals(STARTED_AT, session.getTime());
+        assertEquals("c", session.getDimension("campaign_id"));
+        assertEquals("UK", session.getDimension("country"));
+
+        Map<String, String> measures = new HashMap<>();
+
+        for (TimestreamMeasure measure : session.getMeasures()) {
+            measures.put(measure.getName(), measure.getValue());
+        }
+
+        return measures;
+    }
+
+    private static TimestreamPoint first(TimestreamPayloadParser parser, String json) {
+        return parser.parse(json.getBytes(StandardCharsets.UTF_8), 0L).iterator().next();
+    }
+}
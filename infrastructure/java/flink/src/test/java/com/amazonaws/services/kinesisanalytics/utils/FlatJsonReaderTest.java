@@ -0,0 +1,165 @@
+/* ----------
+ * Gson imports
+ * ---------- */
+package com.amazonaws.services.kinesisanalytics.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FlatJsonReaderTest {
+
+    // Shaped like the events the Lambdas put on the analytics stream.
+    private static final String[] PAYLOADS = {
+        "{\"data_type\":\"mrf_scans\",\"mrf_id\":\"5f0c6e0e-3f5b-4b8e-9a3e-2f1d0c9b8a7e\",\"gtin\":\"05012345678900\",\"count\":12}",
+        "{\"data_type\":\"label_scan\",\"received_at\":1634550000000,\"request_id\":\"2b7d\",\"city\":\"S\\u00e3o Paulo\",\"country\":\"Brazil\","
+            + "\"ip\":\"10.0.0.1\",\"latitude\":\"-23.5558\",\"longitude\":-46.6396,\"postal_code\":null,\"time_zone\":\"America/Sao_Paulo\",\"is_ios\":true}",
+        "{\"data_type\":\"label_scan_ping\",\"received_at\":\"1634550000000\",\"request_id\":\"2b7d\",\"time\":1634550005000,\"time_spent_away\":\"0\"}",
+        "{ \"data_type\" : \"label_scan_navigator\", \"received_at\" : 1634550000000, \"request_id\" : \"2b7d\", \"gtin\" : \"\","
+            + " \"hardware_concurrency\" : \"8\", \"languages\" : \"en-GB,en\", \"max_touch_points\" : \"5\", \"phone_current_language\" : \"en-GB\","
+            + " \"screen_size\" : \"390x844\", \"time_spent_away\" : \"1200\", \"campaign_id\" : \"c1\", \"landing_page_id\" : \"lp1\","
+            + " \"product_group_id\" : \"pg1\", \"user_agent\" : \"Mozilla/5.0 (iPhone; CPU iPhone OS 15_0 like Mac OS X) \\\"Safari\\\"\" }\n",
+        "{\"data_type\":\"third_party_scan\",\"received_at\":1634550000000,\"request_id\":\"9c1e\",\"third_party_id\":\"tp\",\"ratio\":1.50,\"big\":1e3}",
+        "{}"
+    };
+
+    @Test
+    public void readsStringsNumbersAndLiterals() {
+        FlatJsonReader reader = read("{\"a\":\"x\",\"b\":-12,\"c\":1.50,\"d\":true,\"e\":false}");
+
+        assertEquals(5, reader.size());
+        assertEquals("x", reader.string("a"));
+        assertEquals("-12", reader.string("b"));
+        assertEquals(-12L, reader.parseLong(reader.find("b")));
+        assertEquals("1.50", reader.string("c"));
+        assertEquals("true", reader.string("d"));
+        assertTrue(reader.valueEquals(reader.find("d"), "true"));
+        assertEquals("false", reader.string("e"));
+        assertEquals(-1, reader.find("f"));
+        assertNull(reader.string("f"));
+    }
+
+    @Test
+    public void decodesEscapedValues() {
+        FlatJsonReader reader = read("{\"a\":\"q\\\"b\\\\s\\/n\\nt\\t\",\"b\":\"caf\\u00e9 \\ud83d\\ude00\"}");
+
+        assertEquals("q\"b\\s/n\nt\t", reader.string("a"));
+        assertEquals("caf\u00e9 \ud83d\ude00", reader.string("b"));
+        assertTrue(reader.valueEquals(reader.find("b"), "caf\u00e9 \ud83d\ude00"));
+    }
+
+    @Test
+    public void findsEscapedKeys() {
+        FlatJsonReader reader = read("{\"dat\\u0061_type\":\"label_scan\",\"quo\\\"te\":\"1\"}");
+
+        assertEquals("data_type", reader.key(0));
+        assertEquals("label_scan", reader.string("data_type"));
+        assertEquals("1", reader.string("quo\"te"));
+    }
+
+    @Test
+    public void keepsNestedObjectsAndArraysRaw() {
+        FlatJsonReader reader = read("{\"a\":{\"b\":[1,{\"c\":\"}]\"}]},\"d\":[1, \"x\"],\"e\":\"after\"}");
+
+        assertEquals(3, reader.size());
+        assertEquals("{\"b\":[1,{\"c\":\"}]\"}]}", reader.string("a"));
+        assertEquals("[1, \"x\"]", reader.string("d"));
+        assertEquals("after", reader.string("e"));
+    }
+
+    @Test
+    public void tellsNullAndEmptyValuesApart() {
+        FlatJsonReader reader = read("{\"a\":null,\"b\":\"\",\"c\":\"x\"}");
+
+        assertTrue(reader.has("a"));
+        assertNull(reader.string("a"));
+        assertFalse(reader.isPresent(reader.find("a")));
+        assertEquals("", reader.string("b"));
+        assertFalse(reader.isPresent(reader.find("b")));
+        assertTrue(reader.isPresent(reader.find("c")));
+        assertFalse(reader.isPresent(reader.find("d")));
+    }
+
+    @Test
+    public void resolvesDuplicateKeysToTheLastOccurrence() {
+        FlatJsonReader reader = read("{\"a\":\"1\",\"b\":\"x\",\"a\":\"2\"}");
+
+        assertEquals(3, reader.size());
+        assertEquals(2, reader.find("a"));
+        assertEquals("2", reader.string("a"));
+
+        // A null followed by a value: the value, as the Gson mapping read it too.
+        assertEquals("2", read("{\"a\":null,\"a\":\"2\"}").string("a"));
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        String[] malformed = {
+            "",
+            "   ",
+            "[]",
+            "{",
+            "{\"a\"}",
+            "{\"a\":}",
+            "{\"a\":1,}",
+            "{\"a\":1 2}",
+            "{\"a\":\"1}",
+            "{\"a\":\"1\\\"}",
+            "{\"a\":{\"b\":1}",
+            "{a:1}",
+            "{\"a\":1}x",
+            "{\"a\":1}{\"b\":2}"
+        };
+
+        for (String json : malformed) {
+            assertThrows(json, IllegalArgumentException.class, () -> read(json));
+        }
+
+        FlatJsonReader reader = read("{\"a\":\"\\u00e\"}");
+
+        assertThrows(IllegalArgumentException.class, () -> reader.string("a"));
+    }
+
+    @Test
+    public void matchesTheGsonMappingOnPayloads() {
+        FlatJsonReader reader = new FlatJsonReader();
+        Gson gson = new Gson();
+
+        // One reader for all payloads, as in the operator.
+        for (String payload : PAYLOADS) {
+            Map<String, String> expected = gson.fromJson(payload, new TypeToken<HashMap<String, String>>() {}.getType());
+
+            reader.reset(payload.getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(payload, expected.size(), reader.size());
+
+            for (int i = 0; i < reader.size(); i++) {
+                String key = reader.key(i);
+
+                assertTrue(payload + " " + key, expected.containsKey(key));
+                assertEquals(payload + " " + key, expected.get(key), reader.string(key));
+            }
+        }
+    }
+
+    private static FlatJsonReader read(String json) {
+        return new FlatJsonReader().reset(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
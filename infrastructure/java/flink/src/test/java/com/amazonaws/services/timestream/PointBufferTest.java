@@ -0,0 +1,183 @@
+/* ----------
+ * JUnit imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.amazonaws.services.timestream.SpillQueueTest.values;
+import static com.amazonaws.services.timestream.TimestreamSinkStateTest.points;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PointBufferTest {
+    private static final int MEMORY_LIMIT = 3;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private PointBuffer buffer;
+
+    @After
+    public void closeBuffer() throws IOException {
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    public void overflowsIntoTheSpillQueue() throws IOException {
+        buffer = spillingBuffer();
+
+        offerAll("point", 10);
+
+        assertEquals(MEMORY_LIMIT, buffer.memorySize());
+        assertEquals(7, buffer.spilledSize());
+        assertTrue(buffer.spilledBytes() > 0);
+        assertEquals(10, buffer.size());
+    }
+
+    @Test
+    public void queuesNewPointsBehindSpilledOnes() throws IOException {
+        buffer = spillingBuffer();
+
+        offerAll("first", 5);
+        buffer.poll();
+
+        // Memory has room again, but the point must not overtake the spilled ones.
+        offerAll("second", 1);
+
+        assertEquals(MEMORY_LIMIT - 1, buffer.memorySize());
+        assertEquals(3, buffer.spilledSize());
+
+        List<String> expected = new ArrayList<>(values("first", 5).subList(1, 5));
+        expected.addAll(values("second", 1));
+
+        assertEquals(expected, drain());
+    }
+
+    @Test
+    public void refillsInOrderAsMemoryFrees() throws IOException {
+        buffer = spillingBuffer();
+
+        offerAll("point", 10);
+
+        List<String> polled = new ArrayList<>();
+
+        polled.add(buffer.poll().getMeasureValue());
+        polled.add(buffer.poll().getMeasureValue());
+        buffer.refill();
+
+        assertEquals(MEMORY_LIMIT, buffer.memorySize());
+        assertEquals(5, buffer.spilledSize());
+
+        polled.addAll(drain());
+
+        assertEquals(values("point", 10), polled);
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.spilledBytes());
+    }
+
+    @Test
+    public void visitsMemoryThenSpilledPointsInOrder() throws IOException {
+        buffer = spillingBuffer();
+
+        offerAll("point", 8);
+
+        // Refilling into a full memory holds one point read from the spill queue.
+        buffer.refill();
+
+        assertEquals(MEMORY_LIMIT, buffer.memorySize());
+        assertEquals(5, buffer.spilledSize());
+
+        List<String> visited = new ArrayList<>();
+
+        buffer.forEach(point -> visited.add(point.getMeasureValue()));
+
+        assertEquals(values("point", 8), visited);
+        assertEquals(8, buffer.size());
+        assertEquals(values("point", 8), drain());
+    }
+
+    @Test
+    public void refusesOverflowWithoutASpillQueue() throws IOException {
+        buffer = new PointBuffer(null, bytes -> buffer.memorySize() < MEMORY_LIMIT);
+
+        offerAll("point", MEMORY_LIMIT);
+
+        TimestreamPoint extra = points("extra", 1).iterator().next();
+
+        assertFalse(buffer.offer(extra));
+        assertEquals(MEMORY_LIMIT, buffer.size());
+
+        // Restored points are taken even beyond the bounds.
+        buffer.add(extra);
+
+        assertEquals(MEMORY_LIMIT + 1, buffer.memorySize());
+        assertEquals(0, buffer.spilledSize());
+    }
+
+    @Test
+    public void addSpillsWhenItCan() throws IOException {
+        buffer = spillingBuffer();
+
+        for (TimestreamPoint point : points("point", 5)) {
+            buffer.add(point);
+        }
+
+        assertEquals(MEMORY_LIMIT, buffer.memorySize());
+        assertEquals(2, buffer.spilledSize());
+    }
+
+    @Test
+    public void closeDeletesTheSpillDirectory() throws IOException {
+        File directory = new File(folder.getRoot(), "spill");
+
+        buffer = new PointBuffer(new SpillQueue(directory, Long.MAX_VALUE), bytes -> buffer.memorySize() < MEMORY_LIMIT);
+
+        offerAll("point", 10);
+        buffer.close();
+        buffer = null;
+
+        assertFalse(directory.exists());
+    }
+
+    private PointBuffer spillingBuffer() throws IOException {
+        return new PointBuffer(
+            new SpillQueue(new File(folder.getRoot(), "spill"), Long.MAX_VALUE),
+            bytes -> buffer.memorySize() < MEMORY_LIMIT);
+    }
+
+    private void offerAll(String prefix, int count) throws IOException {
+        for (TimestreamPoint point : points(prefix, count)) {
+            assertTrue(buffer.offer(point));
+        }
+    }
+
+    /** Polls and refills the way the sink does until the buffer is empty. */
+    private List<String> drain() throws IOException {
+        List<String> values = new ArrayList<>();
+
+        buffer.refill();
+
+        while (buffer.memorySize() > 0) {
+            values.add(buffer.poll().getMeasureValue());
+
+            buffer.refill();
+        }
+
+        return values;
+    }
+}
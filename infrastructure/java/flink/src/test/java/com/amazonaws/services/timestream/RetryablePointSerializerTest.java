@@ -0,0 +1,60 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.testutils.DeeplyEqualsChecker;
+
+import static com.amazonaws.services.timestream.TimestreamPointSerializerTest.describe;
+import static com.amazonaws.services.timestream.TimestreamPointSerializerTest.point;
+
+public class RetryablePointSerializerTest extends SerializerTestBase<RetryablePoint> {
+
+    // The retry time is not kept, so the test data leaves it at 0, as restored retries have it.
+    public RetryablePointSerializerTest() {
+        super(new DeeplyEqualsChecker().withCustomCheck(
+            (first, second) -> first instanceof RetryablePoint && second instanceof RetryablePoint,
+            (first, second, checker) -> describe((RetryablePoint) first).equals(describe((RetryablePoint) second))));
+    }
+
+    @Override
+    protected TypeSerializer<RetryablePoint> createSerializer() {
+        return RetryablePointSerializer.INSTANCE;
+    }
+
+    @Override
+    protected int getLength() {
+        return -1;
+    }
+
+    @Override
+    protected Class<RetryablePoint> getTypeClass() {
+        return RetryablePoint.class;
+    }
+
+    @Override
+    protected RetryablePoint[] getTestData() {
+        TimestreamPoint scan = point(1700000000000L, "MILLISECONDS", "label_measure", "1", MeasureValueType.BIGINT);
+        scan.addDimension("data_type", "label_scan");
+
+        TimestreamPoint multi = point(1700000000000L, "MILLISECONDS", "label_scan", null, MeasureValueType.MULTI);
+        multi.addMeasure("label_measure", "1", MeasureValueType.BIGINT);
+
+        return new RetryablePoint[] {
+            new RetryablePoint(scan, 1, 0L),
+            new RetryablePoint(multi, 4, 0L),
+            new RetryablePoint(scan, 300, 0L)
+        };
+    }
+
+    private static String describe(RetryablePoint retryable_point) {
+        return retryable_point.getAttempt() + " " + retryable_point.getRetryAtMillis() + " " + TimestreamPointSerializerTest.describe(retryable_point.getPoint());
+    }
+}
@@ -0,0 +1,193 @@
+/* ----------
+ * JUnit imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.amazonaws.services.timestream.TimestreamSinkStateTest.points;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpillQueueTest {
+    private static final int SEGMENT_BYTES = 256;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void pollsPointsInOrder() throws IOException {
+        try (SpillQueue spill = new SpillQueue(new File(folder.getRoot(), "spill"), Long.MAX_VALUE)) {
+            offerAll(spill, "point", 5);
+
+            assertEquals(5, spill.size());
+            assertTrue(spill.bytes() > 0);
+
+            assertEquals(values("point", 5), pollAll(spill));
+            assertTrue(spill.isEmpty());
+            assertEquals(0, spill.bytes());
+            assertNull(spill.poll());
+        }
+    }
+
+    @Test
+    public void refusesPointsBeyondMaxBytes() throws IOException {
+        File directory = folder.newFolder("spill");
+
+        try (SpillQueue probe = new SpillQueue(new File(directory, "probe"), Long.MAX_VALUE)) {
+            offerAll(probe, "point", 3);
+
+            // Room for exactly three points.
+            try (SpillQueue spill = new SpillQueue(new File(directory, "bounded"), probe.bytes())) {
+                List<TimestreamPoint> points = new ArrayList<>(points("point", 4));
+
+                offerAll(spill, "point", 3);
+
+                long bytes = spill.bytes();
+
+                assertFalse(spill.offer(points.get(3)));
+                assertEquals(3, spill.size());
+                assertEquals(bytes, spill.bytes());
+
+                // Reading frees the room again.
+                spill.poll();
+
+                assertTrue(spill.offer(points.get(3)));
+                assertEquals(values("point", 4).subList(1, 4), pollAll(spill));
+            }
+        }
+    }
+
+    @Test
+    public void rollsOverIntoNewSegmentsAndDeletesReadOnes() throws IOException {
+        File directory = new File(folder.getRoot(), "spill");
+
+        try (SpillQueue spill = new SpillQueue(directory, Long.MAX_VALUE, SEGMENT_BYTES)) {
+            offerAll(spill, "point", 50);
+
+            int segments = directory.list().length;
+
+            assertTrue("segments: " + segments, segments > 2);
+
+            // Reading past the first segment deletes it on the next poll.
+            List<String> polled = new ArrayList<>();
+
+            while (directory.list().length == segments) {
+                polled.add(spill.poll().getMeasureValue());
+            }
+
+            assertEquals(segments - 1, directory.list().length);
+            assertFalse(new File(directory, "segment-0").exists());
+
+            polled.addAll(pollAll(spill));
+
+            assertEquals(values("point", 50), polled);
+            assertEquals(1, directory.list().length);
+        }
+    }
+
+    @Test
+    public void writesOverTheLastSegmentOnceDrained() throws IOException {
+        File directory = new File(folder.getRoot(), "spill");
+
+        try (SpillQueue spill = new SpillQueue(directory, Long.MAX_VALUE, SEGMENT_BYTES)) {
+            offerAll(spill, "first", 2);
+            pollAll(spill);
+
+            offerAll(spill, "second", 2);
+
+            assertEquals(1, directory.list().length);
+            assertEquals(values("second", 2), pollAll(spill));
+        }
+    }
+
+    @Test
+    public void takesPointsLargerThanASegment() throws IOException {
+        File directory = new File(folder.getRoot(), "spill");
+
+        try (SpillQueue spill = new SpillQueue(directory, Long.MAX_VALUE, SEGMENT_BYTES)) {
+            TimestreamPoint large = points("point", 1).iterator().next();
+            large.setMeasureValue(new String(new char[2 * SEGMENT_BYTES]).replace('\0', 'x'));
+
+            offerAll(spill, "before", 1);
+            assertTrue(spill.offer(large));
+            offerAll(spill, "after", 1);
+
+            assertEquals(3, directory.list().length);
+            assertEquals("before-0", spill.poll().getMeasureValue());
+            assertEquals(large.getMeasureValue(), spill.poll().getMeasureValue());
+            assertEquals("after-0", spill.poll().getMeasureValue());
+        }
+    }
+
+    @Test
+    public void forEachLeavesTheQueueUnchanged() throws IOException {
+        try (SpillQueue spill = new SpillQueue(new File(folder.getRoot(), "spill"), Long.MAX_VALUE, SEGMENT_BYTES)) {
+            offerAll(spill, "point", 20);
+            spill.poll();
+
+            long bytes = spill.bytes();
+            List<String> visited = new ArrayList<>();
+
+            spill.forEach(point -> visited.add(point.getMeasureValue()));
+
+            assertEquals(values("point", 20).subList(1, 20), visited);
+            assertEquals(19, spill.size());
+            assertEquals(bytes, spill.bytes());
+            assertEquals(values("point", 20).subList(1, 20), pollAll(spill));
+        }
+    }
+
+    @Test
+    public void closeDeletesSegmentsAndDirectory() throws IOException {
+        File directory = new File(folder.getRoot(), "spill");
+        SpillQueue spill = new SpillQueue(directory, Long.MAX_VALUE, SEGMENT_BYTES);
+
+        assertTrue(directory.isDirectory());
+
+        offerAll(spill, "point", 50);
+        spill.close();
+
+        assertFalse(directory.exists());
+        assertEquals(0, spill.size());
+        assertEquals(0, spill.bytes());
+    }
+
+    static void offerAll(SpillQueue spill, String prefix, int count) throws IOException {
+        for (TimestreamPoint point : points(prefix, count)) {
+            assertTrue(spill.offer(point));
+        }
+    }
+
+    static List<String> pollAll(SpillQueue spill) throws IOException {
+        List<String> values = new ArrayList<>();
+
+        for (TimestreamPoint point = spill.poll(); point != null; point = spill.poll()) {
+            values.add(point.getMeasureValue());
+        }
+
+        return values;
+    }
+
+    static List<String> values(String prefix, int count) {
+        List<String> values = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            values.add(prefix + "-" + i);
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,123 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Test;
+
+import static com.amazonaws.services.timestream.TimestreamPointSerializerTest.describe;
+import static com.amazonaws.services.timestream.TimestreamPointSerializerTest.point;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.IOException;
+
+/** Restoring state written with format version 1, before multi-measure values, into version 2. */
+public class TimestreamPointSerializerMigrationTest {
+
+    @Test
+    public void writesTheFormatVersionAsSnapshotVersion() {
+        assertEquals(1, TimestreamPointSerializer.forFormatVersion(1).snapshotConfiguration().getCurrentVersion());
+        assertEquals(2, TimestreamPointSerializer.INSTANCE.snapshotConfiguration().getCurrentVersion());
+        assertEquals(1, new RetryablePointSerializer.RetryablePointSerializerSnapshot(1).getCurrentVersion());
+        assertEquals(2, RetryablePointSerializer.INSTANCE.snapshotConfiguration().getCurrentVersion());
+    }
+
+    @Test
+    public void migratesVersionOnePoints() throws IOException {
+        TimestreamPointSerializer v1_serializer = TimestreamPointSerializer.forFormatVersion(1);
+        TimestreamPoint point = scan();
+
+        DataOutputSerializer state = new DataOutputSerializer(64);
+        v1_serializer.serialize(point, state);
+
+        TypeSerializerSnapshot<TimestreamPoint> snapshot = roundTrip(v1_serializer.snapshotConfiguration());
+        TypeSerializerSchemaCompatibility<TimestreamPoint> compatibility = snapshot.resolveSchemaCompatibility(TimestreamPointSerializer.INSTANCE);
+
+        assertTrue(compatibility.isCompatibleAfterMigration());
+
+        TimestreamPoint restored = snapshot.restoreSerializer().deserialize(new DataInputDeserializer(state.getCopyOfBuffer()));
+
+        assertEquals(describe(point), describe(restored));
+        assertEquals(describe(point), describe(reserialize(TimestreamPointSerializer.INSTANCE, restored)));
+    }
+
+    @Test
+    public void migratesVersionOneRetriesWithTheirAttempts() throws IOException {
+        TypeSerializer<RetryablePoint> v1_serializer = new RetryablePointSerializer.RetryablePointSerializerSnapshot(1).restoreSerializer();
+        RetryablePoint retryable_point = new RetryablePoint(scan(), 3, 0L);
+
+        DataOutputSerializer state = new DataOutputSerializer(64);
+        v1_serializer.serialize(retryable_point, state);
+
+        TypeSerializerSnapshot<RetryablePoint> snapshot = roundTrip(v1_serializer.snapshotConfiguration());
+
+        assertTrue(snapshot.resolveSchemaCompatibility(RetryablePointSerializer.INSTANCE).isCompatibleAfterMigration());
+
+        RetryablePoint restored = reserialize(
+            RetryablePointSerializer.INSTANCE,
+            snapshot.restoreSerializer().deserialize(new DataInputDeserializer(state.getCopyOfBuffer())));
+
+        assertEquals(3, restored.getAttempt());
+        assertEquals(describe(retryable_point.getPoint()), describe(restored.getPoint()));
+    }
+
+    @Test
+    public void currentVersionIsCompatibleAsIs() throws IOException {
+        TypeSerializerSnapshot<TimestreamPoint> snapshot = roundTrip(TimestreamPointSerializer.INSTANCE.snapshotConfiguration());
+
+        assertTrue(snapshot.resolveSchemaCompatibility(TimestreamPointSerializer.INSTANCE).isCompatibleAsIs());
+    }
+
+    @Test
+    public void rejectsUnknownSnapshotVersions() {
+        TimestreamPointSerializer.TimestreamPointSerializerSnapshot snapshot = new TimestreamPointSerializer.TimestreamPointSerializerSnapshot();
+
+        snapshot.readSnapshot(3, null, getClass().getClassLoader());
+
+        assertThrows(IllegalArgumentException.class, snapshot::restoreSerializer);
+    }
+
+    private static TimestreamPoint scan() {
+        TimestreamPoint point = point(1700000000000L, "MILLISECONDS", "label_measure", "1", MeasureValueType.BIGINT);
+
+        point.addDimension("data_type", "label_scan");
+        point.addDimension("custom_dimension", "value");
+
+        return point;
+    }
+
+    private static <T> TypeSerializerSnapshot<T> roundTrip(TypeSerializerSnapshot<T> snapshot) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        TypeSerializerSnapshot.writeVersionedSnapshot(out, snapshot);
+
+        return TypeSerializerSnapshot.readVersionedSnapshot(
+            new DataInputDeserializer(out.getCopyOfBuffer()),
+            TimestreamPointSerializerMigrationTest.class.getClassLoader());
+    }
+
+    private static <T> T reserialize(TypeSerializer<T> serializer, T value) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        serializer.serialize(value, out);
+
+        return serializer.deserialize(new DataInputDeserializer(out.getCopyOfBuffer()));
+    }
+}
@@ -0,0 +1,88 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.testutils.DeeplyEqualsChecker;
+
+public class TimestreamPointSerializerTest extends SerializerTestBase<TimestreamPoint> {
+
+    public TimestreamPointSerializerTest() {
+        super(new DeeplyEqualsChecker().withCustomCheck(
+            (first, second) -> first instanceof TimestreamPoint && second instanceof TimestreamPoint,
+            (first, second, checker) -> describe((TimestreamPoint) first).equals(describe((TimestreamPoint) second))));
+    }
+
+    @Override
+    protected TypeSerializer<TimestreamPoint> createSerializer() {
+        return TimestreamPointSerializer.INSTANCE;
+    }
+
+    @Override
+    protected int getLength() {
+        return -1;
+    }
+
+    @Override
+    protected Class<TimestreamPoint> getTypeClass() {
+        return TimestreamPoint.class;
+    }
+
+    @Override
+    protected TimestreamPoint[] getTestData() {
+        TimestreamPoint empty = new TimestreamPoint();
+
+        // Names and types from the dictionary.
+        TimestreamPoint scan = point(1700000000000L, "MILLISECONDS", "label_measure", "1", MeasureValueType.BIGINT);
+        scan.addDimension("data_type", "label_scan");
+        scan.addDimension("country", "UK");
+
+        // Names, units and values the dictionary does not know.
+        TimestreamPoint unknown = point(1700000000L, "FORTNIGHTS", "custom_measure", "ünïcode ✓", MeasureValueType.VARCHAR);
+        unknown.addDimension("custom_dimension", "");
+
+        TimestreamPoint multi = point(1700000000000L, "MILLISECONDS", "label_scan", null, MeasureValueType.MULTI);
+        multi.addDimension("data_type", "label_scan");
+        multi.addMeasure("label_measure", "1", MeasureValueType.BIGINT);
+        multi.addMeasure("custom_measure", "1.5", MeasureValueType.DOUBLE);
+
+        return new TimestreamPoint[] {empty, scan, unknown, multi};
+    }
+
+    static TimestreamPoint point(long time, String time_unit, String measure_name, String measure_value, MeasureValueType type) {
+        TimestreamPoint point = new TimestreamPoint();
+
+        point.setTime(time);
+        point.setTimeUnit(time_unit);
+        point.setMeasureName(measure_name);
+        point.setMeasureValue(measure_value);
+        point.setMeasureValueType(type);
+
+        return point;
+    }
+
+    /** TimestreamPoint has no equals; points are equal when everything the sink writes is. */
+    static String describe(TimestreamPoint point) {
+        StringBuilder description = new StringBuilder()
+            .append(point.getTime()).append(' ').append(point.getTimeUnit()).append(' ')
+            .append(point.getMeasureName()).append('=').append(point.getMeasureValue()).append(' ')
+            .append(point.getMeasureValueType());
+
+        for (int i = 0; i < point.getDimensionCount(); i++) {
+            description.append(' ').append(point.getDimensionName(i)).append(':').append(point.getDimensionValue(i));
+        }
+
+        for (TimestreamMeasure measure : point.getMeasures()) {
+            description.append(' ').append(measure);
+        }
+
+        return description.toString();
+    }
+}
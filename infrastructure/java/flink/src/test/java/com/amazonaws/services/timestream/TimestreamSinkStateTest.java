@@ -0,0 +1,229 @@
+/* ----------
+ * Amazon imports
+ * ---------- */
+package com.amazonaws.services.timestream;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.timestreamwrite.model.MeasureValueType;
+import com.amazonaws.services.timestreamwrite.model.Record;
+import com.amazonaws.services.timestreamwrite.model.ThrottlingException;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsRequest;
+import com.amazonaws.services.timestreamwrite.model.WriteRecordsResult;
+
+/* ----------
+ * Flink imports
+ * ---------- */
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.streaming.api.operators.StreamSink;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+
+/* ----------
+ * JUnit imports
+ * ---------- */
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.amazonaws.services.timestream.SpillQueueTest.values;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/* ----------
+ * Java imports
+ * ---------- */
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Buffered points and pending retries surviving a checkpoint and restore of {@link TimestreamSink}. */
+public class TimestreamSinkStateTest {
+    private static final long LINGER_MILLIS = 1000L;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    // Every write fails once, so five points are in the retry queue with one attempt and three
+    // more are buffered behind them when the checkpoint is taken.
+    private static OperatorSubtaskState checkpointWithBufferAndRetries(TimestreamSinkConfig config) throws Exception {
+        try (OneInputStreamOperatorTestHarness<Collection<TimestreamPoint>, Object> harness = harness(config, new RecordingWriter(true))) {
+            harness.open();
+
+            harness.processElement(points("retried", 5), 0L);
+            harness.processElement(points("buffered", 3), 0L);
+
+            return harness.snapshot(1L, 1L);
+        }
+    }
+
+    @Test
+    public void restoresBufferedPointsAndRetries() throws Exception {
+        TimestreamSinkConfig config = config();
+        OperatorSubtaskState state = checkpointWithBufferAndRetries(config);
+        RecordingWriter writer = new RecordingWriter(false);
+
+        try (OneInputStreamOperatorTestHarness<Collection<TimestreamPoint>, Object> harness = harness(config, writer)) {
+            harness.initializeState(state);
+            harness.open();
+
+            // Restored retries are due at once; the restored buffer flushes after the linger interval.
+            harness.setProcessingTime(LINGER_MILLIS);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("retried-" + i, Integer.valueOf(1), writer.writes.get("retried-" + i));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("buffered-" + i, Integer.valueOf(1), writer.writes.get("buffered-" + i));
+        }
+
+        assertEquals(8, writer.writes.size());
+    }
+
+    @Test
+    public void restoredRetriesKeepTheirAttempts() throws Exception {
+        TimestreamSinkConfig config = config();
+        OperatorSubtaskState state = checkpointWithBufferAndRetries(config);
+        RecordingWriter writer = new RecordingWriter(true);
+
+        try (OneInputStreamOperatorTestHarness<Collection<TimestreamPoint>, Object> harness = harness(config, writer)) {
+            harness.initializeState(state);
+            harness.open();
+
+            // Give every retry time to fall due and fail until the points are dead-lettered.
+            for (long time = 1; time <= 10; time++) {
+                Thread.sleep(5L);
+
+                harness.setProcessingTime(time * LINGER_MILLIS);
+            }
+        }
+
+        // Two attempts allowed: the restored retries had used one, the buffered points none.
+        for (int i = 0; i < 5; i++) {
+            assertEquals("retried-" + i, Integer.valueOf(2), writer.writes.get("retried-" + i));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("buffered-" + i, Integer.valueOf(3), writer.writes.get("buffered-" + i));
+        }
+    }
+
+    @Test
+    public void restoresSpilledPoints() throws Exception {
+        File spill_directory = folder.newFolder("spill");
+
+        // Two points fit in memory and the batch size is never reached, so nothing is written
+        // before the checkpoint and the other four are in the spill queue.
+        TimestreamSinkConfig config = config().withMaxBuffered(2, Long.MAX_VALUE).withSpill(spill_directory.getPath(), Long.MAX_VALUE);
+        OperatorSubtaskState state;
+
+        try (OneInputStreamOperatorTestHarness<Collection<TimestreamPoint>, Object> harness = harness(config, new RecordingWriter(false))) {
+            harness.open();
+
+            harness.processElement(points("point", 6), 0L);
+
+            assertEquals(1, spill_directory.list().length);
+
+            state = harness.snapshot(1L, 1L);
+        }
+
+        // The spill queue is not restored, the checkpoint is; closing removed its files.
+        assertEquals(0, spill_directory.list().length);
+
+        RecordingWriter writer = new RecordingWriter(false);
+
+        try (OneInputStreamOperatorTestHarness<Collection<TimestreamPoint>, Object> harness = harness(config, writer)) {
+            harness.initializeState(state);
+            harness.open();
+
+            harness.setProcessingTime(LINGER_MILLIS);
+        }
+
+        assertEquals(values("point", 6), writer.order);
+        assertTrue(writer.writes.values().stream().allMatch(attempts -> attempts == 1));
+        assertEquals(0, spill_directory.list().length);
+    }
+
+    static TimestreamSinkConfig config() {
+        return TimestreamSinkConfig.fromParameterTool(ParameterTool.fromArgs(new String[] {
+            "--timestream_ingest_batch_size", "5",
+            "--timestream_flush_max_linger_millis", String.valueOf(LINGER_MILLIS),
+            "--timestream_common_attributes", "false",
+            "--timestream_max_retry_attempts", "2",
+            "--timestream_retry_base_backoff_millis", "1",
+            "--timestream_retry_max_backoff_millis", "1"
+        }));
+    }
+
+    static OneInputStreamOperatorTestHarness<Collection<TimestreamPoint>, Object> harness(TimestreamSinkConfig config, TimestreamWriter writer) throws Exception {
+        return new OneInputStreamOperatorTestHarness<>(new StreamSink<>(new TimestreamSink(config, writer)));
+    }
+
+    static Collection<TimestreamPoint> points(String prefix, int count) {
+        List<TimestreamPoint> points = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            TimestreamPoint point = new TimestreamPoint();
+
+            point.setTime(1700000000000L + i);
+            point.setTimeUnit("MILLISECONDS");
+            point.setMeasureName("label_measure");
+            point.setMeasureValue(prefix + "-" + i);
+            point.setMeasureValueType(MeasureValueType.VARCHAR);
+            point.addDimension("data_type", "label_scan");
+
+            points.add(point);
+        }
+
+        return points;
+    }
+
+    /** Counts the write attempts per measure value and keeps their order, throttling every request when failing. */
+    static final class RecordingWriter implements TimestreamWriter {
+        private static final long serialVersionUID = 1L;
+
+        final Map<String, Integer> writes = new ConcurrentHashMap<>();
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        private final boolean failing;
+
+        RecordingWriter(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public void open(TimestreamSinkConfig config) {}
+
+        @Override
+        public WriteRecordsResult writeRecords(WriteRecordsRequest request) {
+            for (Record record : request.getRecords()) {
+                writes.merge(record.getMeasureValue(), 1, Integer::sum);
+                order.add(record.getMeasureValue());
+            }
+
+            if (failing) {
+                throw new ThrottlingException("throttled");
+            }
+
+            return new WriteRecordsResult();
+        }
+
+        @Override
+        public void writeRecordsAsync(WriteRecordsRequest request, AsyncHandler<WriteRecordsRequest, WriteRecordsResult> handler) {
+            try {
+                handler.onSuccess(request, writeRecords(request));
+            } catch (RuntimeException e) {
+                handler.onError(e);
+            }
+        }
+
+        @Override
+        public void close() {}
+    }
+}